@@ -7,10 +7,14 @@ import android.widget.*;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
 import com.amazonaws.services.dynamodbv2.model.*;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.sns.AmazonSNSClient;
+import com.condoconnectai.data.ItemPage;
+import com.condoconnectai.data.KeyPagedSource;
+import com.condoconnectai.data.Repositories;
+import com.condoconnectai.data.Table;
+import com.condoconnectai.utils.AppExecutors;
 import java.util.*;
 
 // ============= COMMUNICATION ACTIVITY =============
@@ -24,14 +28,17 @@ class CommunicationActivity extends AppCompatActivity {
     private Spinner recipientSpinner;
     private MessageAdapter messageAdapter;
     private AnnouncementAdapter announcementAdapter;
-    private AmazonDynamoDBClient dynamoDBClient;
+    private Repositories repositories;
     private AmazonSNSClient snsClient;
     private List<Message> messages;
     private List<Announcement> announcements;
+    private AppExecutors.TaskGroup taskGroup;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        taskGroup = AppExecutors.getInstance().newGroup(this);
+        repositories = Repositories.getInstance(this);
         setContentView(R.layout.activity_communication);
         
         initializeViews();
@@ -64,43 +71,28 @@ class CommunicationActivity extends AppCompatActivity {
     }
 
     private void loadCommunicationData() {
-        new Thread(() -> {
+        taskGroup.io(() -> {
             try {
                 loadMessages();
                 loadAnnouncements();
             } catch (Exception e) {
                 Log.e(TAG, "Error loading communication data", e);
             }
-        }).start();
+        });
     }
 
     private void loadMessages() {
         try {
             String userId = getCurrentUserId();
-            QueryRequest queryRequest = new QueryRequest()
-                .withTableName("CondoconnectAI-Messages")
-                .withIndexName("RecipientIndex")
-                .withKeyConditionExpression("recipient_id = :userId")
-                .withExpressionAttributeValues(Map.of(":userId", new AttributeValue(userId)))
-                .withScanIndexForward(false)
-                .withLimit(50);
-            
-            QueryResult result = dynamoDBClient.query(queryRequest);
-            List<Message> loadedMessages = new ArrayList<>();
-            
-            for (Map<String, AttributeValue> item : result.getItems()) {
-                Message message = new Message();
-                message.setId(item.get("message_id").getS());
-                message.setSenderId(item.get("sender_id").getS());
-                message.setSenderName(item.get("sender_name").getS());
-                message.setSubject(item.get("subject").getS());
-                message.setContent(item.get("content").getS());
-                message.setTimestamp(item.get("timestamp").getS());
-                message.setRead(Boolean.parseBoolean(item.get("is_read").getS()));
-                loadedMessages.add(message);
-            }
+            List<Message> loadedMessages = repositories.messages().query("RecipientIndex")
+                .where("recipient_id", userId)
+                .newestFirst()
+                .limit(50)
+                .projectModel()
+                .execute()
+                .getItems();
             
-            runOnUiThread(() -> {
+            taskGroup.post(() -> {
                 messages.clear();
                 messages.addAll(loadedMessages);
                 messageAdapter.notifyDataSetChanged();
@@ -113,29 +105,15 @@ class CommunicationActivity extends AppCompatActivity {
     private void loadAnnouncements() {
         try {
             String tenantId = getCurrentTenantId();
-            QueryRequest queryRequest = new QueryRequest()
-                .withTableName("CondoconnectAI-Announcements")
-                .withIndexName("TenantIndex")
-                .withKeyConditionExpression("tenant_id = :tenantId")
-                .withExpressionAttributeValues(Map.of(":tenantId", new AttributeValue(tenantId)))
-                .withScanIndexForward(false)
-                .withLimit(20);
-            
-            QueryResult result = dynamoDBClient.query(queryRequest);
-            List<Announcement> loadedAnnouncements = new ArrayList<>();
-            
-            for (Map<String, AttributeValue> item : result.getItems()) {
-                Announcement announcement = new Announcement();
-                announcement.setId(item.get("announcement_id").getS());
-                announcement.setTitle(item.get("title").getS());
-                announcement.setContent(item.get("content").getS());
-                announcement.setAuthor(item.get("author").getS());
-                announcement.setTimestamp(item.get("timestamp").getS());
-                announcement.setPriority(item.get("priority").getS());
-                loadedAnnouncements.add(announcement);
-            }
+            List<Announcement> loadedAnnouncements = repositories.announcements().query("TenantIndex")
+                .where("tenant_id", tenantId)
+                .newestFirst()
+                .limit(20)
+                .projectModel()
+                .execute()
+                .getItems();
             
-            runOnUiThread(() -> {
+            taskGroup.post(() -> {
                 announcements.clear();
                 announcements.addAll(loadedAnnouncements);
                 announcementAdapter.notifyDataSetChanged();
@@ -152,41 +130,34 @@ class CommunicationActivity extends AppCompatActivity {
             return;
         }
         
-        new Thread(() -> {
+        taskGroup.write(() -> {
             try {
-                String messageId = "msg_" + System.currentTimeMillis();
                 String recipientId = getSelectedRecipientId();
                 
-                Map<String, AttributeValue> item = Map.of(
-                    "message_id", new AttributeValue(messageId),
-                    "sender_id", new AttributeValue(getCurrentUserId()),
-                    "sender_name", new AttributeValue(getCurrentUserName()),
-                    "recipient_id", new AttributeValue(recipientId),
-                    "subject", new AttributeValue("Mensaje desde la app"),
-                    "content", new AttributeValue(content),
-                    "timestamp", new AttributeValue(String.valueOf(System.currentTimeMillis())),
-                    "is_read", new AttributeValue("false")
-                );
-                
-                PutItemRequest putItemRequest = new PutItemRequest()
-                    .withTableName("CondoconnectAI-Messages")
-                    .withItem(item);
+                Message message = new Message();
+                message.setId("msg_" + System.currentTimeMillis());
+                message.setSenderId(getCurrentUserId());
+                message.setSenderName(getCurrentUserName());
+                message.setSubject("Mensaje desde la app");
+                message.setContent(content);
+                message.setTimestamp(String.valueOf(System.currentTimeMillis()));
+                message.setRead(false);
                 
-                dynamoDBClient.putItem(putItemRequest);
+                repositories.messages().put(message, Map.of("recipient_id", new AttributeValue(recipientId)));
                 
                 // Enviar notificación push
                 sendPushNotification(recipientId, "Nuevo mensaje", content);
                 
-                runOnUiThread(() -> {
+                taskGroup.post(() -> {
                     messageEditText.setText("");
                     showSuccess("Mensaje enviado exitosamente");
                 });
                 
             } catch (Exception e) {
                 Log.e(TAG, "Error sending message", e);
-                runOnUiThread(() -> showError("Error enviando mensaje"));
+                taskGroup.post(() -> showError("Error enviando mensaje"));
             }
-        }).start();
+        });
     }
 
     private void createAnnouncement() {
@@ -195,27 +166,15 @@ class CommunicationActivity extends AppCompatActivity {
     }
 
     private void onAnnouncementCreated(Announcement announcement) {
-        new Thread(() -> {
+        taskGroup.write(() -> {
             try {
-                String announcementId = "ann_" + System.currentTimeMillis();
+                announcement.setId("ann_" + System.currentTimeMillis());
+                announcement.setAuthor(getCurrentUserName());
+                announcement.setTimestamp(String.valueOf(System.currentTimeMillis()));
                 
-                Map<String, AttributeValue> item = Map.of(
-                    "announcement_id", new AttributeValue(announcementId),
-                    "tenant_id", new AttributeValue(getCurrentTenantId()),
-                    "title", new AttributeValue(announcement.getTitle()),
-                    "content", new AttributeValue(announcement.getContent()),
-                    "author", new AttributeValue(getCurrentUserName()),
-                    "timestamp", new AttributeValue(String.valueOf(System.currentTimeMillis())),
-                    "priority", new AttributeValue(announcement.getPriority())
-                );
+                repositories.announcements().put(announcement, Map.of("tenant_id", new AttributeValue(getCurrentTenantId())));
                 
-                PutItemRequest putItemRequest = new PutItemRequest()
-                    .withTableName("CondoconnectAI-Announcements")
-                    .withItem(item);
-                
-                dynamoDBClient.putItem(putItemRequest);
-                
-                runOnUiThread(() -> {
+                taskGroup.post(() -> {
                     announcements.add(0, announcement);
                     announcementAdapter.notifyItemInserted(0);
                     showSuccess("Anuncio creado exitosamente");
@@ -223,9 +182,9 @@ class CommunicationActivity extends AppCompatActivity {
                 
             } catch (Exception e) {
                 Log.e(TAG, "Error creating announcement", e);
-                runOnUiThread(() -> showError("Error creando anuncio"));
+                taskGroup.post(() -> showError("Error creando anuncio"));
             }
-        }).start();
+        });
     }
 
     private void sendPushNotification(String recipientId, String title, String message) {
@@ -275,13 +234,16 @@ class ReportsActivity extends AppCompatActivity {
     private Button downloadReportButton;
     private RecyclerView reportsRecycler;
     private ReportAdapter reportAdapter;
-    private AmazonDynamoDBClient dynamoDBClient;
+    private Repositories repositories;
     private AmazonS3Client s3Client;
     private List<Report> reports;
+    private AppExecutors.TaskGroup taskGroup;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        taskGroup = AppExecutors.getInstance().newGroup(this);
+        repositories = Repositories.getInstance(this);
         setContentView(R.layout.activity_reports);
         
         initializeViews();
@@ -315,33 +277,19 @@ class ReportsActivity extends AppCompatActivity {
     }
 
     private void loadReports() {
-        new Thread(() -> {
+        taskGroup.io(() -> {
             try {
                 String tenantId = getCurrentTenantId();
                 
-                QueryRequest queryRequest = new QueryRequest()
-                    .withTableName("CondoconnectAI-Reports")
-                    .withIndexName("TenantIndex")
-                    .withKeyConditionExpression("tenant_id = :tenantId")
-                    .withExpressionAttributeValues(Map.of(":tenantId", new AttributeValue(tenantId)))
-                    .withScanIndexForward(false)
-                    .withLimit(50);
+                List<Report> loadedReports = repositories.reports().query("TenantIndex")
+                    .where("tenant_id", tenantId)
+                    .newestFirst()
+                    .limit(50)
+                    .projectModel()
+                    .execute()
+                    .getItems();
                 
-                QueryResult result = dynamoDBClient.query(queryRequest);
-                List<Report> loadedReports = new ArrayList<>();
-                
-                for (Map<String, AttributeValue> item : result.getItems()) {
-                    Report report = new Report();
-                    report.setId(item.get("report_id").getS());
-                    report.setName(item.get("name").getS());
-                    report.setType(item.get("type").getS());
-                    report.setStatus(item.get("status").getS());
-                    report.setCreatedAt(item.get("created_at").getS());
-                    report.setFileUrl(item.get("file_url").getS());
-                    loadedReports.add(report);
-                }
-                
-                runOnUiThread(() -> {
+                taskGroup.post(() -> {
                     reports.clear();
                     reports.addAll(loadedReports);
                     reportAdapter.notifyDataSetChanged();
@@ -350,59 +298,48 @@ class ReportsActivity extends AppCompatActivity {
             } catch (Exception e) {
                 Log.e(TAG, "Error loading reports", e);
             }
-        }).start();
+        });
     }
 
     private void generateReport() {
         String reportType = reportTypeSpinner.getSelectedItem().toString();
         
-        new Thread(() -> {
+        taskGroup.write(() -> {
             try {
                 String reportId = "report_" + System.currentTimeMillis();
                 
                 // Crear entrada en DynamoDB
-                Map<String, AttributeValue> item = Map.of(
-                    "report_id", new AttributeValue(reportId),
+                Report report = new Report();
+                report.setId(reportId);
+                report.setName("Reporte " + reportType + " - " + getCurrentDate());
+                report.setType(reportType.toLowerCase());
+                report.setStatus("generating");
+                report.setCreatedAt(String.valueOf(System.currentTimeMillis()));
+                
+                repositories.reports().put(report, Map.of(
                     "tenant_id", new AttributeValue(getCurrentTenantId()),
-                    "name", new AttributeValue("Reporte " + reportType + " - " + getCurrentDate()),
-                    "type", new AttributeValue(reportType.toLowerCase()),
-                    "status", new AttributeValue("generating"),
-                    "created_at", new AttributeValue(String.valueOf(System.currentTimeMillis())),
                     "created_by", new AttributeValue(getCurrentUserId())
-                );
-                
-                PutItemRequest putItemRequest = new PutItemRequest()
-                    .withTableName("CondoconnectAI-Reports")
-                    .withItem(item);
-                
-                dynamoDBClient.putItem(putItemRequest);
+                ));
                 
                 // Simular generación de reporte
                 Thread.sleep(3000);
                 
                 // Actualizar estado a completado
-                UpdateItemRequest updateRequest = new UpdateItemRequest()
-                    .withTableName("CondoconnectAI-Reports")
-                    .withKey(Map.of("report_id", new AttributeValue(reportId)))
-                    .withUpdateExpression("SET #status = :status, file_url = :url")
-                    .withExpressionAttributeNames(Map.of("#status", "status"))
-                    .withExpressionAttributeValues(Map.of(
-                        ":status", new AttributeValue("completed"),
-                        ":url", new AttributeValue("https://s3.amazonaws.com/reports/" + reportId + ".pdf")
-                    ));
-                
-                dynamoDBClient.updateItem(updateRequest);
+                repositories.reports().update(reportId, Map.of(
+                    "status", new AttributeValue("completed"),
+                    "file_url", new AttributeValue("https://s3.amazonaws.com/reports/" + reportId + ".pdf")
+                ));
                 
-                runOnUiThread(() -> {
+                taskGroup.post(() -> {
                     showSuccess("Reporte generado exitosamente");
                     loadReports();
                 });
                 
             } catch (Exception e) {
                 Log.e(TAG, "Error generating report", e);
-                runOnUiThread(() -> showError("Error generando reporte"));
+                taskGroup.post(() -> showError("Error generando reporte"));
             }
-        }).start();
+        });
     }
 
     private void downloadSelectedReport() {
@@ -444,12 +381,15 @@ class BiometricActivity extends AppCompatActivity {
     private TextView biometricStatusText;
     private RecyclerView biometricRecordsRecycler;
     private BiometricAdapter biometricAdapter;
-    private AmazonDynamoDBClient dynamoDBClient;
+    private Repositories repositories;
     private List<BiometricRecord> biometricRecords;
+    private AppExecutors.TaskGroup taskGroup;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        taskGroup = AppExecutors.getInstance().newGroup(this);
+        repositories = Repositories.getInstance(this);
         setContentView(R.layout.activity_biometric);
         
         initializeViews();
@@ -475,31 +415,18 @@ class BiometricActivity extends AppCompatActivity {
     }
 
     private void loadBiometricData() {
-        new Thread(() -> {
+        taskGroup.io(() -> {
             try {
                 String userId = getCurrentUserId();
                 
-                QueryRequest queryRequest = new QueryRequest()
-                    .withTableName("CondoconnectAI-BiometricRecords")
-                    .withIndexName("UserIndex")
-                    .withKeyConditionExpression("user_id = :userId")
-                    .withExpressionAttributeValues(Map.of(":userId", new AttributeValue(userId)))
-                    .withScanIndexForward(false);
-                
-                QueryResult result = dynamoDBClient.query(queryRequest);
-                List<BiometricRecord> loadedRecords = new ArrayList<>();
-                
-                for (Map<String, AttributeValue> item : result.getItems()) {
-                    BiometricRecord record = new BiometricRecord();
-                    record.setId(item.get("record_id").getS());
-                    record.setType(item.get("biometric_type").getS());
-                    record.setStatus(item.get("status").getS());
-                    record.setTimestamp(item.get("timestamp").getS());
-                    record.setAction(item.get("action").getS());
-                    loadedRecords.add(record);
-                }
+                List<BiometricRecord> loadedRecords = repositories.biometricRecords().query("UserIndex")
+                    .where("user_id", userId)
+                    .newestFirst()
+                    .projectModel()
+                    .execute()
+                    .getItems();
                 
-                runOnUiThread(() -> {
+                taskGroup.post(() -> {
                     biometricRecords.clear();
                     biometricRecords.addAll(loadedRecords);
                     biometricAdapter.notifyDataSetChanged();
@@ -509,73 +436,57 @@ class BiometricActivity extends AppCompatActivity {
             } catch (Exception e) {
                 Log.e(TAG, "Error loading biometric data", e);
             }
-        }).start();
+        });
     }
 
     private void enrollBiometric() {
         // Implementar registro biométrico
-        new Thread(() -> {
+        taskGroup.write(() -> {
             try {
-                String recordId = "bio_" + System.currentTimeMillis();
-                
-                Map<String, AttributeValue> item = Map.of(
-                    "record_id", new AttributeValue(recordId),
-                    "user_id", new AttributeValue(getCurrentUserId()),
-                    "biometric_type", new AttributeValue("fingerprint"),
-                    "status", new AttributeValue("enrolled"),
-                    "timestamp", new AttributeValue(String.valueOf(System.currentTimeMillis())),
-                    "action", new AttributeValue("enrollment")
-                );
+                BiometricRecord record = new BiometricRecord();
+                record.setId("bio_" + System.currentTimeMillis());
+                record.setType("fingerprint");
+                record.setStatus("enrolled");
+                record.setTimestamp(String.valueOf(System.currentTimeMillis()));
+                record.setAction("enrollment");
                 
-                PutItemRequest putItemRequest = new PutItemRequest()
-                    .withTableName("CondoconnectAI-BiometricRecords")
-                    .withItem(item);
+                repositories.biometricRecords().put(record, Map.of("user_id", new AttributeValue(getCurrentUserId())));
                 
-                dynamoDBClient.putItem(putItemRequest);
-                
-                runOnUiThread(() -> {
+                taskGroup.post(() -> {
                     showSuccess("Biométrico registrado exitosamente");
                     loadBiometricData();
                 });
                 
             } catch (Exception e) {
                 Log.e(TAG, "Error enrolling biometric", e);
-                runOnUiThread(() -> showError("Error registrando biométrico"));
+                taskGroup.post(() -> showError("Error registrando biométrico"));
             }
-        }).start();
+        });
     }
 
     private void verifyBiometric() {
         // Implementar verificación biométrica
-        new Thread(() -> {
+        taskGroup.write(() -> {
             try {
-                String recordId = "bio_verify_" + System.currentTimeMillis();
-                
-                Map<String, AttributeValue> item = Map.of(
-                    "record_id", new AttributeValue(recordId),
-                    "user_id", new AttributeValue(getCurrentUserId()),
-                    "biometric_type", new AttributeValue("fingerprint"),
-                    "status", new AttributeValue("verified"),
-                    "timestamp", new AttributeValue(String.valueOf(System.currentTimeMillis())),
-                    "action", new AttributeValue("verification")
-                );
+                BiometricRecord record = new BiometricRecord();
+                record.setId("bio_verify_" + System.currentTimeMillis());
+                record.setType("fingerprint");
+                record.setStatus("verified");
+                record.setTimestamp(String.valueOf(System.currentTimeMillis()));
+                record.setAction("verification");
                 
-                PutItemRequest putItemRequest = new PutItemRequest()
-                    .withTableName("CondoconnectAI-BiometricRecords")
-                    .withItem(item);
+                repositories.biometricRecords().put(record, Map.of("user_id", new AttributeValue(getCurrentUserId())));
                 
-                dynamoDBClient.putItem(putItemRequest);
-                
-                runOnUiThread(() -> {
+                taskGroup.post(() -> {
                     showSuccess("Verificación biométrica exitosa");
                     loadBiometricData();
                 });
                 
             } catch (Exception e) {
                 Log.e(TAG, "Error verifying biometric", e);
-                runOnUiThread(() -> showError("Error en verificación biométrica"));
+                taskGroup.post(() -> showError("Error en verificación biométrica"));
             }
-        }).start();
+        });
     }
 
     private void updateBiometricStatus() {
@@ -607,16 +518,22 @@ class BiometricActivity extends AppCompatActivity {
 // ============= ACCESS CONTROL ACTIVITY =============
 class AccessControlActivity extends AppCompatActivity {
     private static final String TAG = "AccessControlActivity";
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_PAGES_IN_MEMORY = 6;
     private Button grantAccessButton;
     private Button revokeAccessButton;
     private RecyclerView accessLogsRecycler;
     private AccessLogAdapter accessLogAdapter;
-    private AmazonDynamoDBClient dynamoDBClient;
+    private Repositories repositories;
     private List<AccessLog> accessLogs;
+    private KeyPagedSource<AccessLog> accessLogPages;
+    private AppExecutors.TaskGroup taskGroup;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        taskGroup = AppExecutors.getInstance().newGroup(this);
+        repositories = Repositories.getInstance(this);
         setContentView(R.layout.activity_access_control);
         
         initializeViews();
@@ -636,48 +553,23 @@ class AccessControlActivity extends AppCompatActivity {
     private void setupRecyclerView() {
         accessLogs = new ArrayList<>();
         accessLogAdapter = new AccessLogAdapter(accessLogs);
-        accessLogsRecycler.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        accessLogsRecycler.setLayoutManager(layoutManager);
         accessLogsRecycler.setAdapter(accessLogAdapter);
+        
+        // A busy gate logs thousands of events a day, so history is paged in
+        // as the list scrolls rather than read up front
+        accessLogPages = new KeyPagedSource<>(taskGroup,
+            () -> repositories.accessLogs().query("TenantIndex")
+                .where("tenant_id", getCurrentTenantId())
+                .newestFirst()
+                .projectModel(),
+            PAGE_SIZE, MAX_PAGES_IN_MEMORY, KeyPagedSource.into(accessLogs, accessLogAdapter));
+        accessLogsRecycler.addOnScrollListener(accessLogPages.scrollListener(layoutManager));
     }
 
     private void loadAccessLogs() {
-        new Thread(() -> {
-            try {
-                String tenantId = getCurrentTenantId();
-                
-                QueryRequest queryRequest = new QueryRequest()
-                    .withTableName("CondoconnectAI-AccessLogs")
-                    .withIndexName("TenantIndex")
-                    .withKeyConditionExpression("tenant_id = :tenantId")
-                    .withExpressionAttributeValues(Map.of(":tenantId", new AttributeValue(tenantId)))
-                    .withScanIndexForward(false)
-                    .withLimit(100);
-                
-                QueryResult result = dynamoDBClient.query(queryRequest);
-                List<AccessLog> loadedLogs = new ArrayList<>();
-                
-                for (Map<String, AttributeValue> item : result.getItems()) {
-                    AccessLog log = new AccessLog();
-                    log.setId(item.get("log_id").getS());
-                    log.setUserId(item.get("user_id").getS());
-                    log.setUserName(item.get("user_name").getS());
-                    log.setAction(item.get("action").getS());
-                    log.setLocation(item.get("location").getS());
-                    log.setTimestamp(item.get("timestamp").getS());
-                    log.setStatus(item.get("status").getS());
-                    loadedLogs.add(log);
-                }
-                
-                runOnUiThread(() -> {
-                    accessLogs.clear();
-                    accessLogs.addAll(loadedLogs);
-                    accessLogAdapter.notifyDataSetChanged();
-                });
-                
-            } catch (Exception e) {
-                Log.e(TAG, "Error loading access logs", e);
-            }
-        }).start();
+        accessLogPages.refresh();
     }
 
     private void grantAccess() {
@@ -693,33 +585,25 @@ class AccessControlActivity extends AppCompatActivity {
     }
 
     private void logAccessAction(String action, String status) {
-        new Thread(() -> {
+        taskGroup.write(() -> {
             try {
-                String logId = "access_" + System.currentTimeMillis();
-                
-                Map<String, AttributeValue> item = Map.of(
-                    "log_id", new AttributeValue(logId),
-                    "tenant_id", new AttributeValue(getCurrentTenantId()),
-                    "user_id", new AttributeValue(getCurrentUserId()),
-                    "user_name", new AttributeValue(getCurrentUserName()),
-                    "action", new AttributeValue(action),
-                    "location", new AttributeValue("Mobile App"),
-                    "timestamp", new AttributeValue(String.valueOf(System.currentTimeMillis())),
-                    "status", new AttributeValue(status)
-                );
-                
-                PutItemRequest putItemRequest = new PutItemRequest()
-                    .withTableName("CondoconnectAI-AccessLogs")
-                    .withItem(item);
+                AccessLog log = new AccessLog();
+                log.setId("access_" + System.currentTimeMillis());
+                log.setUserId(getCurrentUserId());
+                log.setUserName(getCurrentUserName());
+                log.setAction(action);
+                log.setLocation("Mobile App");
+                log.setTimestamp(String.valueOf(System.currentTimeMillis()));
+                log.setStatus(status);
                 
-                dynamoDBClient.putItem(putItemRequest);
+                repositories.accessLogs().put(log, Map.of("tenant_id", new AttributeValue(getCurrentTenantId())));
                 
-                runOnUiThread(() -> loadAccessLogs());
+                taskGroup.post(() -> loadAccessLogs());
                 
             } catch (Exception e) {
                 Log.e(TAG, "Error logging access action", e);
             }
-        }).start();
+        });
     }
 
     private String getCurrentTenantId() {
@@ -746,16 +630,22 @@ class AccessControlActivity extends AppCompatActivity {
 // ============= TICKET ACTIVITY =============
 class TicketActivity extends AppCompatActivity {
     private static final String TAG = "TicketActivity";
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_PAGES_IN_MEMORY = 6;
     private Button createTicketButton;
     private RecyclerView ticketsRecycler;
     private Spinner statusFilterSpinner;
     private TicketAdapter ticketAdapter;
-    private AmazonDynamoDBClient dynamoDBClient;
+    private Repositories repositories;
     private List<Ticket> tickets;
+    private KeyPagedSource<Ticket> ticketPages;
+    private AppExecutors.TaskGroup taskGroup;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        taskGroup = AppExecutors.getInstance().newGroup(this);
+        repositories = Repositories.getInstance(this);
         setContentView(R.layout.activity_ticket);
         
         initializeViews();
@@ -775,8 +665,43 @@ class TicketActivity extends AppCompatActivity {
     private void setupRecyclerView() {
         tickets = new ArrayList<>();
         ticketAdapter = new TicketAdapter(tickets, this::onTicketClick);
-        ticketsRecycler.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        ticketsRecycler.setLayoutManager(layoutManager);
         ticketsRecycler.setAdapter(ticketAdapter);
+        
+        // The adapter shows the filtered list, so every window change refilters
+        ticketPages = new KeyPagedSource<>(taskGroup,
+            () -> repositories.tickets().query("UserIndex")
+                .where("user_id", getCurrentUserId())
+                .newestFirst()
+                .projectModel(),
+            PAGE_SIZE, MAX_PAGES_IN_MEMORY, new KeyPagedSource.Listener<Ticket>() {
+                @Override
+                public void onReset(List<Ticket> items) {
+                    tickets.clear();
+                    tickets.addAll(items);
+                    filterTickets();
+                }
+                
+                @Override
+                public void onInserted(List<Ticket> items, boolean atEnd) {
+                    tickets.addAll(atEnd ? tickets.size() : 0, items);
+                    filterTickets();
+                }
+                
+                @Override
+                public void onRemoved(int count, boolean atStart) {
+                    int from = atStart ? 0 : tickets.size() - count;
+                    tickets.subList(from, from + count).clear();
+                    filterTickets();
+                }
+                
+                @Override
+                public void onError(Exception error) {
+                    Log.e(TAG, "Error loading tickets", error);
+                }
+            });
+        ticketsRecycler.addOnScrollListener(ticketPages.scrollListener(layoutManager));
     }
 
     private void setupFilters() {
@@ -797,42 +722,7 @@ class TicketActivity extends AppCompatActivity {
     }
 
     private void loadTickets() {
-        new Thread(() -> {
-            try {
-                String userId = getCurrentUserId();
-                
-                QueryRequest queryRequest = new QueryRequest()
-                    .withTableName("CondoconnectAI-Tickets")
-                    .withIndexName("UserIndex")
-                    .withKeyConditionExpression("user_id = :userId")
-                    .withExpressionAttributeValues(Map.of(":userId", new AttributeValue(userId)))
-                    .withScanIndexForward(false);
-                
-                QueryResult result = dynamoDBClient.query(queryRequest);
-                List<Ticket> loadedTickets = new ArrayList<>();
-                
-                for (Map<String, AttributeValue> item : result.getItems()) {
-                    Ticket ticket = new Ticket();
-                    ticket.setId(item.get("ticket_id").getS());
-                    ticket.setTitle(item.get("title").getS());
-                    ticket.setDescription(item.get("description").getS());
-                    ticket.setStatus(item.get("status").getS());
-                    ticket.setPriority(item.get("priority").getS());
-                    ticket.setCategory(item.get("category").getS());
-                    ticket.setCreatedAt(item.get("created_at").getS());
-                    loadedTickets.add(ticket);
-                }
-                
-                runOnUiThread(() -> {
-                    tickets.clear();
-                    tickets.addAll(loadedTickets);
-                    ticketAdapter.notifyDataSetChanged();
-                });
-                
-            } catch (Exception e) {
-                Log.e(TAG, "Error loading tickets", e);
-            }
-        }).start();
+        ticketPages.refresh();
     }
 
     private void filterTickets() {
@@ -854,40 +744,28 @@ class TicketActivity extends AppCompatActivity {
     }
 
     private void onTicketCreated(Ticket newTicket) {
-        new Thread(() -> {
+        taskGroup.write(() -> {
             try {
                 String ticketId = "ticket_" + System.currentTimeMillis();
                 newTicket.setId(ticketId);
+                newTicket.setStatus("open");
+                newTicket.setCreatedAt(String.valueOf(System.currentTimeMillis()));
                 
-                Map<String, AttributeValue> item = Map.of(
-                    "ticket_id", new AttributeValue(ticketId),
+                repositories.tickets().put(newTicket, Map.of(
                     "user_id", new AttributeValue(getCurrentUserId()),
-                    "tenant_id", new AttributeValue(getCurrentTenantId()),
-                    "title", new AttributeValue(newTicket.getTitle()),
-                    "description", new AttributeValue(newTicket.getDescription()),
-                    "status", new AttributeValue("open"),
-                    "priority", new AttributeValue(newTicket.getPriority()),
-                    "category", new AttributeValue(newTicket.getCategory()),
-                    "created_at", new AttributeValue(String.valueOf(System.currentTimeMillis()))
-                );
-                
-                PutItemRequest putItemRequest = new PutItemRequest()
-                    .withTableName("CondoconnectAI-Tickets")
-                    .withItem(item);
-                
-                dynamoDBClient.putItem(putItemRequest);
+                    "tenant_id", new AttributeValue(getCurrentTenantId())
+                ));
                 
-                runOnUiThread(() -> {
-                    tickets.add(0, newTicket);
-                    ticketAdapter.notifyItemInserted(0);
+                taskGroup.post(() -> {
+                    ticketPages.insertAtStart(newTicket);
                     showSuccess("Ticket creado exitosamente");
                 });
                 
             } catch (Exception e) {
                 Log.e(TAG, "Error creating ticket", e);
-                runOnUiThread(() -> showError("Error creando ticket"));
+                taskGroup.post(() -> showError("Error creando ticket"));
             }
-        }).start();
+        });
     }
 
     private void onTicketClick(Ticket ticket) {
@@ -1013,16 +891,22 @@ class ConfigurationActivity extends AppCompatActivity {
 // ============= NOTIFICATION ACTIVITY =============
 class NotificationActivity extends AppCompatActivity {
     private static final String TAG = "NotificationActivity";
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_PAGES_IN_MEMORY = 6;
     private RecyclerView notificationsRecycler;
     private Button markAllReadButton;
     private Button clearAllButton;
     private NotificationAdapter notificationAdapter;
-    private AmazonDynamoDBClient dynamoDBClient;
+    private Repositories repositories;
     private List<Notification> notifications;
+    private KeyPagedSource<Notification> notificationPages;
+    private AppExecutors.TaskGroup taskGroup;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        taskGroup = AppExecutors.getInstance().newGroup(this);
+        repositories = Repositories.getInstance(this);
         setContentView(R.layout.activity_notification);
         
         initializeViews();
@@ -1042,97 +926,100 @@ class NotificationActivity extends AppCompatActivity {
     private void setupRecyclerView() {
         notifications = new ArrayList<>();
         notificationAdapter = new NotificationAdapter(notifications, this::onNotificationClick);
-        notificationsRecycler.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        notificationsRecycler.setLayoutManager(layoutManager);
         notificationsRecycler.setAdapter(notificationAdapter);
+        
+        notificationPages = new KeyPagedSource<>(taskGroup,
+            () -> repositories.notifications().query("UserIndex")
+                .where("user_id", getCurrentUserId())
+                .newestFirst()
+                .projectModel(),
+            PAGE_SIZE, MAX_PAGES_IN_MEMORY, KeyPagedSource.into(notifications, notificationAdapter));
+        notificationsRecycler.addOnScrollListener(notificationPages.scrollListener(layoutManager));
     }
 
     private void loadNotifications() {
-        new Thread(() -> {
-            try {
-                String userId = getCurrentUserId();
-                
-                QueryRequest queryRequest = new QueryRequest()
-                    .withTableName("CondoconnectAI-Notifications")
-                    .withIndexName("UserIndex")
-                    .withKeyConditionExpression("user_id = :userId")
-                    .withExpressionAttributeValues(Map.of(":userId", new AttributeValue(userId)))
-                    .withScanIndexForward(false)
-                    .withLimit(100);
-                
-                QueryResult result = dynamoDBClient.query(queryRequest);
-                List<Notification> loadedNotifications = new ArrayList<>();
-                
-                for (Map<String, AttributeValue> item : result.getItems()) {
-                    Notification notification = new Notification();
-                    notification.setId(item.get("notification_id").getS());
-                    notification.setTitle(item.get("title").getS());
-                    notification.setMessage(item.get("message").getS());
-                    notification.setType(item.get("type").getS());
-                    notification.setTimestamp(item.get("timestamp").getS());
-                    notification.setRead(Boolean.parseBoolean(item.get("is_read").getS()));
-                    loadedNotifications.add(notification);
-                }
-                
-                runOnUiThread(() -> {
-                    notifications.clear();
-                    notifications.addAll(loadedNotifications);
-                    notificationAdapter.notifyDataSetChanged();
-                });
-                
-            } catch (Exception e) {
-                Log.e(TAG, "Error loading notifications", e);
-            }
-        }).start();
+        notificationPages.refresh();
     }
 
+    // Covers every notification of the user, not only the pages in memory
     private void markAllAsRead() {
-        new Thread(() -> {
+        String userId = getCurrentUserId();
+        List<Notification> unread = new ArrayList<>();
+        for (Notification notification : notifications) {
+            if (!notification.isRead()) {
+                unread.add(notification);
+            }
+        }
+        
+        taskGroup.write(() -> {
             try {
-                for (Notification notification : notifications) {
-                    if (!notification.isRead()) {
-                        UpdateItemRequest updateRequest = new UpdateItemRequest()
-                            .withTableName("CondoconnectAI-Notifications")
-                            .withKey(Map.of("notification_id", new AttributeValue(notification.getId())))
-                            .withUpdateExpression("SET is_read = :read")
-                            .withExpressionAttributeValues(Map.of(":read", new AttributeValue("true")));
-                        
-                        dynamoDBClient.updateItem(updateRequest);
+                repositories.notifications().updateAll(notificationIds(userId, true),
+                    Map.of("is_read", new AttributeValue("true")));
+                
+                taskGroup.post(() -> {
+                    for (Notification notification : unread) {
                         notification.setRead(true);
                     }
-                }
-                
-                runOnUiThread(() -> {
                     notificationAdapter.notifyDataSetChanged();
                     showSuccess("Todas las notificaciones marcadas como leídas");
                 });
                 
             } catch (Exception e) {
                 Log.e(TAG, "Error marking notifications as read", e);
+                // Some updates may have landed; show what the table holds now
+                taskGroup.post(() -> {
+                    showError("Error marcando notificaciones como leídas");
+                    loadNotifications();
+                });
             }
-        }).start();
+        });
     }
 
     private void clearAllNotifications() {
-        new Thread(() -> {
+        String userId = getCurrentUserId();
+        
+        taskGroup.write(() -> {
             try {
-                for (Notification notification : notifications) {
-                    DeleteItemRequest deleteRequest = new DeleteItemRequest()
-                        .withTableName("CondoconnectAI-Notifications")
-                        .withKey(Map.of("notification_id", new AttributeValue(notification.getId())));
-                    
-                    dynamoDBClient.deleteItem(deleteRequest);
-                }
+                repositories.notifications().deleteAll(notificationIds(userId, false));
                 
-                runOnUiThread(() -> {
-                    notifications.clear();
-                    notificationAdapter.notifyDataSetChanged();
+                // Anything that arrived meanwhile shows up on the reload
+                taskGroup.post(() -> {
+                    loadNotifications();
                     showSuccess("Todas las notificaciones eliminadas");
                 });
                 
             } catch (Exception e) {
                 Log.e(TAG, "Error clearing notifications", e);
+                taskGroup.post(() -> {
+                    showError("Error eliminando notificaciones");
+                    loadNotifications();
+                });
+            }
+        });
+    }
+
+    // Pages through the user's whole notification history reading only the
+    // key and read flag; runs on the write task that acts on the ids
+    private List<String> notificationIds(String userId, boolean unreadOnly) {
+        Table<Notification> table = repositories.notifications();
+        List<String> ids = new ArrayList<>();
+        Map<String, AttributeValue> startKey = null;
+        do {
+            ItemPage<Notification> page = table.query("UserIndex")
+                .where("user_id", userId)
+                .project(Arrays.asList(table.getKeyAttribute(), "is_read"))
+                .startAfter(startKey)
+                .execute();
+            for (Notification notification : page.getItems()) {
+                if (!unreadOnly || !notification.isRead()) {
+                    ids.add(notification.getId());
+                }
             }
-        }).start();
+            startKey = page.getLastEvaluatedKey();
+        } while (startKey != null);
+        return ids;
     }
 
     private void onNotificationClick(Notification notification) {
@@ -1145,29 +1032,27 @@ class NotificationActivity extends AppCompatActivity {
     }
 
     private void markNotificationAsRead(Notification notification) {
-        new Thread(() -> {
+        taskGroup.write(() -> {
             try {
-                UpdateItemRequest updateRequest = new UpdateItemRequest()
-                    .withTableName("CondoconnectAI-Notifications")
-                    .withKey(Map.of("notification_id", new AttributeValue(notification.getId())))
-                    .withUpdateExpression("SET is_read = :read")
-                    .withExpressionAttributeValues(Map.of(":read", new AttributeValue("true")));
-                
-                dynamoDBClient.updateItem(updateRequest);
+                repositories.notifications().update(notification.getId(), Map.of("is_read", new AttributeValue("true")));
                 notification.setRead(true);
                 
-                runOnUiThread(() -> notificationAdapter.notifyDataSetChanged());
+                taskGroup.post(() -> notificationAdapter.notifyDataSetChanged());
                 
             } catch (Exception e) {
                 Log.e(TAG, "Error marking notification as read", e);
             }
-        }).start();
+        });
     }
 
     private String getCurrentUserId() {
         return getSharedPreferences("CondoconnectAI", MODE_PRIVATE).getString("user_id", "");
     }
 
+    private void showError(String message) {
+        Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+    }
+
     private void showSuccess(String message) {
         Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
     }
@@ -1181,10 +1066,12 @@ class OfflineActivity extends AppCompatActivity {
     private RecyclerView offlineDataRecycler;
     private OfflineDataAdapter offlineDataAdapter;
     private List<OfflineData> offlineDataList;
+    private AppExecutors.TaskGroup taskGroup;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        taskGroup = AppExecutors.getInstance().newGroup(this);
         setContentView(R.layout.activity_offline);
         
         initializeViews();
@@ -1243,21 +1130,21 @@ class OfflineActivity extends AppCompatActivity {
     }
 
     private void syncOfflineData() {
-        new Thread(() -> {
+        taskGroup.io(() -> {
             try {
                 // Simular sincronización de datos offline
                 Thread.sleep(2000);
                 
-                runOnUiThread(() -> {
+                taskGroup.post(() -> {
                     showSuccess("Datos sincronizados exitosamente");
                     checkConnectivity();
                 });
                 
             } catch (Exception e) {
                 Log.e(TAG, "Error syncing offline data", e);
-                runOnUiThread(() -> showError("Error sincronizando datos"));
+                taskGroup.post(() -> showError("Error sincronizando datos"));
             }
-        }).start();
+        });
     }
 
     private void updateOfflineStatus() {
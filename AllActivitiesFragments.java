@@ -12,6 +12,7 @@ import androidx.fragment.app.FragmentTransaction;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.condoconnectai.R;
 import com.condoconnectai.fragments.*;
+import com.condoconnectai.services.TabPrefetcher;
 import com.condoconnectai.utils.AuthManager;
 import com.condoconnectai.utils.NetworkUtils;
 
@@ -20,6 +21,7 @@ public class MainActivity extends AppCompatActivity implements BottomNavigationV
     private BottomNavigationView bottomNavigationView;
     private FragmentManager fragmentManager;
     private AuthManager authManager;
+    private TabPrefetcher tabPrefetcher;
     
     // Fragment instances
     private DashboardFragment dashboardFragment;
@@ -49,6 +51,13 @@ public class MainActivity extends AppCompatActivity implements BottomNavigationV
         bottomNavigationView = findViewById(R.id.bottom_navigation);
         fragmentManager = getSupportFragmentManager();
         authManager = AuthManager.getInstance(this);
+        
+        // Tabs backed by cached list endpoints; the others have nothing to warm
+        tabPrefetcher = new TabPrefetcher(this);
+        tabPrefetcher.registerTab("payments", "getPayments");
+        tabPrefetcher.registerTab("maintenance", "getWorkOrders");
+        tabPrefetcher.registerTab("security", "getVisitors");
+        tabPrefetcher.registerTab("communication", "getMessages");
     }
     
     private void checkAuthentication() {
@@ -157,6 +166,7 @@ public class MainActivity extends AppCompatActivity implements BottomNavigationV
         }
         
         transaction.commit();
+        tabPrefetcher.onTabSelected(tag);
     }
     
     private void hideAllFragments(FragmentTransaction transaction) {
@@ -173,6 +183,12 @@ public class MainActivity extends AppCompatActivity implements BottomNavigationV
         // Implementation for network error dialog
     }
     
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        tabPrefetcher.cancel();
+    }
+    
     @Override
     protected void onResume() {
         super.onResume();
@@ -381,11 +397,9 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import com.condoconnectai.R;
 import com.condoconnectai.adapters.DashboardStatsAdapter;
 import com.condoconnectai.adapters.RecentActivitiesAdapter;
-import com.condoconnectai.models.DashboardStats;
-import com.condoconnectai.models.Activity;
 import com.condoconnectai.services.ApiService;
+import com.condoconnectai.services.RequestScope;
 import com.condoconnectai.utils.AuthManager;
-import java.util.List;
 
 public class DashboardFragment extends Fragment implements RefreshableFragment {
     
@@ -399,6 +413,9 @@ public class DashboardFragment extends Fragment implements RefreshableFragment {
     private RecentActivitiesAdapter activitiesAdapter;
     private ApiService apiService;
     private AuthManager authManager;
+    private RequestScope requests;
+    // Set when hiding the tab cancelled a load, so showing it again reloads
+    private boolean reloadOnShow;
     
     @Nullable
     @Override
@@ -412,11 +429,31 @@ public class DashboardFragment extends Fragment implements RefreshableFragment {
         apiService = ApiService.getInstance(getContext());
         authManager = AuthManager.getInstance(getContext());
         
-        loadDashboardData();
-        
         return view;
     }
     
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        requests = RequestScope.bind(getViewLifecycleOwner());
+        loadDashboardData();
+    }
+    
+    @Override
+    public void onHiddenChanged(boolean hidden) {
+        super.onHiddenChanged(hidden);
+        // MainActivity hides tabs instead of destroying them
+        if (hidden) {
+            if (requests != null && requests.cancelAll()) {
+                reloadOnShow = true;
+                swipeRefreshLayout.setRefreshing(false);
+            }
+        } else if (reloadOnShow) {
+            reloadOnShow = false;
+            loadDashboardData();
+        }
+    }
+    
     private void initializeViews(View view) {
         swipeRefreshLayout = view.findViewById(R.id.swipe_refresh_layout);
         statsRecyclerView = view.findViewById(R.id.stats_recycler_view);
@@ -453,49 +490,26 @@ public class DashboardFragment extends Fragment implements RefreshableFragment {
     private void loadDashboardData() {
         swipeRefreshLayout.setRefreshing(true);
         
-        apiService.getDashboardStats(new ApiService.ApiCallback<DashboardStats>() {
+        requests.track(apiService.getDashboardBundle(new ApiService.ApiCallback<ApiService.DashboardBundle>() {
             @Override
-            public void onSuccess(DashboardStats stats) {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        statsAdapter.updateStats(stats);
-                        updateLastUpdateTime();
-                    });
+            public void onSuccess(ApiService.DashboardBundle bundle) {
+                // Delivered on the main thread, and never after onDestroyView
+                if (bundle.getStats() != null) {
+                    statsAdapter.updateStats(bundle.getStats());
+                    updateLastUpdateTime();
                 }
-            }
-            
-            @Override
-            public void onError(String error) {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        // Handle error
-                        swipeRefreshLayout.setRefreshing(false);
-                    });
-                }
-            }
-        });
-        
-        apiService.getRecentActivities(new ApiService.ApiCallback<List<Activity>>() {
-            @Override
-            public void onSuccess(List<Activity> activities) {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        activitiesAdapter.updateActivities(activities);
-                        swipeRefreshLayout.setRefreshing(false);
-                    });
+                if (bundle.getActivities() != null) {
+                    activitiesAdapter.updateActivities(bundle.getActivities());
                 }
+                swipeRefreshLayout.setRefreshing(false);
             }
             
             @Override
             public void onError(String error) {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        // Handle error
-                        swipeRefreshLayout.setRefreshing(false);
-                    });
-                }
+                // Handle error
+                swipeRefreshLayout.setRefreshing(false);
             }
-        });
+        }));
     }
     
     @Override
@@ -531,8 +545,13 @@ import com.condoconnectai.activities.ResidentDetailActivity;
 import com.condoconnectai.adapters.ResidentsAdapter;
 import com.condoconnectai.models.Resident;
 import com.condoconnectai.services.ApiService;
+import com.condoconnectai.services.RequestScope;
+import com.condoconnectai.services.ResidentsPagingSource;
+import java.util.HashMap;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.ArrayList;
+import java.util.Map;
 
 public class ResidentsFragment extends Fragment implements RefreshableFragment, BackPressHandler {
     
@@ -543,17 +562,25 @@ public class ResidentsFragment extends Fragment implements RefreshableFragment,
     
     private ResidentsAdapter residentsAdapter;
     private ApiService apiService;
+    private ResidentsPagingSource pagingSource;
+    private RequestScope requests;
+    private boolean reloadOnShow;
     private List<Resident> allResidents;
     private List<Resident> filteredResidents;
     
     private static final int ADD_RESIDENT_REQUEST = 1001;
     private static final int EDIT_RESIDENT_REQUEST = 1002;
+    private static final int PAGE_SIZE = 50;
+    private static final int LOAD_MORE_THRESHOLD = 10;
     
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_residents, container, false);
         
+        allResidents = new ArrayList<>();
+        filteredResidents = new ArrayList<>();
+        
         initializeViews(view);
         setupRecyclerView();
         setupSearchView();
@@ -561,14 +588,38 @@ public class ResidentsFragment extends Fragment implements RefreshableFragment,
         setupFab();
         
         apiService = ApiService.getInstance(getContext());
-        allResidents = new ArrayList<>();
-        filteredResidents = new ArrayList<>();
-        
-        loadResidents();
+        pagingSource = new ResidentsPagingSource(apiService, PAGE_SIZE);
         
         return view;
     }
     
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        requests = RequestScope.bind(getViewLifecycleOwner());
+        requests.track(pagingSource);
+        loadResidents();
+    }
+    
+    @Override
+    public void onHiddenChanged(boolean hidden) {
+        super.onHiddenChanged(hidden);
+        if (hidden) {
+            if (pagingSource != null && pagingSource.isLoading()) {
+                pagingSource.cancel();
+                reloadOnShow = true;
+                swipeRefreshLayout.setRefreshing(false);
+            }
+        } else if (reloadOnShow) {
+            reloadOnShow = false;
+            if (allResidents.isEmpty()) {
+                loadResidents();
+            } else {
+                loadNextPage();
+            }
+        }
+    }
+    
     private void initializeViews(View view) {
         swipeRefreshLayout = view.findViewById(R.id.swipe_refresh_layout);
         residentsRecyclerView = view.findViewById(R.id.residents_recycler_view);
@@ -580,8 +631,22 @@ public class ResidentsFragment extends Fragment implements RefreshableFragment,
         residentsAdapter = new ResidentsAdapter(filteredResidents);
         residentsAdapter.setOnItemClickListener(this::onResidentClick);
         
-        residentsRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(getContext());
+        residentsRecyclerView.setLayoutManager(layoutManager);
         residentsRecyclerView.setAdapter(residentsAdapter);
+        
+        residentsRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0 || pagingSource == null) {
+                    return;
+                }
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (lastVisible >= layoutManager.getItemCount() - LOAD_MORE_THRESHOLD) {
+                    loadNextPage();
+                }
+            }
+        });
     }
     
     private void setupSearchView() {
@@ -618,30 +683,85 @@ public class ResidentsFragment extends Fragment implements RefreshableFragment,
     
     private void loadResidents() {
         swipeRefreshLayout.setRefreshing(true);
+        pagingSource.refresh(pageListener);
+    }
+    
+    private void loadNextPage() {
+        pagingSource.loadNextPage(pageListener);
+    }
+    
+    private final ResidentsPagingSource.Listener pageListener = new ResidentsPagingSource.Listener() {
+        @Override
+        public void onPageLoaded(List<Resident> page, boolean firstPage) {
+            // Delivered on the main thread, and never after onDestroyView
+            if (firstPage) {
+                allResidents.clear();
+            }
+            allResidents.addAll(page);
+            filterResidents(searchView.getQuery().toString());
+            swipeRefreshLayout.setRefreshing(false);
+            if (firstPage) {
+                syncResidentChanges();
+            }
+        }
         
-        apiService.getResidents(new ApiService.ApiCallback<List<Resident>>() {
+        @Override
+        public void onError(String error) {
+            // Handle error
+            swipeRefreshLayout.setRefreshing(false);
+        }
+    };
+    
+    // Runs after the first page is on screen. With a local snapshot, the
+    // delta sync brings it up to date and the pages shown are patched from
+    // it: changed residents replaced in place, deleted ones dropped. Without
+    // one, a full sync builds it at background priority for the next visit.
+    private void syncResidentChanges() {
+        requests.track(apiService.syncResidentChanges(new ApiService.ApiCallback<ApiService.ResidentSyncResult>() {
             @Override
-            public void onSuccess(List<Resident> residents) {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        allResidents.clear();
-                        allResidents.addAll(residents);
-                        filterResidents(searchView.getQuery().toString());
-                        swipeRefreshLayout.setRefreshing(false);
-                    });
+            public void onSuccess(ApiService.ResidentSyncResult result) {
+                if (result == null) {
+                    requests.track(apiService.syncResidents(snapshotSeed));
+                    return;
                 }
+                applyResidentChanges(result.getResidents());
             }
             
             @Override
             public void onError(String error) {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        // Handle error
-                        swipeRefreshLayout.setRefreshing(false);
-                    });
-                }
+                // The pages shown are as fresh as their own fetch
             }
-        });
+        }));
+    }
+    
+    private final ApiService.ApiCallback<ApiService.ResidentSyncResult> snapshotSeed =
+        new ApiService.ApiCallback<ApiService.ResidentSyncResult>() {
+            @Override
+            public void onSuccess(ApiService.ResidentSyncResult result) {
+                // Only kept for the next delta sync
+            }
+            
+            @Override
+            public void onError(String error) {
+                // Retried on the next visit
+            }
+        };
+    
+    private void applyResidentChanges(List<Resident> directory) {
+        Map<String, Resident> byId = new HashMap<>();
+        for (Resident resident : directory) {
+            byId.put(resident.getId(), resident);
+        }
+        ListIterator<Resident> iterator = allResidents.listIterator();
+        while (iterator.hasNext()) {
+            Resident current = byId.get(iterator.next().getId());
+            if (current == null) {
+                iterator.remove();
+            } else {
+                iterator.set(current);
+            }
+        }
+        filterResidents(searchView.getQuery().toString());
     }
     
     private void filterResidents(String query) {
@@ -661,6 +781,11 @@ public class ResidentsFragment extends Fragment implements RefreshableFragment,
         }
         
         residentsAdapter.notifyDataSetChanged();
+        
+        // A search has to see every resident, so keep pulling pages until the end
+        if (!query.isEmpty() && pagingSource != null && pagingSource.hasMore()) {
+            loadNextPage();
+        }
     }
     
     private void onResidentClick(Resident resident) {
@@ -0,0 +1,1718 @@
+// ============= DYNAMO CLIENT =============
+package com.condoconnectai.data;
+
+import android.content.Context;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.auth.CognitoCachingCredentialsProvider;
+import com.amazonaws.regions.Region;
+import com.amazonaws.regions.Regions;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
+
+// The one DynamoDB client in the process. The SDK client is thread-safe and
+// owns its HTTP connection pool, so sharing it keeps connections warm across
+// screens instead of every activity holding (or forgetting) its own.
+public final class DynamoClient {
+    private static final String IDENTITY_POOL_ID = "us-east-1:12345678-1234-1234-1234-123456789012";
+    private static final Regions REGION = Regions.US_EAST_1;
+    // Enough for the IO pool plus a few background scans
+    private static final int MAX_CONNECTIONS = 8;
+    private static final int CONNECTION_TIMEOUT_MS = 10000;
+    private static final int SOCKET_TIMEOUT_MS = 15000;
+    private static final int MAX_ERROR_RETRY = 3;
+    
+    private static AmazonDynamoDBClient instance;
+    private static String endpoint;
+    
+    private DynamoClient() {
+    }
+    
+    public static synchronized AmazonDynamoDBClient getInstance(Context context) {
+        if (instance == null) {
+            ClientConfiguration configuration = new ClientConfiguration()
+                .withMaxConnections(MAX_CONNECTIONS)
+                .withConnectionTimeout(CONNECTION_TIMEOUT_MS)
+                .withSocketTimeout(SOCKET_TIMEOUT_MS)
+                .withMaxErrorRetry(MAX_ERROR_RETRY);
+            
+            if (endpoint != null) {
+                // DynamoDB Local accepts any credentials
+                instance = new AmazonDynamoDBClient(new BasicAWSCredentials("local", "local"), configuration);
+                instance.setEndpoint(endpoint);
+            } else {
+                CognitoCachingCredentialsProvider credentials = new CognitoCachingCredentialsProvider(
+                    context.getApplicationContext(), IDENTITY_POOL_ID, REGION);
+                instance = new AmazonDynamoDBClient(credentials, configuration);
+                instance.setRegion(Region.getRegion(REGION));
+            }
+        }
+        return instance;
+    }
+    
+    // Points the shared client at another endpoint, e.g. DynamoDB Local at
+    // http://10.0.2.2:8000 from the emulator. Must run before the first
+    // getInstance().
+    public static synchronized void useEndpoint(String url) {
+        if (instance != null) {
+            throw new IllegalStateException("DynamoDB client already created");
+        }
+        endpoint = url;
+    }
+    
+    public static synchronized boolean usesCustomEndpoint() {
+        return endpoint != null;
+    }
+}
+
+// ============= ITEM PAGE =============
+package com.condoconnectai.data;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public final class ItemPage<T> {
+    private final List<T> items;
+    private final Map<String, AttributeValue> lastEvaluatedKey;
+    
+    ItemPage(List<T> items, Map<String, AttributeValue> lastEvaluatedKey) {
+        this.items = Collections.unmodifiableList(items);
+        this.lastEvaluatedKey = lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()
+            ? null : Collections.unmodifiableMap(lastEvaluatedKey);
+    }
+    
+    public List<T> getItems() {
+        return items;
+    }
+    
+    // Pass to Query.startAfter for the next page; null on the last page
+    public Map<String, AttributeValue> getLastEvaluatedKey() {
+        return lastEvaluatedKey;
+    }
+    
+    public boolean hasMore() {
+        return lastEvaluatedKey != null;
+    }
+}
+
+// ============= TABLE =============
+package com.condoconnectai.data;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.condoconnectai.utils.ModelCodec;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Typed access to one table with a single string hash key. Items are mapped
+// through the table's ModelCodec, so missing attributes decode to the
+// codec's defaults. Attribute names always go through placeholders because
+// status, name, type, action and timestamp are DynamoDB reserved words.
+// All calls block; run them on AppExecutors' IO or write-behind pools.
+public final class Table<T> {
+    private final AmazonDynamoDB client;
+    private final String name;
+    private final String keyAttribute;
+    private final ModelCodec<T> codec;
+    
+    Table(AmazonDynamoDB client, String name, String keyAttribute, ModelCodec<T> codec) {
+        this.client = client;
+        this.name = name;
+        this.keyAttribute = keyAttribute;
+        this.codec = codec;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getKeyAttribute() {
+        return keyAttribute;
+    }
+    
+    public ModelCodec<T> getCodec() {
+        return codec;
+    }
+    
+    // Queries the table itself when index is null
+    public Query query(String index) {
+        return new Query(index);
+    }
+    
+    // Null when there is no item with this key
+    public T get(String key) {
+        GetItemResult result = client.getItem(new GetItemRequest()
+            .withTableName(name)
+            .withKey(key(key)));
+        return result.getItem() != null ? codec.fromItem(result.getItem()) : null;
+    }
+    
+    public void put(T model) {
+        put(model, Collections.<String, AttributeValue>emptyMap());
+    }
+    
+    // extra carries attributes the model does not hold, such as tenant_id
+    public void put(T model, Map<String, AttributeValue> extra) {
+        Map<String, AttributeValue> item = codec.toItem(model);
+        item.putAll(extra);
+        if (!item.containsKey(keyAttribute)) {
+            throw new IllegalArgumentException(name + " item has no " + keyAttribute);
+        }
+        client.putItem(new PutItemRequest().withTableName(name).withItem(item));
+    }
+    
+    // SETs each attribute in values, leaving the rest of the item alone
+    public void update(String key, Map<String, AttributeValue> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        StringBuilder expression = new StringBuilder("SET ");
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> placeholders = new HashMap<>();
+        int i = 0;
+        for (Map.Entry<String, AttributeValue> entry : values.entrySet()) {
+            if (i > 0) {
+                expression.append(", ");
+            }
+            expression.append("#a").append(i).append(" = :v").append(i);
+            names.put("#a" + i, entry.getKey());
+            placeholders.put(":v" + i, entry.getValue());
+            i++;
+        }
+        
+        client.updateItem(new UpdateItemRequest()
+            .withTableName(name)
+            .withKey(key(key))
+            .withUpdateExpression(expression.toString())
+            .withExpressionAttributeNames(names)
+            .withExpressionAttributeValues(placeholders));
+    }
+    
+    public void delete(String key) {
+        client.deleteItem(new DeleteItemRequest().withTableName(name).withKey(key(key)));
+    }
+    
+    // Same SET on every key, a few UpdateItems in flight at a time
+    public void updateAll(Collection<String> keys, Map<String, AttributeValue> values) throws InterruptedException {
+        List<String> pending = new ArrayList<>(keys);
+        BatchMutations.fanOut(pending.size(), index -> update(pending.get(index), values));
+    }
+    
+    // BatchWriteItem in chunks of 25, retrying unprocessed deletes
+    public void deleteAll(Collection<String> keys) throws InterruptedException {
+        List<WriteRequest> writes = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            writes.add(new WriteRequest().withDeleteRequest(new DeleteRequest().withKey(key(key))));
+        }
+        BatchMutations.write(client, name, writes);
+    }
+    
+    Map<String, AttributeValue> key(String value) {
+        return Collections.singletonMap(keyAttribute, new AttributeValue(value));
+    }
+    
+    public final class Query {
+        private final QueryRequest request = new QueryRequest().withTableName(name);
+        
+        private Query(String index) {
+            if (index != null) {
+                request.setIndexName(index);
+            }
+        }
+        
+        public Query where(String attribute, String value) {
+            request.withKeyConditionExpression("#pk = :pk")
+                .addExpressionAttributeNamesEntry("#pk", attribute)
+                .addExpressionAttributeValuesEntry(":pk", new AttributeValue(value));
+            return this;
+        }
+        
+        public Query newestFirst() {
+            request.setScanIndexForward(false);
+            return this;
+        }
+        
+        public Query limit(int limit) {
+            request.setLimit(limit);
+            return this;
+        }
+        
+        // Resumes after a previous page; null starts from the beginning
+        public Query startAfter(Map<String, AttributeValue> lastEvaluatedKey) {
+            request.setExclusiveStartKey(lastEvaluatedKey);
+            return this;
+        }
+        
+        public Query project(Collection<String> attributes) {
+            StringBuilder projection = new StringBuilder();
+            int i = 0;
+            for (String attribute : attributes) {
+                if (i > 0) {
+                    projection.append(", ");
+                }
+                projection.append("#p").append(i);
+                request.addExpressionAttributeNamesEntry("#p" + i, attribute);
+                i++;
+            }
+            request.setProjectionExpression(projection.toString());
+            return this;
+        }
+        
+        // Reads only the attributes the codec maps
+        public Query projectModel() {
+            return project(codec.fieldNames());
+        }
+        
+        public ItemPage<T> execute() {
+            QueryResult result = client.query(request);
+            List<T> items = new ArrayList<>(result.getItems().size());
+            for (Map<String, AttributeValue> item : result.getItems()) {
+                items.add(codec.fromItem(item));
+            }
+            return new ItemPage<>(items, result.getLastEvaluatedKey());
+        }
+    }
+}
+
+// ============= BATCH MUTATIONS =============
+package com.condoconnectai.data;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.condoconnectai.utils.AppExecutors;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Bulk writes behind Table.deleteAll and Table.updateAll. Puts and deletes
+// go out as BatchWriteItem chunks of 25, with UnprocessedItems resent
+// under capped exponential backoff with jitter. Updates have no batch form,
+// so they fan out as single UpdateItems, a few at a time; transactions
+// would double the write cost and buy atomicity nobody here needs.
+final class BatchMutations {
+    static final int MAX_BATCH_ITEMS = 25;
+    static final int MAX_PARALLEL_REQUESTS = 4;
+    private static final int MAX_ATTEMPTS = 8;
+    private static final long BASE_BACKOFF_MS = 50;
+    private static final long MAX_BACKOFF_MS = 2000;
+    private static final Random JITTER = new Random();
+    
+    interface Step {
+        void run(int index) throws InterruptedException;
+    }
+    
+    private BatchMutations() {
+    }
+    
+    static void write(AmazonDynamoDB client, String table, List<WriteRequest> writes) throws InterruptedException {
+        int chunks = (writes.size() + MAX_BATCH_ITEMS - 1) / MAX_BATCH_ITEMS;
+        fanOut(chunks, chunk -> writeChunk(client, table,
+            writes.subList(chunk * MAX_BATCH_ITEMS, Math.min(writes.size(), (chunk + 1) * MAX_BATCH_ITEMS))));
+    }
+    
+    private static void writeChunk(AmazonDynamoDB client, String table, List<WriteRequest> chunk)
+            throws InterruptedException {
+        Map<String, List<WriteRequest>> pending = Collections.singletonMap(table, chunk);
+        for (int attempt = 1; ; attempt++) {
+            BatchWriteItemResult result = client.batchWriteItem(new BatchWriteItemRequest().withRequestItems(pending));
+            pending = result.getUnprocessedItems();
+            if (pending == null || pending.isEmpty()) {
+                return;
+            }
+            if (attempt == MAX_ATTEMPTS) {
+                List<WriteRequest> left = pending.get(table);
+                throw new AmazonClientException((left != null ? left.size() : 0) + " writes to " + table
+                    + " still unprocessed after " + MAX_ATTEMPTS + " attempts");
+            }
+            Thread.sleep(backoffMs(attempt));
+        }
+    }
+    
+    // Full jitter: uniform in [0, min(cap, base * 2^attempt))
+    private static long backoffMs(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempt, 16));
+        synchronized (JITTER) {
+            return (long) (JITTER.nextDouble() * ceiling);
+        }
+    }
+    
+    // Runs step for 0..count-1 with at most MAX_PARALLEL_REQUESTS in flight.
+    // The caller takes steps too and the latch counts steps, not workers: a
+    // worker still queued behind a busy IO pool finds nothing left to claim,
+    // so a caller on that pool never waits for a thread it may be holding.
+    // The first failure makes the remaining steps no-ops before being rethrown.
+    static void fanOut(int count, Step step) throws InterruptedException {
+        if (count == 0) {
+            return;
+        }
+        Executor executor = AppExecutors.getInstance().io();
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        int workers = Math.min(count, MAX_PARALLEL_REQUESTS);
+        CountDownLatch finished = new CountDownLatch(count);
+        
+        Runnable worker = () -> {
+            int index;
+            while ((index = next.getAndIncrement()) < count) {
+                try {
+                    if (!stopped.get()) {
+                        step.run(index);
+                    }
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                    stopped.set(true);
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                    stopped.set(true);
+                } finally {
+                    finished.countDown();
+                }
+            }
+        };
+        
+        for (int i = 1; i < workers; i++) {
+            executor.execute(worker);
+        }
+        worker.run();
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            stopped.set(true);
+            throw e;
+        }
+        
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        if (interrupted.get() || Thread.interrupted()) {
+            throw new InterruptedException("Batch write interrupted");
+        }
+    }
+}
+
+// ============= REPOSITORIES =============
+package com.condoconnectai.data;
+
+import android.content.Context;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.condoconnectai.AccessLog;
+import com.condoconnectai.Announcement;
+import com.condoconnectai.BiometricRecord;
+import com.condoconnectai.Message;
+import com.condoconnectai.Notification;
+import com.condoconnectai.Report;
+import com.condoconnectai.Ticket;
+import com.condoconnectai.utils.ModelCodec;
+
+// Table definitions for the activity screens, all on the shared client.
+// The item mappers are built once here rather than in each activity.
+public final class Repositories {
+    static final ModelCodec<Message> MESSAGE_CODEC = ModelCodec.builder(Message::new)
+        .string("message_id", Message::setId, Message::getId)
+        .string("sender_id", Message::setSenderId, Message::getSenderId)
+        .string("sender_name", Message::setSenderName, Message::getSenderName)
+        .string("subject", Message::setSubject, Message::getSubject)
+        .string("content", Message::setContent, Message::getContent)
+        .string("timestamp", Message::setTimestamp, Message::getTimestamp)
+        .bool("is_read", Message::setRead, Message::isRead)
+        .build();
+    static final ModelCodec<Announcement> ANNOUNCEMENT_CODEC = ModelCodec.builder(Announcement::new)
+        .string("announcement_id", Announcement::setId, Announcement::getId)
+        .string("title", Announcement::setTitle, Announcement::getTitle)
+        .string("content", Announcement::setContent, Announcement::getContent)
+        .string("author", Announcement::setAuthor, Announcement::getAuthor)
+        .string("timestamp", Announcement::setTimestamp, Announcement::getTimestamp)
+        .string("priority", Announcement::setPriority, Announcement::getPriority)
+        .build();
+    static final ModelCodec<Report> REPORT_CODEC = ModelCodec.builder(Report::new)
+        .string("report_id", Report::setId, Report::getId)
+        .string("name", Report::setName, Report::getName)
+        .string("type", Report::setType, Report::getType)
+        .string("status", Report::setStatus, Report::getStatus)
+        .string("created_at", Report::setCreatedAt, Report::getCreatedAt)
+        .string("file_url", Report::setFileUrl, Report::getFileUrl)
+        .build();
+    static final ModelCodec<BiometricRecord> BIOMETRIC_RECORD_CODEC = ModelCodec.builder(BiometricRecord::new)
+        .string("record_id", BiometricRecord::setId, BiometricRecord::getId)
+        .string("biometric_type", BiometricRecord::setType, BiometricRecord::getType)
+        .string("status", BiometricRecord::setStatus, BiometricRecord::getStatus)
+        .string("timestamp", BiometricRecord::setTimestamp, BiometricRecord::getTimestamp)
+        .string("action", BiometricRecord::setAction, BiometricRecord::getAction)
+        .build();
+    static final ModelCodec<AccessLog> ACCESS_LOG_CODEC = ModelCodec.builder(AccessLog::new)
+        .string("log_id", AccessLog::setId, AccessLog::getId)
+        .string("user_id", AccessLog::setUserId, AccessLog::getUserId)
+        .string("user_name", AccessLog::setUserName, AccessLog::getUserName)
+        .string("action", AccessLog::setAction, AccessLog::getAction)
+        .string("location", AccessLog::setLocation, AccessLog::getLocation)
+        .string("timestamp", AccessLog::setTimestamp, AccessLog::getTimestamp)
+        .string("status", AccessLog::setStatus, AccessLog::getStatus)
+        .build();
+    static final ModelCodec<Ticket> TICKET_CODEC = ModelCodec.builder(Ticket::new)
+        .string("ticket_id", Ticket::setId, Ticket::getId)
+        .string("title", Ticket::setTitle, Ticket::getTitle)
+        .string("description", Ticket::setDescription, Ticket::getDescription)
+        .string("status", Ticket::setStatus, Ticket::getStatus)
+        .string("priority", Ticket::setPriority, Ticket::getPriority)
+        .string("category", Ticket::setCategory, Ticket::getCategory)
+        .string("created_at", Ticket::setCreatedAt, Ticket::getCreatedAt)
+        .build();
+    static final ModelCodec<Notification> NOTIFICATION_CODEC = ModelCodec.builder(Notification::new)
+        .string("notification_id", Notification::setId, Notification::getId)
+        .string("title", Notification::setTitle, Notification::getTitle)
+        .string("message", Notification::setMessage, Notification::getMessage)
+        .string("type", Notification::setType, Notification::getType)
+        .string("timestamp", Notification::setTimestamp, Notification::getTimestamp)
+        .bool("is_read", Notification::setRead, Notification::isRead)
+        .build();
+    
+    private static Repositories instance;
+    
+    private final AmazonDynamoDB client;
+    private final Table<Message> messages;
+    private final Table<Announcement> announcements;
+    private final Table<Report> reports;
+    private final Table<BiometricRecord> biometricRecords;
+    private final Table<AccessLog> accessLogs;
+    private final Table<Ticket> tickets;
+    private final Table<Notification> notifications;
+    
+    private Repositories(AmazonDynamoDB client) {
+        this.client = client;
+        messages = new Table<>(client, "CondoconnectAI-Messages", "message_id", MESSAGE_CODEC);
+        announcements = new Table<>(client, "CondoconnectAI-Announcements", "announcement_id", ANNOUNCEMENT_CODEC);
+        reports = new Table<>(client, "CondoconnectAI-Reports", "report_id", REPORT_CODEC);
+        biometricRecords = new Table<>(client, "CondoconnectAI-BiometricRecords", "record_id", BIOMETRIC_RECORD_CODEC);
+        accessLogs = new Table<>(client, "CondoconnectAI-AccessLogs", "log_id", ACCESS_LOG_CODEC);
+        tickets = new Table<>(client, "CondoconnectAI-Tickets", "ticket_id", TICKET_CODEC);
+        notifications = new Table<>(client, "CondoconnectAI-Notifications", "notification_id", NOTIFICATION_CODEC);
+    }
+    
+    public static synchronized Repositories getInstance(Context context) {
+        if (instance == null) {
+            instance = new Repositories(DynamoClient.getInstance(context));
+        }
+        return instance;
+    }
+    
+    public AmazonDynamoDB client() {
+        return client;
+    }
+    
+    public Table<Message> messages() {
+        return messages;
+    }
+    
+    public Table<Announcement> announcements() {
+        return announcements;
+    }
+    
+    public Table<Report> reports() {
+        return reports;
+    }
+    
+    public Table<BiometricRecord> biometricRecords() {
+        return biometricRecords;
+    }
+    
+    public Table<AccessLog> accessLogs() {
+        return accessLogs;
+    }
+    
+    public Table<Ticket> tickets() {
+        return tickets;
+    }
+    
+    public Table<Notification> notifications() {
+        return notifications;
+    }
+}
+
+// ============= TENANT COUNTERS =============
+package com.condoconnectai.data;
+
+import android.content.Context;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Maintained per-tenant aggregates: one item per tenant in
+// CondoconnectAI-Counters holding a <entity>_<status> count for every
+// status seen, so the dashboard reads them all with a single GetItem
+// instead of scanning the source tables.
+//
+// The counts are moved by the API handlers, in the same TransactWriteItems
+// as the resident or work order write behind them: one ADD that decrements
+// the old status and increments the new one, conditioned on the status the
+// handler read, so a write and its count commit or fail together. The
+// client only reads the item and, when it is stale, reconciles it against
+// the source tables. Every ADD also bumps version, and reconcile only
+// replaces the item if version has not moved since it started counting, so
+// a change made mid-recount is never lost.
+public final class TenantCounters {
+    public static final String RESIDENTS = "residents";
+    public static final String WORK_ORDERS = "work_orders";
+    
+    private static final String TABLE = "CondoconnectAI-Counters";
+    private static final String KEY = "tenant_id";
+    private static final String VERSION = "version";
+    private static final String RECONCILED_AT = "reconciled_at";
+    private static final String TENANT_INDEX = "TenantIndex";
+    private static final int RECONCILE_PAGE_SIZE = 500;
+    private static final int RECONCILE_ATTEMPTS = 3;
+    private static final long RECONCILE_INTERVAL_MS = 6 * 60 * 60 * 1000L;
+    
+    private static final Map<String, String> SOURCE_TABLES = new LinkedHashMap<>();
+    
+    static {
+        SOURCE_TABLES.put(RESIDENTS, "CondoconnectAI-Residents");
+        SOURCE_TABLES.put(WORK_ORDERS, "CondoconnectAI-Maintenance");
+    }
+    
+    private static TenantCounters instance;
+    
+    private final AmazonDynamoDB client;
+    
+    private TenantCounters(AmazonDynamoDB client) {
+        this.client = client;
+    }
+    
+    public static synchronized TenantCounters getInstance(Context context) {
+        if (instance == null) {
+            instance = new TenantCounters(DynamoClient.getInstance(context));
+        }
+        return instance;
+    }
+    
+    public static final class Snapshot {
+        private final Map<String, AttributeValue> item;
+        
+        Snapshot(Map<String, AttributeValue> item) {
+            this.item = item != null ? item : Collections.<String, AttributeValue>emptyMap();
+        }
+        
+        // False until the tenant's first status change or reconcile
+        public boolean exists() {
+            return !item.isEmpty();
+        }
+        
+        public long get(String entity, String status) {
+            return number(item.get(counterName(entity, status)));
+        }
+        
+        // Sum over every status of the entity
+        public long total(String entity) {
+            String prefix = entity + "_";
+            long total = 0;
+            for (Map.Entry<String, AttributeValue> entry : item.entrySet()) {
+                if (entry.getKey().startsWith(prefix)) {
+                    total += number(entry.getValue());
+                }
+            }
+            return total;
+        }
+        
+        public long getReconciledAt() {
+            return number(item.get(RECONCILED_AT));
+        }
+        
+        long getVersion() {
+            return number(item.get(VERSION));
+        }
+        
+        private static long number(AttributeValue value) {
+            if (value == null || value.getN() == null) {
+                return 0;
+            }
+            try {
+                return Long.parseLong(value.getN());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+    
+    static String counterName(String entity, String status) {
+        return entity + "_" + status.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    public Snapshot read(String tenantId) {
+        return new Snapshot(client.getItem(new GetItemRequest()
+            .withTableName(TABLE)
+            .withKey(Collections.singletonMap(KEY, new AttributeValue(tenantId)))).getItem());
+    }
+    
+    public boolean isStale(Snapshot snapshot) {
+        return System.currentTimeMillis() - snapshot.getReconciledAt() > RECONCILE_INTERVAL_MS;
+    }
+    
+    // Recounts every source table for the tenant and replaces the counters.
+    // Reads the whole tenant partition of each table, so run it on a
+    // background pool and only when isStale says so.
+    public Snapshot reconcile(String tenantId) {
+        ConditionalCheckFailedException lastConflict = null;
+        for (int attempt = 0; attempt < RECONCILE_ATTEMPTS; attempt++) {
+            Snapshot current = read(tenantId);
+            
+            Map<String, AttributeValue> item = new HashMap<>();
+            item.put(KEY, new AttributeValue(tenantId));
+            for (Map.Entry<String, String> source : SOURCE_TABLES.entrySet()) {
+                for (Map.Entry<String, Long> count : countByStatus(tenantId, source.getKey(), source.getValue()).entrySet()) {
+                    item.put(count.getKey(), number(count.getValue()));
+                }
+            }
+            item.put(VERSION, number(current.getVersion()));
+            item.put(RECONCILED_AT, number(System.currentTimeMillis()));
+            
+            PutItemRequest put = new PutItemRequest().withTableName(TABLE).withItem(item);
+            if (current.exists()) {
+                put.withConditionExpression("#v = :v")
+                    .addExpressionAttributeNamesEntry("#v", VERSION)
+                    .addExpressionAttributeValuesEntry(":v", number(current.getVersion()));
+            } else {
+                put.withConditionExpression("attribute_not_exists(#k)")
+                    .addExpressionAttributeNamesEntry("#k", KEY);
+            }
+            
+            try {
+                client.putItem(put);
+                return new Snapshot(item);
+            } catch (ConditionalCheckFailedException e) {
+                // A status change landed while counting; count again
+                lastConflict = e;
+            }
+        }
+        throw lastConflict;
+    }
+    
+    private Map<String, Long> countByStatus(String tenantId, String entity, String table) {
+        Map<String, Long> counts = new HashMap<>();
+        Map<String, AttributeValue> startKey = null;
+        do {
+            QueryResult result = client.query(new QueryRequest()
+                .withTableName(table)
+                .withIndexName(TENANT_INDEX)
+                .withKeyConditionExpression("#t = :t")
+                .withProjectionExpression("#s")
+                .addExpressionAttributeNamesEntry("#t", KEY)
+                .addExpressionAttributeNamesEntry("#s", "status")
+                .addExpressionAttributeValuesEntry(":t", new AttributeValue(tenantId))
+                .withLimit(RECONCILE_PAGE_SIZE)
+                .withExclusiveStartKey(startKey));
+            
+            for (Map<String, AttributeValue> row : result.getItems()) {
+                AttributeValue status = row.get("status");
+                if (status == null || status.getS() == null || status.getS().trim().isEmpty()) {
+                    continue;
+                }
+                String name = counterName(entity, status.getS());
+                Long count = counts.get(name);
+                counts.put(name, count == null ? 1 : count + 1);
+            }
+            startKey = result.getLastEvaluatedKey();
+        } while (startKey != null && !startKey.isEmpty());
+        return counts;
+    }
+    
+    private static AttributeValue number(long value) {
+        return new AttributeValue().withN(String.valueOf(value));
+    }
+}
+
+// ============= PARALLEL SCAN =============
+package com.condoconnectai.data;
+
+import android.os.SystemClock;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.condoconnectai.utils.AppExecutors;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Full-table scan split into Segment/TotalSegments workers on the shared IO
+// pool. Each segment follows LastEvaluatedKey to the end and hands items to
+// the consumer page by page, so memory stays at one page per segment no
+// matter how large the table is. The calling thread takes segments as well,
+// which keeps a scan started from an IO thread from waiting on a pool it is
+// itself occupying. Consumed read capacity is charged to one budget shared
+// by all segments.
+public final class ParallelScan {
+    private static final int DEFAULT_SEGMENTS = 4;
+    private static final int DEFAULT_PAGE_SIZE = 500;
+    
+    public interface ItemConsumer {
+        // Called from several threads at once
+        void accept(Map<String, AttributeValue> item);
+    }
+    
+    public static class Result {
+        private final int segments;
+        private final long items;
+        private final long pages;
+        private final double consumedCapacity;
+        private final long elapsedMs;
+        
+        Result(int segments, long items, long pages, double consumedCapacity, long elapsedMs) {
+            this.segments = segments;
+            this.items = items;
+            this.pages = pages;
+            this.consumedCapacity = consumedCapacity;
+            this.elapsedMs = elapsedMs;
+        }
+        
+        public int getSegments() {
+            return segments;
+        }
+        
+        public long getItems() {
+            return items;
+        }
+        
+        public long getPages() {
+            return pages;
+        }
+        
+        // Zero against endpoints that do not report capacity
+        public double getConsumedCapacity() {
+            return consumedCapacity;
+        }
+        
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%2d segments %8d items %6d pages %10.1f RCU %7d ms",
+                segments, items, pages, consumedCapacity, elapsedMs);
+        }
+    }
+    
+    private final AmazonDynamoDB client;
+    private final String table;
+    private final Map<String, String> names = new HashMap<>();
+    private final Map<String, AttributeValue> values = new HashMap<>();
+    private Executor executor = AppExecutors.getInstance().io();
+    private int segments = DEFAULT_SEGMENTS;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private double readUnitsPerSecond;
+    private String filterExpression;
+    private String projectionExpression;
+    
+    public ParallelScan(AmazonDynamoDB client, String table) {
+        this.client = client;
+        this.table = table;
+    }
+    
+    public ParallelScan segments(int segments) {
+        if (segments < 1) {
+            throw new IllegalArgumentException("segments must be at least 1");
+        }
+        this.segments = segments;
+        return this;
+    }
+    
+    public ParallelScan pageSize(int pageSize) {
+        this.pageSize = pageSize;
+        return this;
+    }
+    
+    // Zero, the default, leaves the scan unthrottled
+    public ParallelScan readUnitsPerSecond(double readUnitsPerSecond) {
+        this.readUnitsPerSecond = readUnitsPerSecond;
+        return this;
+    }
+    
+    public ParallelScan executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+    
+    // Placeholders are declared with name() and value()
+    public ParallelScan filter(String expression) {
+        this.filterExpression = expression;
+        return this;
+    }
+    
+    public ParallelScan name(String placeholder, String attribute) {
+        names.put(placeholder, attribute);
+        return this;
+    }
+    
+    public ParallelScan value(String placeholder, AttributeValue value) {
+        values.put(placeholder, value);
+        return this;
+    }
+    
+    public ParallelScan project(String... attributes) {
+        StringBuilder projection = new StringBuilder();
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) {
+                projection.append(", ");
+            }
+            projection.append("#p").append(i);
+            names.put("#p" + i, attributes[i]);
+        }
+        projectionExpression = projection.toString();
+        return this;
+    }
+    
+    // Blocks until every segment has finished. The first segment failure
+    // stops the others and is rethrown here; so is an interrupt.
+    public Result run(ItemConsumer consumer) throws InterruptedException {
+        long start = SystemClock.elapsedRealtime();
+        ReadBudget budget = readUnitsPerSecond > 0 ? new ReadBudget(readUnitsPerSecond, segments) : null;
+        Totals totals = new Totals();
+        AtomicInteger nextSegment = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        CountDownLatch finished = new CountDownLatch(segments);
+        
+        Runnable worker = () -> {
+            int segment;
+            while ((segment = nextSegment.getAndIncrement()) < segments) {
+                try {
+                    if (!stopped.get()) {
+                        scanSegment(segment, consumer, budget, totals, stopped);
+                    }
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                    stopped.set(true);
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                    stopped.set(true);
+                } finally {
+                    finished.countDown();
+                }
+            }
+        };
+        
+        for (int i = 1; i < segments; i++) {
+            executor.execute(worker);
+        }
+        worker.run();
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            stopped.set(true);
+            throw e;
+        }
+        
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        if (interrupted.get() || Thread.interrupted()) {
+            throw new InterruptedException("Scan of " + table + " interrupted");
+        }
+        return totals.result(segments, SystemClock.elapsedRealtime() - start);
+    }
+    
+    private void scanSegment(int segment, ItemConsumer consumer, ReadBudget budget, Totals totals,
+                             AtomicBoolean stopped) throws InterruptedException {
+        Map<String, AttributeValue> startKey = null;
+        do {
+            double reserved = budget != null ? budget.acquire() : 0;
+            
+            ScanRequest request = new ScanRequest()
+                .withTableName(table)
+                .withSegment(segment)
+                .withTotalSegments(segments)
+                .withLimit(pageSize)
+                .withExclusiveStartKey(startKey)
+                .withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+            if (filterExpression != null) {
+                request.setFilterExpression(filterExpression);
+            }
+            if (projectionExpression != null) {
+                request.setProjectionExpression(projectionExpression);
+            }
+            if (!names.isEmpty()) {
+                request.setExpressionAttributeNames(names);
+            }
+            if (!values.isEmpty()) {
+                request.setExpressionAttributeValues(values);
+            }
+            
+            ScanResult result = client.scan(request);
+            double units = result.getConsumedCapacity() != null && result.getConsumedCapacity().getCapacityUnits() != null
+                ? result.getConsumedCapacity().getCapacityUnits() : 0;
+            if (budget != null) {
+                budget.charge(reserved, units);
+            }
+            for (Map<String, AttributeValue> item : result.getItems()) {
+                consumer.accept(item);
+            }
+            totals.add(result.getItems().size(), units);
+            
+            startKey = result.getLastEvaluatedKey();
+        } while (startKey != null && !startKey.isEmpty() && !stopped.get());
+    }
+    
+    private static final class Totals {
+        private long items;
+        private long pages;
+        private double capacity;
+        
+        synchronized void add(int pageItems, double units) {
+            items += pageItems;
+            pages++;
+            capacity += units;
+        }
+        
+        synchronized Result result(int segments, long elapsedMs) {
+            return new Result(segments, items, pages, capacity, elapsedMs);
+        }
+    }
+    
+    // Token bucket in read capacity units, holding at most one second of
+    // budget. A page's cost is only known after it returns, so acquire()
+    // reserves an estimate before the request and charge() settles the
+    // difference afterwards. Reserving up front keeps several segments from
+    // all seeing a positive balance and sending pages at once. The estimate
+    // follows the pages actually charged, starting from an even share of
+    // one second's budget per segment.
+    private static final class ReadBudget {
+        private static final double ESTIMATE_WEIGHT = 0.2;
+        
+        private final double unitsPerSecond;
+        private double balance;
+        private double estimate;
+        private long updatedAt = SystemClock.elapsedRealtime();
+        
+        ReadBudget(double unitsPerSecond, int segments) {
+            this.unitsPerSecond = unitsPerSecond;
+            this.balance = unitsPerSecond;
+            this.estimate = unitsPerSecond / segments;
+        }
+        
+        // Waits until the estimated page cost is available and returns the
+        // units reserved, which must be passed back to charge()
+        double acquire() throws InterruptedException {
+            while (true) {
+                long waitMs;
+                synchronized (this) {
+                    refill();
+                    // A page dearer than the whole bucket waits for a full one
+                    double needed = Math.min(estimate, unitsPerSecond);
+                    if (balance >= needed) {
+                        balance -= estimate;
+                        return estimate;
+                    }
+                    waitMs = (long) Math.ceil((needed - balance) / unitsPerSecond * 1000);
+                }
+                Thread.sleep(waitMs);
+            }
+        }
+        
+        synchronized void charge(double reserved, double units) {
+            refill();
+            balance += reserved - units;
+            estimate += (units - estimate) * ESTIMATE_WEIGHT;
+        }
+        
+        private void refill() {
+            long now = SystemClock.elapsedRealtime();
+            balance = Math.min(unitsPerSecond, balance + (now - updatedAt) * unitsPerSecond / 1000);
+            updatedAt = now;
+        }
+    }
+}
+
+// ============= SCAN BENCHMARK =============
+package com.condoconnectai.data;
+
+import android.content.Context;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Wall-clock time of a full ParallelScan at several segment counts, meant
+// for DynamoDB Local (see DynamoClient.useEndpoint) or a scratch table.
+// Blocks for the length of every scan: run it off the main thread.
+public class ScanBenchmark {
+    private static final int[] DEFAULT_SEGMENTS = {1, 2, 4, 8};
+    private static final String[] STATUSES = {"pending", "in_progress", "completed"};
+    
+    private final AmazonDynamoDB client;
+    
+    public ScanBenchmark(Context context) {
+        this.client = DynamoClient.getInstance(context);
+    }
+    
+    public List<ParallelScan.Result> run(String table) throws InterruptedException {
+        return run(table, DEFAULT_SEGMENTS);
+    }
+    
+    public List<ParallelScan.Result> run(String table, int[] segmentCounts) throws InterruptedException {
+        // Untimed pass so the first measurement does not pay for connection setup
+        client.scan(new ScanRequest().withTableName(table).withLimit(1));
+        
+        List<ParallelScan.Result> results = new ArrayList<>();
+        for (int segments : segmentCounts) {
+            results.add(new ParallelScan(client, table).segments(segments).run(item -> { }));
+        }
+        return results;
+    }
+    
+    // Fills a table with synthetic work orders. Only allowed against a
+    // custom endpoint so it cannot write into a real table by accident.
+    public void seed(String table, String keyAttribute, int count) {
+        if (!DynamoClient.usesCustomEndpoint()) {
+            throw new IllegalStateException("Seeding is only allowed against DynamoDB Local");
+        }
+        for (int i = 0; i < count; i++) {
+            Map<String, AttributeValue> item = new HashMap<>();
+            item.put(keyAttribute, new AttributeValue("bench_" + i));
+            item.put("tenant_id", new AttributeValue("tenant_" + (i % 10)));
+            item.put("status", new AttributeValue(STATUSES[i % STATUSES.length]));
+            item.put("title", new AttributeValue("Work order " + i));
+            item.put("created_at", new AttributeValue(String.valueOf(1700000000000L + i)));
+            client.putItem(new PutItemRequest().withTableName(table).withItem(item));
+        }
+    }
+}
+
+// ============= BULK WRITE CHECK =============
+package com.condoconnectai.data;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.condoconnectai.utils.AppExecutors;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Regression check for Table.updateAll and Table.deleteAll issued while
+// every IO thread is busy, as they are when called from a saturated IO
+// pool. Both must finish on the calling thread alone instead of waiting for
+// queued workers. Writes to the table, so it only runs against DynamoDB
+// Local; blocks for up to TIMEOUT_MS, so run it off the main thread.
+public class BulkWriteCheck {
+    private static final long TIMEOUT_MS = 30000;
+    
+    // True when both bulk writes completed while the IO pool was held
+    public <T> boolean run(Table<T> table, Collection<String> keys, Map<String, AttributeValue> values)
+            throws InterruptedException {
+        if (!DynamoClient.usesCustomEndpoint()) {
+            throw new IllegalStateException("BulkWriteCheck is only allowed against DynamoDB Local");
+        }
+        AppExecutors executors = AppExecutors.getInstance();
+        int threads = 0;
+        for (AppExecutors.PoolStats stats : executors.getStats()) {
+            if (stats.getPool() == AppExecutors.Pool.IO) {
+                threads = stats.getThreads();
+            }
+        }
+        
+        CountDownLatch held = new CountDownLatch(threads);
+        CountDownLatch release = new CountDownLatch(1);
+        Executor io = executors.io();
+        for (int i = 0; i < threads; i++) {
+            io.execute(() -> {
+                held.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                table.updateAll(keys, values);
+                table.deleteAll(keys);
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        }, "bulk-write-check");
+        try {
+            if (!held.await(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("IO pool is busy with other work");
+            }
+            writer.start();
+            writer.join(TIMEOUT_MS);
+            return !writer.isAlive() && failure.get() == null;
+        } finally {
+            release.countDown();
+        }
+    }
+}
+
+// ============= REPOSITORY ROUND TRIP CHECK =============
+package com.condoconnectai.data;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableRequest;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndex;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.Projection;
+import com.amazonaws.services.dynamodbv2.model.ProjectionType;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
+import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
+import com.amazonaws.services.dynamodbv2.model.TableStatus;
+import com.condoconnectai.utils.ModelCodec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Round-trips every Repositories mapper through DynamoDB Local. Each table
+// is copied to a scratch table with the same key and a TenantIndex, which
+// the check creates and drops again, so it never touches the real tables.
+// Covers put/get, an absent key, an item missing every attribute but its
+// key, a query paged PAGE_SIZE items at a time, and a projected query.
+// Throws AssertionError listing every mismatch; returns the number of
+// tables checked. Blocks on network calls, so run it off the main thread.
+public class RepositoryRoundTripCheck {
+    private static final String SUFFIX = "-RoundTripCheck";
+    private static final String TENANT_KEY = "tenant_id";
+    private static final String TENANT_INDEX = "TenantIndex";
+    private static final String TENANT = "round-trip-tenant";
+    private static final int PAGE_SIZE = 3;
+    private static final int QUERY_ITEMS = PAGE_SIZE * 2 + 1;
+    private static final long TABLE_TIMEOUT_MS = 30000;
+    private static final long TABLE_POLL_MS = 200;
+    
+    private final List<String> mismatches = new ArrayList<>();
+    
+    public synchronized int run(Repositories repositories) throws InterruptedException {
+        if (!DynamoClient.usesCustomEndpoint()) {
+            throw new IllegalStateException("RepositoryRoundTripCheck is only allowed against DynamoDB Local");
+        }
+        mismatches.clear();
+        List<Table<?>> tables = Arrays.<Table<?>>asList(repositories.messages(), repositories.announcements(),
+            repositories.reports(), repositories.biometricRecords(), repositories.accessLogs(),
+            repositories.tickets(), repositories.notifications());
+        for (Table<?> table : tables) {
+            check(repositories.client(), table);
+        }
+        
+        if (!mismatches.isEmpty()) {
+            StringBuilder message = new StringBuilder("Repository mappers do not round-trip:");
+            for (String mismatch : mismatches) {
+                message.append('\n').append(mismatch);
+            }
+            throw new AssertionError(message.toString());
+        }
+        return tables.size();
+    }
+    
+    private <T> void check(AmazonDynamoDB client, Table<T> source) throws InterruptedException {
+        Table<T> table = new Table<>(client, source.getName() + SUFFIX, source.getKeyAttribute(), source.getCodec());
+        createTable(client, table);
+        try {
+            checkGet(client, table);
+            checkQuery(table);
+        } finally {
+            client.deleteTable(new DeleteTableRequest().withTableName(table.getName()));
+        }
+    }
+    
+    private <T> void checkGet(AmazonDynamoDB client, Table<T> table) {
+        for (int i = 0; i < 2; i++) {
+            T model = sample(table, "get-" + i, i);
+            table.put(model);
+            expectSame(table, "get " + i, model, table.get("get-" + i));
+        }
+        
+        if (table.get("absent") != null) {
+            mismatches.add(table.getName() + " / absent key: returned an item");
+        }
+        
+        client.putItem(new PutItemRequest()
+            .withTableName(table.getName())
+            .withItem(table.key("bare")));
+        T bare = table.get("bare");
+        if (bare == null) {
+            mismatches.add(table.getName() + " / missing attributes: item not found");
+        } else {
+            expectDefaults(table, "missing attributes", bare, Collections.singleton(table.getKeyAttribute()));
+        }
+    }
+    
+    private <T> void checkQuery(Table<T> table) {
+        Map<String, T> written = new HashMap<>();
+        Map<String, AttributeValue> tenant = Collections.singletonMap(TENANT_KEY, new AttributeValue(TENANT));
+        for (int i = 0; i < QUERY_ITEMS; i++) {
+            String key = "query-" + i;
+            T model = sample(table, key, i);
+            table.put(model, tenant);
+            written.put(key, model);
+        }
+        
+        Set<String> seen = new HashSet<>();
+        int pages = 0;
+        Map<String, AttributeValue> startKey = null;
+        do {
+            ItemPage<T> page = table.query(TENANT_INDEX).where(TENANT_KEY, TENANT).limit(PAGE_SIZE).startAfter(startKey).execute();
+            pages++;
+            for (T model : page.getItems()) {
+                String key = keyOf(table, model);
+                if (!seen.add(key)) {
+                    mismatches.add(table.getName() + " / query: " + key + " returned twice");
+                } else if (written.containsKey(key)) {
+                    expectSame(table, "query " + key, written.get(key), model);
+                } else {
+                    mismatches.add(table.getName() + " / query: unexpected item " + key);
+                }
+            }
+            startKey = page.getLastEvaluatedKey();
+        } while (startKey != null && pages <= QUERY_ITEMS);
+        if (!seen.equals(written.keySet())) {
+            mismatches.add(table.getName() + " / query: read " + seen.size() + " of " + written.size() + " items");
+        }
+        if (pages < 2) {
+            mismatches.add(table.getName() + " / query: " + QUERY_ITEMS + " items fit one page of " + PAGE_SIZE);
+        }
+        
+        // Projects the key and one mapped attribute; the rest must decode to defaults
+        List<String> fields = table.getCodec().fieldNames();
+        String projected = null;
+        for (String field : fields) {
+            if (!field.equals(table.getKeyAttribute())) {
+                projected = field;
+                break;
+            }
+        }
+        List<String> attributes = projected != null
+            ? Arrays.asList(table.getKeyAttribute(), projected) : Collections.singletonList(table.getKeyAttribute());
+        ItemPage<T> page = table.query(TENANT_INDEX).where(TENANT_KEY, TENANT).project(attributes).execute();
+        if (page.getItems().size() != QUERY_ITEMS) {
+            mismatches.add(table.getName() + " / project: read " + page.getItems().size() + " of " + QUERY_ITEMS + " items");
+        }
+        for (T model : page.getItems()) {
+            String key = keyOf(table, model);
+            T original = written.get(key);
+            if (original == null) {
+                mismatches.add(table.getName() + " / project: unexpected item " + key);
+                continue;
+            }
+            Map<String, AttributeValue> actual = table.getCodec().toItem(model);
+            Map<String, AttributeValue> expected = table.getCodec().toItem(original);
+            for (String attribute : attributes) {
+                if (!String.valueOf(expected.get(attribute)).equals(String.valueOf(actual.get(attribute)))) {
+                    mismatches.add(table.getName() + " / project " + key + ": " + attribute + " expected "
+                        + expected.get(attribute) + " but read " + actual.get(attribute));
+                }
+            }
+            expectDefaults(table, "project " + key, model, new HashSet<>(attributes));
+        }
+    }
+    
+    // Every mapped attribute gets a distinct value. Odd samples use "true"
+    // throughout so boolean fields are seen in both states.
+    private static <T> T sample(Table<T> table, String key, int index) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        for (String field : table.getCodec().fieldNames()) {
+            item.put(field, new AttributeValue(index % 2 == 0 ? field + "-" + index : "true"));
+        }
+        item.put(table.getKeyAttribute(), new AttributeValue(key));
+        return table.getCodec().fromItem(item);
+    }
+    
+    private static <T> String keyOf(Table<T> table, T model) {
+        AttributeValue key = table.getCodec().toItem(model).get(table.getKeyAttribute());
+        return key != null ? key.getS() : null;
+    }
+    
+    private <T> void expectSame(Table<T> table, String label, T expected, T actual) {
+        if (actual == null) {
+            mismatches.add(table.getName() + " / " + label + ": item not found");
+            return;
+        }
+        ModelCodec<T> codec = table.getCodec();
+        Map<String, AttributeValue> wrote = codec.toItem(expected);
+        Map<String, AttributeValue> read = codec.toItem(actual);
+        if (!wrote.equals(read)) {
+            mismatches.add(table.getName() + " / " + label + ": wrote " + wrote + " but read " + read);
+        }
+    }
+    
+    // Repositories only maps strings and booleans, which default to "" and
+    // false when the attribute is missing
+    private <T> void expectDefaults(Table<T> table, String label, T model, Set<String> present) {
+        for (Map.Entry<String, AttributeValue> entry : table.getCodec().toItem(model).entrySet()) {
+            if (present.contains(entry.getKey())) {
+                continue;
+            }
+            String value = entry.getValue().getS();
+            if (!"".equals(value) && !"false".equals(value)) {
+                mismatches.add(table.getName() + " / " + label + ": " + entry.getKey() + " read " + entry.getValue());
+            }
+        }
+    }
+    
+    private static void createTable(AmazonDynamoDB client, Table<?> table) throws InterruptedException {
+        try {
+            // Left behind by a run that was killed mid-check
+            client.deleteTable(new DeleteTableRequest().withTableName(table.getName()));
+        } catch (ResourceNotFoundException e) {
+            // Nothing to clean up
+        }
+        
+        ProvisionedThroughput throughput = new ProvisionedThroughput(5L, 5L);
+        client.createTable(new CreateTableRequest()
+            .withTableName(table.getName())
+            .withAttributeDefinitions(
+                new AttributeDefinition(table.getKeyAttribute(), ScalarAttributeType.S),
+                new AttributeDefinition(TENANT_KEY, ScalarAttributeType.S))
+            .withKeySchema(new KeySchemaElement(table.getKeyAttribute(), KeyType.HASH))
+            .withGlobalSecondaryIndexes(new GlobalSecondaryIndex()
+                .withIndexName(TENANT_INDEX)
+                .withKeySchema(new KeySchemaElement(TENANT_KEY, KeyType.HASH))
+                .withProjection(new Projection().withProjectionType(ProjectionType.ALL))
+                .withProvisionedThroughput(throughput))
+            .withProvisionedThroughput(throughput));
+        
+        long deadline = System.currentTimeMillis() + TABLE_TIMEOUT_MS;
+        while (!TableStatus.ACTIVE.toString().equals(client.describeTable(new DescribeTableRequest()
+                .withTableName(table.getName())).getTable().getTableStatus())) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException(table.getName() + " did not become active");
+            }
+            Thread.sleep(TABLE_POLL_MS);
+        }
+    }
+}
+
+// ============= KEY PAGED SOURCE =============
+package com.condoconnectai.data;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.condoconnectai.utils.AppExecutors;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Infinite scroll over a Table query, paged by LastEvaluatedKey. The page
+// after the last one shown is fetched as soon as that page is shown, so
+// scrolling to the end usually finds it ready. At most maxPages pages stay
+// in memory: appending past the cap drops the first page, and scrolling
+// back to the top fetches it again from its remembered start key. Only the
+// keys of every page seen are kept, never their items.
+//
+// Main thread only; queries run on the owner's TaskGroup, so they stop with
+// the screen.
+public final class KeyPagedSource<T> {
+    private static final String TAG = "KeyPagedSource";
+    private static final int LOAD_THRESHOLD = 10;
+    
+    public interface QueryFactory<T> {
+        // Called on an IO thread for every page; limit and start key are set
+        // by the source
+        Table<T>.Query create();
+    }
+    
+    public interface Listener<T> {
+        // Everything shown is replaced, after refresh()
+        void onReset(List<T> items);
+        void onInserted(List<T> items, boolean atEnd);
+        void onRemoved(int count, boolean atStart);
+        void onError(Exception error);
+    }
+    
+    private interface PageCallback<T> {
+        void onResult(ItemPage<T> page, RuntimeException error);
+    }
+    
+    private static final class Pending<T> {
+        final int index;
+        ItemPage<T> page;
+        boolean wanted;
+        
+        Pending(int index) {
+            this.index = index;
+        }
+    }
+    
+    private final AppExecutors.TaskGroup taskGroup;
+    private final QueryFactory<T> queryFactory;
+    private final int pageSize;
+    private final int maxPages;
+    private final Listener<T> listener;
+    
+    // startKeys.get(i) is the ExclusiveStartKey of page i; page 0 starts at null
+    private final List<Map<String, AttributeValue>> startKeys = new ArrayList<>();
+    private final ArrayDeque<Integer> windowPageSizes = new ArrayDeque<>();
+    private int firstPage;
+    private int lastPage = -1;
+    private Pending<T> next;
+    private boolean loadingPrevious;
+    // Bumped on refresh so pages requested before it are dropped
+    private int generation;
+    
+    public KeyPagedSource(AppExecutors.TaskGroup taskGroup, QueryFactory<T> queryFactory, int pageSize, int maxPages,
+                          Listener<T> listener) {
+        if (maxPages < 2) {
+            throw new IllegalArgumentException("maxPages must be at least 2");
+        }
+        this.taskGroup = taskGroup;
+        this.queryFactory = queryFactory;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.listener = listener;
+    }
+    
+    public void refresh() {
+        generation++;
+        startKeys.clear();
+        startKeys.add(null);
+        windowPageSizes.clear();
+        firstPage = 0;
+        lastPage = -1;
+        next = null;
+        loadingPrevious = false;
+        
+        fetch(0, (page, error) -> {
+            if (error != null) {
+                listener.onError(error);
+                return;
+            }
+            recordNextKey(0, page);
+            windowPageSizes.addLast(page.getItems().size());
+            listener.onReset(page.getItems());
+            prefetchNext();
+        });
+    }
+    
+    public void loadNext() {
+        if (next == null) {
+            prefetchNext();
+            if (next == null) {
+                return;
+            }
+        }
+        next.wanted = true;
+        if (next.page != null) {
+            showNext();
+        }
+    }
+    
+    public void loadPrevious() {
+        if (firstPage == 0 || loadingPrevious || windowPageSizes.isEmpty()) {
+            return;
+        }
+        loadingPrevious = true;
+        int index = firstPage - 1;
+        fetch(index, (page, error) -> {
+            loadingPrevious = false;
+            if (firstPage != index + 1) {
+                // showNext dropped pages from the front meanwhile, so this
+                // page no longer joins the window; the next scroll asks again
+                return;
+            }
+            if (error != null) {
+                listener.onError(error);
+                return;
+            }
+            firstPage = index;
+            windowPageSizes.addFirst(page.getItems().size());
+            listener.onInserted(page.getItems(), false);
+            if (windowPageSizes.size() > maxPages) {
+                // The prefetched page no longer follows the window
+                next = null;
+                listener.onRemoved(windowPageSizes.removeLast(), false);
+            }
+        });
+    }
+    
+    public boolean hasMore() {
+        return lastPage < 0 || firstPage + windowPageSizes.size() - 1 < lastPage;
+    }
+    
+    // A new item created on this screen. It is only shown while the window
+    // starts at the top, where it belongs.
+    public void insertAtStart(T item) {
+        if (firstPage != 0 || windowPageSizes.isEmpty()) {
+            return;
+        }
+        windowPageSizes.addFirst(windowPageSizes.removeFirst() + 1);
+        listener.onInserted(Collections.singletonList(item), false);
+    }
+    
+    public RecyclerView.OnScrollListener scrollListener(LinearLayoutManager layoutManager) {
+        return new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0 && layoutManager.findLastVisibleItemPosition() >= layoutManager.getItemCount() - LOAD_THRESHOLD) {
+                    loadNext();
+                } else if (dy < 0 && layoutManager.findFirstVisibleItemPosition() < LOAD_THRESHOLD) {
+                    loadPrevious();
+                }
+            }
+        };
+    }
+    
+    // Keeps a plain list and its adapter in step with the window
+    public static <T> Listener<T> into(List<T> items, RecyclerView.Adapter<?> adapter) {
+        return new Listener<T>() {
+            @Override
+            public void onReset(List<T> page) {
+                items.clear();
+                items.addAll(page);
+                adapter.notifyDataSetChanged();
+            }
+            
+            @Override
+            public void onInserted(List<T> page, boolean atEnd) {
+                int position = atEnd ? items.size() : 0;
+                items.addAll(position, page);
+                adapter.notifyItemRangeInserted(position, page.size());
+            }
+            
+            @Override
+            public void onRemoved(int count, boolean atStart) {
+                int position = atStart ? 0 : items.size() - count;
+                items.subList(position, position + count).clear();
+                adapter.notifyItemRangeRemoved(position, count);
+            }
+            
+            @Override
+            public void onError(Exception error) {
+                Log.e(TAG, "Error loading page", error);
+            }
+        };
+    }
+    
+    private void prefetchNext() {
+        int index = firstPage + windowPageSizes.size();
+        if (windowPageSizes.isEmpty() || index >= startKeys.size() || (next != null && next.index == index)) {
+            return;
+        }
+        Pending<T> pending = new Pending<>(index);
+        next = pending;
+        fetch(index, (page, error) -> {
+            if (next != pending) {
+                return;
+            }
+            if (error != null) {
+                // Dropped so the next scroll asks again
+                next = null;
+                if (pending.wanted) {
+                    listener.onError(error);
+                }
+                return;
+            }
+            pending.page = page;
+            if (pending.wanted) {
+                showNext();
+            }
+        });
+    }
+    
+    private void showNext() {
+        Pending<T> pending = next;
+        next = null;
+        recordNextKey(pending.index, pending.page);
+        windowPageSizes.addLast(pending.page.getItems().size());
+        listener.onInserted(pending.page.getItems(), true);
+        if (windowPageSizes.size() > maxPages) {
+            firstPage++;
+            listener.onRemoved(windowPageSizes.removeFirst(), true);
+        }
+        prefetchNext();
+    }
+    
+    private void recordNextKey(int index, ItemPage<T> page) {
+        if (!page.hasMore()) {
+            lastPage = index;
+        } else if (startKeys.size() == index + 1) {
+            startKeys.add(page.getLastEvaluatedKey());
+        }
+    }
+    
+    private void fetch(int index, PageCallback<T> callback) {
+        int requestGeneration = generation;
+        Map<String, AttributeValue> startKey = startKeys.get(index);
+        taskGroup.io(() -> {
+            ItemPage<T> page;
+            try {
+                page = queryFactory.create().limit(pageSize).startAfter(startKey).execute();
+            } catch (RuntimeException e) {
+                taskGroup.post(() -> {
+                    if (requestGeneration == generation) {
+                        callback.onResult(null, e);
+                    }
+                });
+                return;
+            }
+            taskGroup.post(() -> {
+                if (requestGeneration == generation) {
+                    callback.onResult(page, null);
+                }
+            });
+        });
+    }
+}
@@ -4,6 +4,7 @@ const { v4: uuidv4 } = require('uuid');
 
 const dynamodb = new AWS.DynamoDB.DocumentClient();
 const TABLE_NAME = process.env.RESIDENTS_TABLE;
+const COUNTERS_TABLE = process.env.COUNTERS_TABLE;
 
 const createResponse = (statusCode, body) => ({
     statusCode,
@@ -16,6 +17,60 @@ const createResponse = (statusCode, body) => ({
     body: JSON.stringify(body)
 });
 
+// Per-tenant counters read by the dashboard: one item per tenant holding a
+// <entity>_<status> count for every status. A write that creates, deletes
+// or re-statuses a counted item carries this update in the same
+// transaction, so the counts move exactly when the item does. version is
+// bumped on every change so a client recount never overwrites one.
+const counterUpdate = (tenantId, entity, fromStatus, toStatus) => {
+    const counterName = (status) => `${entity}_${String(status).trim().toLowerCase()}`;
+    const from = fromStatus ? counterName(fromStatus) : null;
+    const to = toStatus ? counterName(toStatus) : null;
+    if (!tenantId || from === to) {
+        return null;
+    }
+    
+    const names = { '#v': 'version' };
+    const values = { ':one': 1 };
+    let expression = 'ADD #v :one';
+    if (from) {
+        expression += ', #from :minus';
+        names['#from'] = from;
+        values[':minus'] = -1;
+    }
+    if (to) {
+        expression += ', #to :one';
+        names['#to'] = to;
+    }
+    return {
+        Update: {
+            TableName: COUNTERS_TABLE,
+            Key: { tenant_id: tenantId },
+            UpdateExpression: expression,
+            ExpressionAttributeNames: names,
+            ExpressionAttributeValues: values
+        }
+    };
+};
+
+// Guards an update or delete on the status it was counted under, so a
+// concurrent status change cancels the transaction instead of miscounting
+const statusCondition = (write, status) => {
+    write.ExpressionAttributeNames = { ...write.ExpressionAttributeNames, '#countedStatus': 'status' };
+    if (status === undefined) {
+        write.ConditionExpression = 'attribute_not_exists(#countedStatus)';
+    } else {
+        write.ConditionExpression = '#countedStatus = :countedStatus';
+        write.ExpressionAttributeValues = { ...write.ExpressionAttributeValues, ':countedStatus': status };
+    }
+    return write;
+};
+
+const writeCounted = (write, counter) =>
+    dynamodb.transactWrite({ TransactItems: counter ? [write, counter] : [write] }).promise();
+
+const isStatusConflict = (error) => error.code === 'TransactionCanceledException';
+
 // GET /residents
 exports.getResidents = async (event) => {
     try {
@@ -145,10 +200,10 @@ exports.createResident = async (event) => {
             tenantId: event.requestContext.authorizer?.claims?.['custom:tenant_id'] || 'default'
         };
         
-        await dynamodb.put({
-            TableName: TABLE_NAME,
-            Item: resident
-        }).promise();
+        await writeCounted(
+            { Put: { TableName: TABLE_NAME, Item: resident } },
+            counterUpdate(resident.tenantId, 'residents', null, resident.status)
+        );
         
         return createResponse(201, {
             success: true,
@@ -210,23 +265,38 @@ exports.updateResident = async (event) => {
         expressionAttributeNames['#updatedAt'] = 'updatedAt';
         expressionAttributeValues[':updatedAt'] = new Date().toISOString();
         
-        const params = {
+        const update = statusCondition({
             TableName: TABLE_NAME,
             Key: { id },
             UpdateExpression: `SET ${updateExpressions.join(', ')}`,
             ExpressionAttributeNames: expressionAttributeNames,
-            ExpressionAttributeValues: expressionAttributeValues,
-            ReturnValues: 'ALL_NEW'
-        };
+            ExpressionAttributeValues: expressionAttributeValues
+        }, existingResident.Item.status);
+        const counter = data.status !== undefined
+            ? counterUpdate(existingResident.Item.tenantId, 'residents', existingResident.Item.status, data.status)
+            : null;
         
-        const result = await dynamodb.update(params).promise();
+        await writeCounted({ Update: update }, counter);
+        
+        // Transactions return no attributes; read back what was written
+        const result = await dynamodb.get({
+            TableName: TABLE_NAME,
+            Key: { id },
+            ConsistentRead: true
+        }).promise();
         
         return createResponse(200, {
             success: true,
-            data: result.Attributes
+            data: result.Item
         });
         
     } catch (error) {
+        if (isStatusConflict(error)) {
+            return createResponse(409, {
+                success: false,
+                error: 'Resident changed while updating; retry'
+            });
+        }
         console.error('Error updating resident:', error);
         return createResponse(500, {
             success: false,
@@ -253,10 +323,10 @@ exports.deleteResident = async (event) => {
             });
         }
         
-        await dynamodb.delete({
-            TableName: TABLE_NAME,
-            Key: { id }
-        }).promise();
+        await writeCounted(
+            { Delete: statusCondition({ TableName: TABLE_NAME, Key: { id } }, existingResident.Item.status) },
+            counterUpdate(existingResident.Item.tenantId, 'residents', existingResident.Item.status, null)
+        );
         
         return createResponse(200, {
             success: true,
@@ -264,6 +334,12 @@ exports.deleteResident = async (event) => {
         });
         
     } catch (error) {
+        if (isStatusConflict(error)) {
+            return createResponse(409, {
+                success: false,
+                error: 'Resident changed while deleting; retry'
+            });
+        }
         console.error('Error deleting resident:', error);
         return createResponse(500, {
             success: false,
@@ -656,10 +732,10 @@ exports.createWorkOrder = async (event) => {
             createdBy: event.requestContext.authorizer?.claims?.sub || 'system'
         };
         
-        await dynamodb.put({
-            TableName: WORK_ORDERS_TABLE,
-            Item: workOrder
-        }).promise();
+        await writeCounted(
+            { Put: { TableName: WORK_ORDERS_TABLE, Item: workOrder } },
+            counterUpdate(workOrder.tenantId, 'work_orders', null, workOrder.status)
+        );
         
         return createResponse(201, {
             success: true,
@@ -731,23 +807,38 @@ exports.updateWorkOrder = async (event) => {
             expressionAttributeValues[':completedDate'] = new Date().toISOString();
         }
         
-        const params = {
+        const update = statusCondition({
             TableName: WORK_ORDERS_TABLE,
             Key: { id },
             UpdateExpression: `SET ${updateExpressions.join(', ')}`,
             ExpressionAttributeNames: expressionAttributeNames,
-            ExpressionAttributeValues: expressionAttributeValues,
-            ReturnValues: 'ALL_NEW'
-        };
+            ExpressionAttributeValues: expressionAttributeValues
+        }, existingWorkOrder.Item.status);
+        const counter = data.status !== undefined
+            ? counterUpdate(existingWorkOrder.Item.tenantId, 'work_orders', existingWorkOrder.Item.status, data.status)
+            : null;
         
-        const result = await dynamodb.update(params).promise();
+        await writeCounted({ Update: update }, counter);
+        
+        // Transactions return no attributes; read back what was written
+        const result = await dynamodb.get({
+            TableName: WORK_ORDERS_TABLE,
+            Key: { id },
+            ConsistentRead: true
+        }).promise();
         
         return createResponse(200, {
             success: true,
-            data: result.Attributes
+            data: result.Item
         });
         
     } catch (error) {
+        if (isStatusConflict(error)) {
+            return createResponse(409, {
+                success: false,
+                error: 'Work order changed while updating; retry'
+            });
+        }
         console.error('Error updating work order:', error);
         return createResponse(500, {
             success: false,
@@ -2,35 +2,94 @@
 package com.condoconnectai.services;
 
 import android.content.Context;
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.Response;
-import com.android.volley.VolleyError;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.JsonArrayRequest;
-import com.android.volley.toolbox.Volley;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
 import com.condoconnectai.models.*;
+import com.condoconnectai.utils.AppExecutors;
 import com.condoconnectai.utils.AuthManager;
+import com.condoconnectai.utils.CborReader;
+import com.condoconnectai.utils.ModelCodec;
 import org.json.JSONObject;
 import org.json.JSONArray;
 import org.json.JSONException;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
 
 public class ApiService {
     private static ApiService instance;
-    private RequestQueue requestQueue;
+    private HttpTransport transport;
     private Context context;
     private AuthManager authManager;
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+    private final RequestScheduler scheduler = new RequestScheduler();
+    private final ApiMetrics metrics = new ApiMetrics();
+    private final Executor parseExecutor = AppExecutors.getInstance().cpu();
+    private final Executor diskExecutor = AppExecutors.getInstance().io();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private ResponseCache responseCache;
+    private ResidentStore residentStore;
+    private volatile boolean streamingParsersEnabled = true;
+    private volatile boolean binaryFormatEnabled = true;
+    private boolean dashboardBundleSupported = true;
+    private final Map<String, RetryPolicy> retryPolicies = new HashMap<>();
+    private final Map<String, RequestScheduler.Priority> endpointPriorities = new HashMap<>();
+    // Endpoints whose /batch route answered 404/405/501
+    private final Set<String> batchUnsupported = new HashSet<>();
+    private final WriteBatcher<Resident> residentWrites = new WriteBatcher<>(WRITE_BATCH_MAX_ITEMS, WRITE_BATCH_WINDOW_MS,
+        items -> flushWrites("createResident", BASE_URL + "/residents", ModelCodecs.RESIDENT, "Error parsing created resident", items));
+    private final WriteBatcher<WorkOrder> workOrderWrites = new WriteBatcher<>(WRITE_BATCH_MAX_ITEMS, WRITE_BATCH_WINDOW_MS,
+        items -> flushWrites("createWorkOrder", BASE_URL + "/maintenance/work-orders", ModelCodecs.WORK_ORDER, "Error parsing created work order", items));
+    private final WriteBatcher<Message> messageWrites = new WriteBatcher<>(WRITE_BATCH_MAX_ITEMS, WRITE_BATCH_WINDOW_MS,
+        items -> flushWrites("sendMessage", BASE_URL + "/communication/messages", ModelCodecs.MESSAGE, "Error parsing sent message", items));
     
     private static final String BASE_URL = "https://api.condoconnectai.com/v1";
+    private static final long RESPONSE_CACHE_MAX_BYTES = 10 * 1024 * 1024;
+    private static final int WRITE_BATCH_MAX_ITEMS = 25;
+    private static final long WRITE_BATCH_WINDOW_MS = 50;
+    private static final RetryPolicy DEFAULT_READ_POLICY = new RetryPolicy(3, 250, 4000);
+    private static final RetryPolicy CREATE_POLICY = new RetryPolicy(3, 500, 8000).withIdempotencyKeys();
+    private static final String ACCEPT_BINARY = "application/cbor, application/json;q=0.9";
+    // Bulk lists the guards poll all day; small responses gain little from CBOR
+    private static final Set<String> BINARY_ENDPOINTS = new HashSet<>(Arrays.asList(
+        "getResidents", "getResidentsPage", "getPayments", "getWorkOrders"));
     
     private ApiService(Context context) {
         this.context = context.getApplicationContext();
-        this.requestQueue = Volley.newRequestQueue(this.context);
+        this.transport = new OkHttpTransport();
         this.authManager = AuthManager.getInstance(context);
+        this.responseCache = new ResponseCache(new File(this.context.getCacheDir(), "api-responses"), RESPONSE_CACHE_MAX_BYTES);
+        
+        retryPolicies.put("getResident", DEFAULT_READ_POLICY.withHedging(400));
+        retryPolicies.put("processPayment", CREATE_POLICY);
+        retryPolicies.put("createResident", CREATE_POLICY);
+        retryPolicies.put("createWorkOrder", CREATE_POLICY);
+        
+        // Gate lookups and user-initiated writes; everything else is a visible refresh
+        endpointPriorities.put("getResident", RequestScheduler.Priority.INTERACTIVE);
+        endpointPriorities.put("createResident", RequestScheduler.Priority.INTERACTIVE);
+        endpointPriorities.put("updateResident", RequestScheduler.Priority.INTERACTIVE);
+        endpointPriorities.put("deleteResident", RequestScheduler.Priority.INTERACTIVE);
+        endpointPriorities.put("processPayment", RequestScheduler.Priority.INTERACTIVE);
+        endpointPriorities.put("createWorkOrder", RequestScheduler.Priority.INTERACTIVE);
+        endpointPriorities.put("updateWorkOrder", RequestScheduler.Priority.INTERACTIVE);
+        endpointPriorities.put("sendMessage", RequestScheduler.Priority.INTERACTIVE);
+        endpointPriorities.put("syncResidents", RequestScheduler.Priority.BACKGROUND);
+        
+        // Open the TLS/HTTP2 connection while the first screen is still inflating
+        this.transport.preconnect(BASE_URL);
     }
     
     public static synchronized ApiService getInstance(Context context) {
@@ -40,921 +99,5511 @@ public class ApiService {
         return instance;
     }
     
+    public synchronized void setTransport(HttpTransport transport) {
+        this.transport = transport;
+    }
+    
+    // Endpoints are named after the ApiService method that calls them
+    public synchronized void setRetryPolicy(String endpoint, RetryPolicy policy) {
+        retryPolicies.put(endpoint, policy);
+    }
+    
+    public ApiMetrics getMetrics() {
+        return metrics;
+    }
+    
+    public synchronized void setEndpointPriority(String endpoint, RequestScheduler.Priority priority) {
+        endpointPriorities.put(endpoint, priority);
+    }
+    
+    // Tree-based org.json parsing stays available for diagnosing streaming issues
+    public void setStreamingParsersEnabled(boolean enabled) {
+        this.streamingParsersEnabled = enabled;
+    }
+    
+    // Servers without CBOR support simply keep answering with JSON
+    public void setBinaryFormatEnabled(boolean enabled) {
+        this.binaryFormatEnabled = enabled;
+    }
+    
     // ============= INTERFACE DEFINITIONS =============
     public interface ApiCallback<T> {
         void onSuccess(T result);
         void onError(String error);
     }
     
-    // ============= DASHBOARD METHODS =============
-    public void getDashboardStats(ApiCallback<DashboardStats> callback) {
-        String url = BASE_URL + "/dashboard/stats";
-        
-        JsonObjectRequest request = new JsonObjectRequest(
-            Request.Method.GET, url, null,
-            response -> {
-                try {
-                    DashboardStats stats = parseDashboardStats(response.getJSONObject("data"));
-                    callback.onSuccess(stats);
-                } catch (JSONException e) {
-                    callback.onError("Error parsing dashboard stats: " + e.getMessage());
-                }
-            },
-            error -> callback.onError(getErrorMessage(error))
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                return getAuthHeaders();
-            }
-        };
-        
-        requestQueue.add(request);
+    interface ResponseParser<R, T> {
+        T parse(R response) throws JSONException;
     }
     
-    public void getRecentActivities(ApiCallback<List<Activity>> callback) {
-        String url = BASE_URL + "/dashboard/activities";
+    public static class Page<T> {
+        private final List<T> items;
+        private final String nextToken;
         
-        JsonArrayRequest request = new JsonArrayRequest(
-            Request.Method.GET, url, null,
-            response -> {
-                try {
-                    List<Activity> activities = parseActivities(response);
-                    callback.onSuccess(activities);
-                } catch (JSONException e) {
-                    callback.onError("Error parsing activities: " + e.getMessage());
-                }
-            },
-            error -> callback.onError(getErrorMessage(error))
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                return getAuthHeaders();
-            }
-        };
+        public Page(List<T> items, String nextToken) {
+            this.items = Collections.unmodifiableList(items);
+            this.nextToken = nextToken;
+        }
         
-        requestQueue.add(request);
-    }
-    
-    // ============= RESIDENTS METHODS =============
-    public void getResidents(ApiCallback<List<Resident>> callback) {
-        String url = BASE_URL + "/residents";
+        public List<T> getItems() {
+            return items;
+        }
         
-        JsonObjectRequest request = new JsonObjectRequest(
-            Request.Method.GET, url, null,
-            response -> {
-                try {
-                    JSONArray residentsArray = response.getJSONObject("data").getJSONArray("items");
-                    List<Resident> residents = parseResidents(residentsArray);
-                    callback.onSuccess(residents);
-                } catch (JSONException e) {
-                    callback.onError("Error parsing residents: " + e.getMessage());
-                }
-            },
-            error -> callback.onError(getErrorMessage(error))
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                return getAuthHeaders();
-            }
-        };
+        public String getNextToken() {
+            return nextToken;
+        }
         
-        requestQueue.add(request);
+        public boolean hasMore() {
+            return nextToken != null && !nextToken.isEmpty();
+        }
     }
     
-    public void getResident(String residentId, ApiCallback<Resident> callback) {
-        String url = BASE_URL + "/residents/" + residentId;
+    public static class DashboardBundle {
+        private final DashboardStats stats;
+        private final List<Activity> activities;
         
-        JsonObjectRequest request = new JsonObjectRequest(
-            Request.Method.GET, url, null,
-            response -> {
-                try {
-                    Resident resident = parseResident(response.getJSONObject("data"));
-                    callback.onSuccess(resident);
-                } catch (JSONException e) {
-                    callback.onError("Error parsing resident: " + e.getMessage());
-                }
-            },
-            error -> callback.onError(getErrorMessage(error))
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                return getAuthHeaders();
-            }
-        };
+        public DashboardBundle(DashboardStats stats, List<Activity> activities) {
+            this.stats = stats;
+            this.activities = activities != null ? Collections.unmodifiableList(activities) : null;
+        }
         
-        requestQueue.add(request);
-    }
-    
-    public void createResident(Resident resident, ApiCallback<Resident> callback) {
-        String url = BASE_URL + "/residents";
+        // Null when the section was not returned
+        public DashboardStats getStats() {
+            return stats;
+        }
         
-        try {
-            JSONObject requestBody = residentToJson(resident);
-            
-            JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.POST, url, requestBody,
-                response -> {
-                    try {
-                        Resident createdResident = parseResident(response.getJSONObject("data"));
-                        callback.onSuccess(createdResident);
-                    } catch (JSONException e) {
-                        callback.onError("Error parsing created resident: " + e.getMessage());
-                    }
-                },
-                error -> callback.onError(getErrorMessage(error))
-            ) {
-                @Override
-                public Map<String, String> getHeaders() {
-                    return getAuthHeaders();
-                }
-            };
-            
-            requestQueue.add(request);
-        } catch (JSONException e) {
-            callback.onError("Error creating request: " + e.getMessage());
+        public List<Activity> getActivities() {
+            return activities;
         }
     }
     
-    public void updateResident(String residentId, Resident resident, ApiCallback<Resident> callback) {
-        String url = BASE_URL + "/residents/" + residentId;
+    public static class ResidentSyncResult {
+        private final List<Resident> residents;
+        private final int changedCount;
+        private final boolean fullSync;
         
-        try {
-            JSONObject requestBody = residentToJson(resident);
-            
-            JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.PUT, url, requestBody,
-                response -> {
-                    try {
-                        Resident updatedResident = parseResident(response.getJSONObject("data"));
-                        callback.onSuccess(updatedResident);
-                    } catch (JSONException e) {
-                        callback.onError("Error parsing updated resident: " + e.getMessage());
-                    }
-                },
-                error -> callback.onError(getErrorMessage(error))
-            ) {
-                @Override
-                public Map<String, String> getHeaders() {
-                    return getAuthHeaders();
-                }
-            };
-            
-            requestQueue.add(request);
-        } catch (JSONException e) {
-            callback.onError("Error creating request: " + e.getMessage());
+        public ResidentSyncResult(List<Resident> residents, int changedCount, boolean fullSync) {
+            this.residents = residents;
+            this.changedCount = changedCount;
+            this.fullSync = fullSync;
         }
-    }
-    
-    public void deleteResident(String residentId, ApiCallback<Void> callback) {
-        String url = BASE_URL + "/residents/" + residentId;
         
-        JsonObjectRequest request = new JsonObjectRequest(
-            Request.Method.DELETE, url, null,
-            response -> callback.onSuccess(null),
-            error -> callback.onError(getErrorMessage(error))
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                return getAuthHeaders();
-            }
-        };
+        // The whole merged directory, not just the changed records
+        public List<Resident> getResidents() {
+            return residents;
+        }
         
-        requestQueue.add(request);
+        public int getChangedCount() {
+            return changedCount;
+        }
+        
+        public boolean isFullSync() {
+            return fullSync;
+        }
     }
     
-    // ============= PAYMENTS METHODS =============
-    public void getPayments(ApiCallback<List<Payment>> callback) {
-        String url = BASE_URL + "/payments";
-        
-        JsonArrayRequest request = new JsonArrayRequest(
-            Request.Method.GET, url, null,
-            response -> {
-                try {
-                    List<Payment> payments = parsePayments(response);
-                    callback.onSuccess(payments);
-                } catch (JSONException e) {
-                    callback.onError("Error parsing payments: " + e.getMessage());
-                }
-            },
-            error -> callback.onError(getErrorMessage(error))
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                return getAuthHeaders();
-            }
-        };
+    private static class WriteResult<T> {
+        final T model;
+        final String error;
         
-        requestQueue.add(request);
+        WriteResult(T model, String error) {
+            this.model = model;
+            this.error = error;
+        }
     }
     
-    public void processPayment(Payment payment, ApiCallback<Payment> callback) {
-        String url = BASE_URL + "/payments";
+    private static class ResidentDelta {
+        final JSONArray upserts;
+        final List<String> deletedIds;
+        final String watermark;
+        final String nextToken;
         
-        try {
-            JSONObject requestBody = paymentToJson(payment);
-            
-            JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.POST, url, requestBody,
-                response -> {
-                    try {
-                        Payment processedPayment = parsePayment(response.getJSONObject("data"));
-                        callback.onSuccess(processedPayment);
-                    } catch (JSONException e) {
-                        callback.onError("Error parsing processed payment: " + e.getMessage());
-                    }
-                },
-                error -> callback.onError(getErrorMessage(error))
-            ) {
-                @Override
-                public Map<String, String> getHeaders() {
-                    return getAuthHeaders();
-                }
-            };
-            
-            requestQueue.add(request);
-        } catch (JSONException e) {
-            callback.onError("Error creating request: " + e.getMessage());
+        ResidentDelta(JSONArray upserts, List<String> deletedIds, String watermark, String nextToken) {
+            this.upserts = upserts;
+            this.deletedIds = deletedIds;
+            this.watermark = watermark;
+            this.nextToken = nextToken;
         }
     }
     
-    // ============= WORK ORDERS METHODS =============
-    public void getWorkOrders(ApiCallback<List<WorkOrder>> callback) {
-        String url = BASE_URL + "/maintenance/work-orders";
+    // ============= DASHBOARD METHODS =============
+    public RequestHandle getDashboardBundle(ApiCallback<DashboardBundle> callback) {
+        if (!dashboardBundleSupported) {
+            return getDashboardBundleLegacy(callback);
+        }
         
-        JsonArrayRequest request = new JsonArrayRequest(
-            Request.Method.GET, url, null,
-            response -> {
-                try {
-                    List<WorkOrder> workOrders = parseWorkOrders(response);
-                    callback.onSuccess(workOrders);
-                } catch (JSONException e) {
-                    callback.onError("Error parsing work orders: " + e.getMessage());
-                }
-            },
-            error -> callback.onError(getErrorMessage(error))
-        ) {
+        RequestHandle handle = new RequestHandle();
+        ApiCallback<DashboardBundle> tracked = handle.track(callback);
+        String url = BASE_URL + "/dashboard/bundle?include=stats,activities";
+        String key = coalescer.key("GET", url, authManager.getAccessToken());
+        handle.add(() -> coalescer.leave(key, tracked));
+        if (!coalescer.join(key, tracked)) {
+            return handle;
+        }
+        
+        coalescer.attach(key, execute("getDashboardBundle", "GET", url, null, null, new HttpTransport.Callback() {
             @Override
-            public Map<String, String> getHeaders() {
-                return getAuthHeaders();
+            public void onResponse(HttpTransport.HttpResult response) {
+                parseInBackground("getDashboardBundle", body -> parseDashboardBundle(dataObject(body)), response.getBody(),
+                    "Error parsing dashboard bundle", coalescer.delivery(key));
             }
-        };
-        
-        requestQueue.add(request);
-    }
-    
-    public void createWorkOrder(WorkOrder workOrder, ApiCallback<WorkOrder> callback) {
-        String url = BASE_URL + "/maintenance/work-orders";
-        
-        try {
-            JSONObject requestBody = workOrderToJson(workOrder);
             
-            JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.POST, url, requestBody,
-                response -> {
-                    try {
-                        WorkOrder createdWorkOrder = parseWorkOrder(response.getJSONObject("data"));
-                        callback.onSuccess(createdWorkOrder);
-                    } catch (JSONException e) {
-                        callback.onError("Error parsing created work order: " + e.getMessage());
-                    }
-                },
-                error -> callback.onError(getErrorMessage(error))
-            ) {
-                @Override
-                public Map<String, String> getHeaders() {
-                    return getAuthHeaders();
+            @Override
+            public void onFailure(HttpTransport.HttpFailure error) {
+                if (!isEndpointUnsupported(error)) {
+                    coalescer.fail(key, getErrorMessage(error));
+                    return;
                 }
-            };
-            
-            requestQueue.add(request);
-        } catch (JSONException e) {
-            callback.onError("Error creating request: " + e.getMessage());
-        }
+                
+                // Older backends only expose the individual dashboard endpoints
+                dashboardBundleSupported = false;
+                coalescer.attach(key, getDashboardBundleLegacy(new ApiCallback<DashboardBundle>() {
+                    @Override
+                    public void onSuccess(DashboardBundle bundle) {
+                        coalescer.succeed(key, bundle);
+                    }
+                    
+                    @Override
+                    public void onError(String legacyError) {
+                        coalescer.fail(key, legacyError);
+                    }
+                }));
+            }
+        }));
+        return handle;
     }
     
-    // ============= SECURITY METHODS =============
-    public void getSecurityEvents(ApiCallback<List<SecurityEvent>> callback) {
-        String url = BASE_URL + "/security/events";
+    private RequestHandle getDashboardBundleLegacy(ApiCallback<DashboardBundle> callback) {
+        RequestHandle handle = new RequestHandle();
+        DashboardBundleCollector collector = new DashboardBundleCollector(handle.track(callback));
         
-        JsonArrayRequest request = new JsonArrayRequest(
-            Request.Method.GET, url, null,
-            response -> {
-                try {
-                    List<SecurityEvent> events = parseSecurityEvents(response);
-                    callback.onSuccess(events);
-                } catch (JSONException e) {
-                    callback.onError("Error parsing security events: " + e.getMessage());
-                }
-            },
-            error -> callback.onError(getErrorMessage(error))
-        ) {
+        handle.add(getDashboardStats(new ApiCallback<DashboardStats>() {
             @Override
-            public Map<String, String> getHeaders() {
-                return getAuthHeaders();
+            public void onSuccess(DashboardStats stats) {
+                collector.onStats(stats, null);
             }
-        };
-        
-        requestQueue.add(request);
-    }
-    
-    public void getVisitors(ApiCallback<List<Visitor>> callback) {
-        String url = BASE_URL + "/security/visitors";
-        
-        JsonArrayRequest request = new JsonArrayRequest(
-            Request.Method.GET, url, null,
-            response -> {
-                try {
-                    List<Visitor> visitors = parseVisitors(response);
-                    callback.onSuccess(visitors);
-                } catch (JSONException e) {
-                    callback.onError("Error parsing visitors: " + e.getMessage());
-                }
-            },
-            error -> callback.onError(getErrorMessage(error))
-        ) {
+            
             @Override
-            public Map<String, String> getHeaders() {
-                return getAuthHeaders();
+            public void onError(String error) {
+                collector.onStats(null, error);
             }
-        };
-        
-        requestQueue.add(request);
-    }
-    
-    // ============= COMMUNICATION METHODS =============
-    public void getMessages(ApiCallback<List<Message>> callback) {
-        String url = BASE_URL + "/communication/messages";
+        }));
         
-        JsonArrayRequest request = new JsonArrayRequest(
-            Request.Method.GET, url, null,
-            response -> {
-                try {
-                    List<Message> messages = parseMessages(response);
-                    callback.onSuccess(messages);
-                } catch (JSONException e) {
-                    callback.onError("Error parsing messages: " + e.getMessage());
-                }
-            },
-            error -> callback.onError(getErrorMessage(error))
-        ) {
+        handle.add(getRecentActivities(new ApiCallback<List<Activity>>() {
             @Override
-            public Map<String, String> getHeaders() {
-                return getAuthHeaders();
+            public void onSuccess(List<Activity> activities) {
+                collector.onActivities(activities, null);
             }
-        };
-        
-        requestQueue.add(request);
+            
+            @Override
+            public void onError(String error) {
+                collector.onActivities(null, error);
+            }
+        }));
+        return handle;
     }
     
-    public void sendMessage(Message message, ApiCallback<Message> callback) {
-        String url = BASE_URL + "/communication/messages";
+    // Joins the two legacy calls; a partial bundle is delivered unless both fail
+    private static class DashboardBundleCollector {
+        private final ApiCallback<DashboardBundle> callback;
+        private DashboardStats stats;
+        private List<Activity> activities;
+        private String error;
+        private int pending = 2;
         
-        try {
-            JSONObject requestBody = messageToJson(message);
-            
-            JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.POST, url, requestBody,
-                response -> {
-                    try {
-                        Message sentMessage = parseMessage(response.getJSONObject("data"));
-                        callback.onSuccess(sentMessage);
-                    } catch (JSONException e) {
-                        callback.onError("Error parsing sent message: " + e.getMessage());
-                    }
-                },
-                error -> callback.onError(getErrorMessage(error))
-            ) {
-                @Override
-                public Map<String, String> getHeaders() {
-                    return getAuthHeaders();
-                }
-            };
-            
-            requestQueue.add(request);
-        } catch (JSONException e) {
-            callback.onError("Error creating request: " + e.getMessage());
+        DashboardBundleCollector(ApiCallback<DashboardBundle> callback) {
+            this.callback = callback;
         }
-    }
-    
-    // ============= HELPER METHODS =============
-    private Map<String, String> getAuthHeaders() {
-        Map<String, String> headers = new HashMap<>();
-        headers.put("Content-Type", "application/json");
         
-        String token = authManager.getAccessToken();
-        if (token != null) {
-            headers.put("Authorization", "Bearer " + token);
+        synchronized void onStats(DashboardStats stats, String error) {
+            this.stats = stats;
+            complete(error);
         }
         
-        return headers;
-    }
-    
-    private String getErrorMessage(VolleyError error) {
-        if (error.networkResponse != null) {
-            try {
-                String responseBody = new String(error.networkResponse.data, "utf-8");
-                JSONObject jsonObject = new JSONObject(responseBody);
-                return jsonObject.optString("error", "Unknown error occurred");
-            } catch (Exception e) {
-                return "Network error: " + error.getMessage();
+        synchronized void onActivities(List<Activity> activities, String error) {
+            this.activities = activities;
+            complete(error);
+        }
+        
+        private void complete(String error) {
+            if (error != null && this.error == null) {
+                this.error = error;
+            }
+            if (--pending > 0) {
+                return;
+            }
+            if (stats == null && activities == null) {
+                callback.onError(this.error);
+            } else {
+                callback.onSuccess(new DashboardBundle(stats, activities));
             }
         }
-        return "Network error: " + error.getMessage();
-    }
-    
-    // ============= PARSING METHODS =============
-    private DashboardStats parseDashboardStats(JSONObject json) throws JSONException {
-        DashboardStats stats = new DashboardStats();
-        stats.setTotalResidents(json.optInt("totalResidents", 0));
-        stats.setActiveResidents(json.optInt("activeResidents", 0));
-        stats.setPendingPayments(json.optInt("pendingPayments", 0));
-        stats.setCompletedPayments(json.optInt("completedPayments", 0));
-        stats.setOpenWorkOrders(json.optInt("openWorkOrders", 0));
-        stats.setCompletedWorkOrders(json.optInt("completedWorkOrders", 0));
-        stats.setSecurityEvents(json.optInt("securityEvents", 0));
-        stats.setActiveVisitors(json.optInt("activeVisitors", 0));
-        return stats;
     }
     
-    private List<Activity> parseActivities(JSONArray jsonArray) throws JSONException {
-        List<Activity> activities = new ArrayList<>();
-        for (int i = 0; i < jsonArray.length(); i++) {
-            JSONObject json = jsonArray.getJSONObject(i);
-            Activity activity = new Activity();
-            activity.setId(json.optString("id"));
-            activity.setType(json.optString("type"));
-            activity.setDescription(json.optString("description"));
-            activity.setTimestamp(json.optString("timestamp"));
-            activity.setUserId(json.optString("userId"));
-            activity.setUserName(json.optString("userName"));
-            activities.add(activity);
-        }
-        return activities;
+    public RequestHandle getDashboardStats(ApiCallback<DashboardStats> callback) {
+        String url = BASE_URL + "/dashboard/stats";
+        return get("getDashboardStats", url, body -> ModelCodecs.DASHBOARD_STATS.fromJson(dataObject(body)), "Error parsing dashboard stats", callback);
     }
     
-    private List<Resident> parseResidents(JSONArray jsonArray) throws JSONException {
-        List<Resident> residents = new ArrayList<>();
-        for (int i = 0; i < jsonArray.length(); i++) {
-            residents.add(parseResident(jsonArray.getJSONObject(i)));
-        }
-        return residents;
+    public RequestHandle getRecentActivities(ApiCallback<List<Activity>> callback) {
+        String url = BASE_URL + "/dashboard/activities";
+        return get("getRecentActivities", url, body -> ModelCodecs.ACTIVITY.fromJson(new JSONArray(utf8(body))), "Error parsing activities", callback);
     }
     
-    private Resident parseResident(JSONObject json) throws JSONException {
-        Resident resident = new Resident();
-        resident.setId(json.optString("id"));
-        resident.setName(json.optString("name"));
-        resident.setEmail(json.optString("email"));
-        resident.setPhone(json.optString("phone"));
-        resident.setUnitNumber(json.optString("unitNumber"));
-        resident.setStatus(json.optString("status"));
-        resident.setCreatedAt(json.optString("createdAt"));
-        resident.setUpdatedAt(json.optString("updatedAt"));
-        
-        // Parse emergency contact if present
-        if (json.has("emergencyContact")) {
-            JSONObject emergencyJson = json.getJSONObject("emergencyContact");
-            EmergencyContact contact = new EmergencyContact();
-            contact.setName(emergencyJson.optString("name"));
-            contact.setPhone(emergencyJson.optString("phone"));
-            contact.setRelationship(emergencyJson.optString("relationship"));
-            resident.setEmergencyContact(contact);
-        }
-        
-        return resident;
+    // ============= RESIDENTS METHODS =============
+    public RequestHandle getResidents(ApiCallback<List<Resident>> callback) {
+        return getResidents(false, callback);
     }
     
-    private JSONObject residentToJson(Resident resident) throws JSONException {
-        JSONObject json = new JSONObject();
-        json.put("name", resident.getName());
-        json.put("email", resident.getEmail());
-        json.put("phone", resident.getPhone());
-        json.put("unitNumber", resident.getUnitNumber());
-        json.put("status", resident.getStatus());
-        
-        if (resident.getEmergencyContact() != null) {
-            JSONObject emergencyJson = new JSONObject();
-            emergencyJson.put("name", resident.getEmergencyContact().getName());
-            emergencyJson.put("phone", resident.getEmergencyContact().getPhone());
-            emergencyJson.put("relationship", resident.getEmergencyContact().getRelationship());
-            json.put("emergencyContact", emergencyJson);
-        }
-        
-        return json;
+    private RequestHandle getResidents(boolean prefetch, ApiCallback<List<Resident>> callback) {
+        String url = BASE_URL + "/residents";
+        return cachedGet("getResidents", url, this::parseResidentsResponse, "Error parsing residents", prefetch, callback);
     }
     
-    private List<Payment> parsePayments(JSONArray jsonArray) throws JSONException {
-        List<Payment> payments = new ArrayList<>();
-        for (int i = 0; i < jsonArray.length(); i++) {
-            payments.add(parsePayment(jsonArray.getJSONObject(i)));
+    public RequestHandle getResidentsPage(int pageSize, String continuationToken, ApiCallback<Page<Resident>> callback) {
+        Uri.Builder builder = Uri.parse(BASE_URL + "/residents").buildUpon()
+            .appendQueryParameter("limit", String.valueOf(pageSize));
+        if (continuationToken != null) {
+            builder.appendQueryParameter("nextToken", continuationToken);
         }
-        return payments;
-    }
-    
-    private Payment parsePayment(JSONObject json) throws JSONException {
-        Payment payment = new Payment();
-        payment.setId(json.optString("id"));
-        payment.setResidentId(json.optString("residentId"));
-        payment.setResidentName(json.optString("residentName"));
-        payment.setAmount(json.optDouble("amount"));
-        payment.setMethod(json.optString("method"));
-        payment.setDescription(json.optString("description"));
-        payment.setStatus(json.optString("status"));
-        payment.setDate(json.optString("date"));
-        payment.setTransactionId(json.optString("transactionId"));
-        return payment;
+        return get("getResidentsPage", builder.build().toString(), this::parseResidentsPageResponse, "Error parsing residents", callback);
     }
     
-    private JSONObject paymentToJson(Payment payment) throws JSONException {
-        JSONObject json = new JSONObject();
-        json.put("residentId", payment.getResidentId());
-        json.put("amount", payment.getAmount());
-        json.put("method", payment.getMethod());
-        json.put("description", payment.getDescription());
-        return json;
+    // Fetches only residents changed since this tenant's stored high-water mark
+    // and merges upserts and tombstones into the local store. Without a mark
+    // yet the same endpoint returns the whole directory. The store is read
+    // and rewritten on the write-behind pool and parsed on the parse pool;
+    // only the merged directory comes back to the main thread.
+    public RequestHandle syncResidents(ApiCallback<ResidentSyncResult> callback) {
+        return syncResidents(false, callback);
     }
     
-    private List<WorkOrder> parseWorkOrders(JSONArray jsonArray) throws JSONException {
-        List<WorkOrder> workOrders = new ArrayList<>();
-        for (int i = 0; i < jsonArray.length(); i++) {
-            workOrders.add(parseWorkOrder(jsonArray.getJSONObject(i)));
-        }
-        return workOrders;
+    // The delta half of syncResidents alone: delivers null instead of
+    // fetching the whole directory when this tenant has no local snapshot yet
+    public RequestHandle syncResidentChanges(ApiCallback<ResidentSyncResult> callback) {
+        return syncResidents(true, callback);
     }
     
-    private WorkOrder parseWorkOrder(JSONObject json) throws JSONException {
-        WorkOrder workOrder = new WorkOrder();
-        workOrder.setId(json.optString("id"));
-        workOrder.setTitle(json.optString("title"));
-        workOrder.setDescription(json.optString("description"));
-        workOrder.setStatus(json.optString("status"));
-        workOrder.setPriority(json.optString("priority"));
-        workOrder.setType(json.optString("type"));
-        workOrder.setLocation(json.optString("location"));
-        workOrder.setAssignedTo(json.optString("assignedTo"));
-        workOrder.setCreatedAt(json.optString("createdAt"));
-        workOrder.setScheduledDate(json.optString("scheduledDate"));
-        return workOrder;
+    private RequestHandle syncResidents(boolean changesOnly, ApiCallback<ResidentSyncResult> callback) {
+        RequestHandle handle = new RequestHandle();
+        ApiCallback<ResidentSyncResult> tracked = handle.track(callback);
+        ResidentStore store = getResidentStore();
+        AppExecutors.getInstance().writeBehind().execute(() -> {
+            String since = store.getWatermark();
+            mainHandler.post(() -> {
+                if (changesOnly && since.isEmpty()) {
+                    tracked.onSuccess(null);
+                    return;
+                }
+                if (!handle.isCancelled()) {
+                    fetchResidentChanges(handle, store, since, null, new ArrayList<>(), tracked);
+                }
+            });
+        });
+        return handle;
     }
     
-    private JSONObject workOrderToJson(WorkOrder workOrder) throws JSONException {
-        JSONObject json = new JSONObject();
-        json.put("title", workOrder.getTitle());
-        json.put("description", workOrder.getDescription());
-        json.put("priority", workOrder.getPriority());
-        json.put("type", workOrder.getType());
-        json.put("location", workOrder.getLocation());
-        if (workOrder.getAssignedTo() != null) {
-            json.put("assignedTo", workOrder.getAssignedTo());
+    private void fetchResidentChanges(RequestHandle handle, ResidentStore store, String since, String nextToken,
+                                      List<ResidentDelta> deltas, ApiCallback<ResidentSyncResult> callback) {
+        Uri.Builder builder = Uri.parse(BASE_URL + "/residents/changes").buildUpon();
+        if (!since.isEmpty()) {
+            builder.appendQueryParameter("since", since);
         }
-        if (workOrder.getScheduledDate() != null) {
-            json.put("scheduledDate", workOrder.getScheduledDate());
+        if (nextToken != null) {
+            builder.appendQueryParameter("nextToken", nextToken);
         }
-        return json;
+        
+        handle.add(get("syncResidents", builder.build().toString(), body -> parseResidentDelta(dataObject(body)),
+            "Error parsing resident changes", new ApiCallback<ResidentDelta>() {
+                @Override
+                public void onSuccess(ResidentDelta delta) {
+                    if (handle.isCancelled()) {
+                        return;
+                    }
+                    deltas.add(delta);
+                    if (delta.nextToken != null) {
+                        fetchResidentChanges(handle, store, since, delta.nextToken, deltas, callback);
+                        return;
+                    }
+                    
+                    // The mark only moves once every page has arrived
+                    applyResidentDeltas(store, since.isEmpty(), deltas, callback);
+                }
+                
+                @Override
+                public void onError(String error) {
+                    callback.onError(error);
+                }
+            }));
     }
     
-    private List<SecurityEvent> parseSecurityEvents(JSONArray jsonArray) throws JSONException {
-        List<SecurityEvent> events = new ArrayList<>();
-        for (int i = 0; i < jsonArray.length(); i++) {
-            JSONObject json = jsonArray.getJSONObject(i);
-            SecurityEvent event = new SecurityEvent();
-            event.setId(json.optString("id"));
-            event.setType(json.optString("type"));
-            event.setDescription(json.optString("description"));
-            event.setLocation(json.optString("location"));
-            event.setSeverity(json.optString("severity"));
-            event.setTimestamp(json.optString("timestamp"));
-            events.add(event);
-        }
-        return events;
-    }
-    
-    private List<Visitor> parseVisitors(JSONArray jsonArray) throws JSONException {
-        List<Visitor> visitors = new ArrayList<>();
-        for (int i = 0; i < jsonArray.length(); i++) {
-            JSONObject json = jsonArray.getJSONObject(i);
-            Visitor visitor = new Visitor();
-            visitor.setId(json.optString("id"));
-            visitor.setName(json.optString("name"));
-            visitor.setPhone(json.optString("phone"));
-            visitor.setVisitingUnit(json.optString("visitingUnit"));
-            visitor.setVisitDate(json.optString("visitDate"));
-            visitor.setVisitTime(json.optString("visitTime"));
-            visitor.setPurpose(json.optString("purpose"));
-            visitor.setStatus(json.optString("status"));
-            visitors.add(visitor);
-        }
-        return visitors;
-    }
-    
-    private List<Message> parseMessages(JSONArray jsonArray) throws JSONException {
-        List<Message> messages = new ArrayList<>();
-        for (int i = 0; i < jsonArray.length(); i++) {
-            messages.add(parseMessage(jsonArray.getJSONObject(i)));
-        }
-        return messages;
-    }
-    
-    private Message parseMessage(JSONObject json) throws JSONException {
-        Message message = new Message();
-        message.setId(json.optString("id"));
-        message.setSenderName(json.optString("senderName"));
-        message.setSubject(json.optString("subject"));
-        message.setContent(json.optString("content"));
-        message.setTimestamp(json.optString("timestamp"));
-        message.setRead(json.optBoolean("isRead", false));
-        message.setPriority(json.optString("priority"));
-        return message;
-    }
-    
-    private JSONObject messageToJson(Message message) throws JSONException {
-        JSONObject json = new JSONObject();
-        json.put("recipientType", message.getRecipientType());
-        if (message.getRecipientId() != null) {
-            json.put("recipientId", message.getRecipientId());
+    // Merges and persists on the write-behind pool, which also orders it with
+    // the write-through of accepted resident writes, then parses the
+    // directory on the parse pool when the merge dropped the parsed copy
+    private void applyResidentDeltas(ResidentStore store, boolean fullSync, List<ResidentDelta> deltas,
+                                     ApiCallback<ResidentSyncResult> callback) {
+        AppExecutors.getInstance().writeBehind().execute(() -> {
+            int changed;
+            try {
+                JSONArray upserts = new JSONArray();
+                List<String> deletedIds = new ArrayList<>();
+                String watermark = null;
+                for (ResidentDelta delta : deltas) {
+                    for (int i = 0; i < delta.upserts.length(); i++) {
+                        upserts.put(delta.upserts.getJSONObject(i));
+                    }
+                    deletedIds.addAll(delta.deletedIds);
+                    if (delta.watermark != null) {
+                        watermark = delta.watermark;
+                    }
+                }
+                changed = store.merge(upserts, deletedIds, watermark, fullSync);
+            } catch (JSONException e) {
+                mainHandler.post(() -> callback.onError("Error merging resident changes: " + e.getMessage()));
+                return;
+            }
+            
+            parseExecutor.execute(() -> {
+                List<Resident> residents = store.getModels();
+                if (residents == null) {
+                    int revision = store.getRevision();
+                    try {
+                        residents = parseResidents(store.getRecords());
+                    } catch (JSONException e) {
+                        mainHandler.post(() -> callback.onError("Error merging resident changes: " + e.getMessage()));
+                        return;
+                    }
+                    store.setModels(residents, revision);
+                }
+                ResidentSyncResult result = new ResidentSyncResult(
+                    Collections.unmodifiableList(new ArrayList<>(residents)), changed, fullSync);
+                mainHandler.post(() -> callback.onSuccess(result));
+            });
+        });
+    }
+    
+    private synchronized ResidentStore getResidentStore() {
+        String tenant = authManager.getTenantId();
+        if (tenant.isEmpty()) {
+            tenant = getCacheIdentity();
         }
-        json.put("subject", message.getSubject());
-        json.put("content", message.getContent());
-        json.put("priority", message.getPriority());
-        return json;
+        if (residentStore == null || !residentStore.getTenant().equals(tenant)) {
+            residentStore = new ResidentStore(new File(context.getFilesDir(), "resident-sync"), tenant);
+        }
+        return residentStore;
     }
-}
-
-// ============= AUTH MANAGER =============
-package com.condoconnectai.utils;
-
-import android.content.Context;
-import android.content.SharedPreferences;
-import com.amazonaws.mobileconnectors.cognitoidentityprovider.*;
-import com.amazonaws.mobileconnectors.cognitoidentityprovider.continuations.*;
-import com.amazonaws.mobileconnectors.cognitoidentityprovider.handlers.*;
-import com.amazonaws.regions.Regions;
-import com.condoconnectai.models.User;
-
-public class AuthManager {
-    private static AuthManager instance;
-    private Context context;
-    private CognitoUserPool userPool;
-    private CognitoUser currentUser;
-    private SharedPreferences sharedPreferences;
     
-    private static final String USER_POOL_ID = "us-east-1_XXXXXXXXX";
-    private static final String CLIENT_ID = "XXXXXXXXXXXXXXXXXXXXXXXXXX";
-    private static final String PREFS_NAME = "CondoconnectAI_Prefs";
-    private static final String KEY_ACCESS_TOKEN = "access_token";
-    private static final String KEY_REFRESH_TOKEN = "refresh_token";
-    private static final String KEY_USER_ID = "user_id";
-    private static final String KEY_USER_NAME = "user_name";
-    private static final String KEY_USER_EMAIL = "user_email";
+    public RequestHandle getResident(String residentId, ApiCallback<Resident> callback) {
+        String url = BASE_URL + "/residents/" + residentId;
+        return get("getResident", url, body -> ModelCodecs.RESIDENT.fromJson(dataObject(body)), "Error parsing resident", callback);
+    }
     
-    private AuthManager(Context context) {
-        this.context = context.getApplicationContext();
-        this.sharedPreferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    public RequestHandle createResident(Resident resident, ApiCallback<Resident> callback) {
+        try {
+            return batchedWrite(residentWrites, ModelCodecs.RESIDENT.encode(resident),
+                residentWrite(callback));
+        } catch (JSONException e) {
+            callback.onError("Error creating request: " + e.getMessage());
+            return new RequestHandle();
+        }
+    }
+    
+    public RequestHandle updateResident(String residentId, Resident resident, ApiCallback<Resident> callback) {
+        String url = BASE_URL + "/residents/" + residentId;
         
-        CognitoUserPoolsSignInHandler cognitoUserPoolsSignInHandler = new CognitoUserPoolsSignInHandler() {
-            @Override
-            public void onSuccess(CognitoUserSession userSession) {
-                // Handle successful sign in
-            }
-            
+        try {
+            return send("updateResident", "PUT", url, ModelCodecs.RESIDENT.encode(resident), body -> ModelCodecs.RESIDENT.fromJson(dataObject(body)), "Error parsing updated resident",
+                residentWrite(callback));
+        } catch (JSONException e) {
+            callback.onError("Error creating request: " + e.getMessage());
+            return new RequestHandle();
+        }
+    }
+    
+    public RequestHandle deleteResident(String residentId, ApiCallback<Void> callback) {
+        String url = BASE_URL + "/residents/" + residentId;
+        return send("deleteResident", "DELETE", url, null, body -> null, "Error deleting resident",
+            residentWrite(callback, residentId));
+    }
+    
+    // Writes an accepted create or update through to the synced resident
+    // store, so the directory shows it before the next delta sync brings
+    // the server's copy
+    private ApiCallback<Resident> residentWrite(ApiCallback<Resident> callback) {
+        ResidentStore store = getResidentStore();
+        return new ApiCallback<Resident>() {
             @Override
-            public void getAuthenticationDetails(AuthenticationContinuation authenticationContinuation, String userId) {
-                // Handle authentication details request
+            public void onSuccess(Resident result) {
+                callback.onSuccess(result);
+                if (result == null || result.getId() == null) {
+                    return;
+                }
+                AppExecutors.getInstance().writeBehind().execute(() -> {
+                    try {
+                        store.applyWrite(result.getId(), new JSONObject(utf8(ModelCodecs.RESIDENT.encode(result))));
+                    } catch (JSONException e) {
+                        // The next delta sync brings it
+                    }
+                });
             }
             
             @Override
-            public void getMFACode(MultiFactorAuthenticationContinuation continuation) {
-                // Handle MFA if enabled
+            public void onError(String error) {
+                callback.onError(error);
             }
-            
+        };
+    }
+    
+    private ApiCallback<Void> residentWrite(ApiCallback<Void> callback, String deletedId) {
+        ResidentStore store = getResidentStore();
+        return new ApiCallback<Void>() {
             @Override
-            public void authenticationChallenge(ChallengeContinuation continuation) {
-                // Handle authentication challenges
+            public void onSuccess(Void result) {
+                callback.onSuccess(result);
+                AppExecutors.getInstance().writeBehind().execute(() -> store.applyWrite(deletedId, null));
             }
             
             @Override
-            public void onFailure(Exception exception) {
-                // Handle sign in failure
+            public void onError(String error) {
+                callback.onError(error);
             }
         };
-        
-        userPool = new CognitoUserPool(context, USER_POOL_ID, CLIENT_ID, null, Regions.US_EAST_1);
     }
     
-    public static synchronized AuthManager getInstance(Context context) {
-        if (instance == null) {
-            instance = new AuthManager(context);
+    // ============= PAYMENTS METHODS =============
+    public RequestHandle getPayments(ApiCallback<List<Payment>> callback) {
+        return getPayments(false, callback);
+    }
+    
+    private RequestHandle getPayments(boolean prefetch, ApiCallback<List<Payment>> callback) {
+        String url = BASE_URL + "/payments";
+        return cachedGet("getPayments", url, this::parsePaymentsResponse, "Error parsing payments", prefetch, callback);
+    }
+    
+    public RequestHandle processPayment(Payment payment, ApiCallback<Payment> callback) {
+        String url = BASE_URL + "/payments";
+        
+        try {
+            return send("processPayment", "POST", url, ModelCodecs.PAYMENT.encode(payment), body -> ModelCodecs.PAYMENT.fromJson(dataObject(body)), "Error parsing processed payment", callback);
+        } catch (JSONException e) {
+            callback.onError("Error creating request: " + e.getMessage());
+            return new RequestHandle();
         }
-        return instance;
     }
     
-    public interface AuthCallback {
-        void onSuccess(User user);
-        void onError(String error);
+    // ============= WORK ORDERS METHODS =============
+    public RequestHandle getWorkOrders(ApiCallback<List<WorkOrder>> callback) {
+        return getWorkOrders(false, callback);
     }
     
-    public void signIn(String email, String password, AuthCallback callback) {
-        currentUser = userPool.getUser(email);
+    private RequestHandle getWorkOrders(boolean prefetch, ApiCallback<List<WorkOrder>> callback) {
+        String url = BASE_URL + "/maintenance/work-orders";
+        return cachedGet("getWorkOrders", url, this::parseWorkOrdersResponse, "Error parsing work orders", prefetch, callback);
+    }
+    
+    public RequestHandle createWorkOrder(WorkOrder workOrder, ApiCallback<WorkOrder> callback) {
+        try {
+            return batchedWrite(workOrderWrites, ModelCodecs.WORK_ORDER.encode(workOrder), callback);
+        } catch (JSONException e) {
+            callback.onError("Error creating request: " + e.getMessage());
+            return new RequestHandle();
+        }
+    }
+    
+    public RequestHandle updateWorkOrder(String workOrderId, WorkOrder workOrder, ApiCallback<WorkOrder> callback) {
+        String url = BASE_URL + "/maintenance/work-orders/" + workOrderId;
         
-        AuthenticationHandler authenticationHandler = new AuthenticationHandler() {
-            @Override
-            public void onSuccess(CognitoUserSession userSession, CognitoDevice newDevice) {
-                // Save tokens
-                saveTokens(userSession);
-                
-                // Get user attributes
-                currentUser.getDetailsInBackground(new GetDetailsHandler() {
-                    @Override
-                    public void onSuccess(CognitoUserDetails cognitoUserDetails) {
-                        User user = createUserFromDetails(cognitoUserDetails, userSession);
-                        saveUserInfo(user);
-                        callback.onSuccess(user);
-                    }
-                    
-                    @Override
-                    public void onFailure(Exception exception) {
-                        callback.onError("Failed to get user details: " + exception.getMessage());
-                    }
-                });
-            }
-            
-            @Override
-            public void getAuthenticationDetails(AuthenticationContinuation authenticationContinuation, String userId) {
-                AuthenticationDetails authenticationDetails = new AuthenticationDetails(userId, password, null);
-                authenticationContinuation.setAuthenticationDetails(authenticationDetails);
-                authenticationContinuation.continueTask();
-            }
-            
-            @Override
-            public void getMFACode(MultiFactorAuthenticationContinuation continuation) {
-                // Handle MFA if needed
-                callback.onError("MFA not supported in this version");
-            }
-            
+        try {
+            return send("updateWorkOrder", "PUT", url, ModelCodecs.WORK_ORDER.encode(workOrder), body -> ModelCodecs.WORK_ORDER.fromJson(dataObject(body)), "Error parsing updated work order", callback);
+        } catch (JSONException e) {
+            callback.onError("Error creating request: " + e.getMessage());
+            return new RequestHandle();
+        }
+    }
+    
+    // ============= SECURITY METHODS =============
+    public RequestHandle getSecurityEvents(ApiCallback<List<SecurityEvent>> callback) {
+        String url = BASE_URL + "/security/events";
+        return get("getSecurityEvents", url, body -> ModelCodecs.SECURITY_EVENT.fromJson(new JSONArray(utf8(body))), "Error parsing security events", callback);
+    }
+    
+    public RequestHandle getVisitors(ApiCallback<List<Visitor>> callback) {
+        return getVisitors(false, callback);
+    }
+    
+    private RequestHandle getVisitors(boolean prefetch, ApiCallback<List<Visitor>> callback) {
+        String url = BASE_URL + "/security/visitors";
+        return cachedGet("getVisitors", url, body -> ModelCodecs.VISITOR.fromJson(new JSONArray(utf8(body))), "Error parsing visitors", prefetch, callback);
+    }
+    
+    // ============= COMMUNICATION METHODS =============
+    public RequestHandle getMessages(ApiCallback<List<Message>> callback) {
+        return getMessages(false, callback);
+    }
+    
+    private RequestHandle getMessages(boolean prefetch, ApiCallback<List<Message>> callback) {
+        String url = BASE_URL + "/communication/messages";
+        return cachedGet("getMessages", url, body -> ModelCodecs.MESSAGE.fromJson(new JSONArray(utf8(body))), "Error parsing messages", prefetch, callback);
+    }
+    
+    public RequestHandle sendMessage(Message message, ApiCallback<Message> callback) {
+        try {
+            return batchedWrite(messageWrites, ModelCodecs.MESSAGE.encode(message), callback);
+        } catch (JSONException e) {
+            callback.onError("Error creating request: " + e.getMessage());
+            return new RequestHandle();
+        }
+    }
+    
+    // ============= PREFETCH =============
+    // Warms the response cache behind a cached list endpoint at background
+    // priority. Nothing is delivered; the next real call is served from memory.
+    public RequestHandle prefetch(String endpoint) {
+        switch (endpoint) {
+            case "getResidents": return getResidents(true, ignore());
+            case "getPayments": return getPayments(true, ignore());
+            case "getWorkOrders": return getWorkOrders(true, ignore());
+            case "getVisitors": return getVisitors(true, ignore());
+            case "getMessages": return getMessages(true, ignore());
+            default: throw new IllegalArgumentException("Not a cached endpoint: " + endpoint);
+        }
+    }
+    
+    private static <T> ApiCallback<T> ignore() {
+        return new ApiCallback<T>() {
             @Override
-            public void authenticationChallenge(ChallengeContinuation continuation) {
-                // Handle authentication challenges
-                callback.onError("Authentication challenge not supported");
+            public void onSuccess(T result) {
             }
             
             @Override
-            public void onFailure(Exception exception) {
-                callback.onError("Authentication failed: " + exception.getMessage());
+            public void onError(String error) {
             }
         };
-        
-        currentUser.getSessionInBackground(authenticationHandler);
     }
     
-    public void signUp(String email, String password, String name, String phone, AuthCallback callback) {
-        CognitoUserAttributes userAttributes = new CognitoUserAttributes();
-        userAttributes.addAttribute("email", email);
-        userAttributes.addAttribute("name", name);
-        userAttributes.addAttribute("phone_number", phone);
+    // ============= WRITE BATCHING =============
+    // Creates made within WRITE_BATCH_WINDOW_MS of each other, up to
+    // WRITE_BATCH_MAX_ITEMS, go out as one POST to <collection>/batch. Each
+    // item still hears back through its own callback; a lone item, or a
+    // backend without the batch route, uses the plain single-item POST.
+    private <T> RequestHandle batchedWrite(WriteBatcher<T> batcher, byte[] body, ApiCallback<T> callback) {
+        RequestHandle handle = new RequestHandle();
+        WriteBatcher.Item<T> item = new WriteBatcher.Item<>(body, handle, handle.track(callback));
+        // Only takes effect while the item is still waiting for its batch
+        handle.add(() -> batcher.remove(item));
+        batcher.add(item);
+        return handle;
+    }
+    
+    private <T> void flushWrites(String endpoint, String url, ModelCodec<T> codec, String parseError,
+                                 List<WriteBatcher.Item<T>> items) {
+        boolean supported;
+        synchronized (this) {
+            supported = !batchUnsupported.contains(endpoint);
+        }
+        if (items.size() == 1 || !supported) {
+            for (WriteBatcher.Item<T> item : items) {
+                writeSingle(endpoint, url, codec, parseError, item);
+            }
+            return;
+        }
         
-        SignUpHandler signUpHandler = new SignUpHandler() {
-            @Override
-            public void onSuccess(CognitoUser user, SignUpResult signUpResult) {
-                if (signUpResult.getUserConfirmed()) {
-                    // User is confirmed, can sign in
-                    signIn(email, password, callback);
-                } else {
-                    // User needs to confirm email
-                    callback.onError("Please check your email and confirm your account");
+        // Retries reuse the batch's idempotency key, so the batch shares the
+        // endpoint's create policy, priority and metrics
+        execute(endpoint, "POST", url + "/batch", batchBody(items), idempotencyHeaders(endpoint, "POST"),
+            new HttpTransport.Callback() {
+                @Override
+                public void onResponse(HttpTransport.HttpResult response) {
+                    parseInBackground(endpoint, body -> parseWriteResults(dataObject(body), codec, items.size()),
+                        response.getBody(), parseError, new ApiCallback<List<WriteResult<T>>>() {
+                            @Override
+                            public void onSuccess(List<WriteResult<T>> results) {
+                                for (int i = 0; i < items.size(); i++) {
+                                    WriteResult<T> result = results.get(i);
+                                    ApiCallback<T> callback = items.get(i).callback;
+                                    if (result == null) {
+                                        callback.onError("No result returned for batched item");
+                                    } else if (result.error != null) {
+                                        callback.onError(result.error);
+                                    } else {
+                                        callback.onSuccess(result.model);
+                                    }
+                                }
+                            }
+                            
+                            @Override
+                            public void onError(String error) {
+                                failAll(items, error);
+                            }
+                        });
+                }
+                
+                @Override
+                public void onFailure(HttpTransport.HttpFailure error) {
+                    if (!isEndpointUnsupported(error)) {
+                        failAll(items, getErrorMessage(error));
+                        return;
+                    }
+                    
+                    synchronized (ApiService.this) {
+                        batchUnsupported.add(endpoint);
+                    }
+                    for (WriteBatcher.Item<T> item : items) {
+                        writeSingle(endpoint, url, codec, parseError, item);
+                    }
                 }
+            });
+    }
+    
+    private <T> void writeSingle(String endpoint, String url, ModelCodec<T> codec, String parseError, WriteBatcher.Item<T> item) {
+        item.handle.add(send(endpoint, "POST", url, item.body, body -> codec.fromJson(dataObject(body)), parseError, item.callback));
+    }
+    
+    private static <T> void failAll(List<WriteBatcher.Item<T>> items, String error) {
+        for (WriteBatcher.Item<T> item : items) {
+            item.callback.onError(error);
+        }
+    }
+    
+    private static <T> byte[] batchBody(List<WriteBatcher.Item<T>> items) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] open = "{\"items\":[".getBytes(StandardCharsets.UTF_8);
+        out.write(open, 0, open.length);
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                out.write(',');
             }
-            
-            @Override
-            public void onFailure(Exception exception) {
-                callback.onError("Sign up failed: " + exception.getMessage());
+            byte[] body = items.get(i).body;
+            out.write(body, 0, body.length);
+        }
+        out.write(']');
+        out.write('}');
+        return out.toByteArray();
+    }
+    
+    // {"data":{"results":[{"index":0,"data":{...}},{"index":1,"status":409,"error":"..."}]}}
+    // Results may arrive in any order; items without one are reported as failed.
+    private static <T> List<WriteResult<T>> parseWriteResults(JSONObject data, ModelCodec<T> codec, int count) throws JSONException {
+        List<WriteResult<T>> results = new ArrayList<>(Collections.nCopies(count, (WriteResult<T>) null));
+        JSONArray array = data.getJSONArray("results");
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject entry = array.getJSONObject(i);
+            int index = entry.optInt("index", i);
+            if (index < 0 || index >= count) {
+                continue;
             }
-        };
-        
-        userPool.signUpInBackground(email, password, userAttributes, null, signUpHandler);
+            if (entry.has("error") || entry.optInt("status", 200) >= 400) {
+                results.set(index, new WriteResult<>(null, entry.optString("error", "Batched item failed")));
+            } else {
+                results.set(index, new WriteResult<>(codec.fromJson(entry.getJSONObject("data")), null));
+            }
+        }
+        return results;
     }
     
-    public void confirmSignUp(String email, String confirmationCode, AuthCallback callback) {
-        CognitoUser user = userPool.getUser(email);
+    // ============= REQUEST HELPERS =============
+    private <T> RequestHandle get(String endpoint, String url, ResponseParser<byte[], T> parser, String parseError,
+                                  ApiCallback<T> callback) {
+        RequestHandle handle = new RequestHandle();
+        ApiCallback<T> tracked = handle.track(callback);
+        String key = coalescer.key("GET", url, authManager.getAccessToken());
+        handle.add(() -> coalescer.leave(key, tracked));
+        if (!coalescer.join(key, tracked)) {
+            return handle;
+        }
         
-        GenericHandler confirmationHandler = new GenericHandler() {
+        coalescer.attach(key, execute(endpoint, "GET", url, null, null, new HttpTransport.Callback() {
             @Override
-            public void onSuccess() {
-                callback.onSuccess(null);
+            public void onResponse(HttpTransport.HttpResult response) {
+                parseInBackground(endpoint, parser, response.getBody(), parseError, coalescer.delivery(key));
             }
             
             @Override
-            public void onFailure(Exception exception) {
-                callback.onError("Confirmation failed: " + exception.getMessage());
+            public void onFailure(HttpTransport.HttpFailure error) {
+                coalescer.fail(key, getErrorMessage(error));
             }
-        };
-        
-        user.confirmSignUpInBackground(confirmationCode, false, confirmationHandler);
+        }));
+        return handle;
     }
     
-    public void forgotPassword(String email, AuthCallback callback) {
-        CognitoUser user = userPool.getUser(email);
-        
-        ForgotPasswordHandler forgotPasswordHandler = new ForgotPasswordHandler() {
+    private <T> RequestHandle send(String endpoint, String method, String url, byte[] body, ResponseParser<byte[], T> parser,
+                                   String parseError, ApiCallback<T> callback) {
+        RequestHandle handle = new RequestHandle();
+        ApiCallback<T> tracked = handle.track(callback);
+        handle.add(execute(endpoint, method, url, body, idempotencyHeaders(endpoint, method), new HttpTransport.Callback() {
             @Override
-            public void onSuccess() {
-                callback.onSuccess(null);
+            public void onResponse(HttpTransport.HttpResult response) {
+                if (!handle.isCancelled()) {
+                    parseInBackground(endpoint, parser, response.getBody(), parseError, tracked);
+                }
             }
             
             @Override
-            public void getResetCode(ForgotPasswordContinuation continuation) {
-                // Password reset code will be sent to user's email
-                callback.onSuccess(null);
+            public void onFailure(HttpTransport.HttpFailure error) {
+                tracked.onError(getErrorMessage(error));
+            }
+        }));
+        return handle;
+    }
+    
+    private RequestHandle execute(String endpoint, String method, String url, byte[] body, Map<String, String> extraHeaders,
+                                  HttpTransport.Callback callback) {
+        return execute(endpoint, getPriority(endpoint), method, url, body, extraHeaders, callback);
+    }
+    
+    // Once the returned handle is cancelled nothing reaches the callback, so
+    // a response that was already on its way is dropped before it is parsed
+    private RequestHandle execute(String endpoint, RequestScheduler.Priority priority, String method, String url, byte[] body,
+                                  Map<String, String> extraHeaders, HttpTransport.Callback callback) {
+        RequestHandle handle = new RequestHandle();
+        authManager.withSession(session -> {
+            if (handle.isCancelled()) {
+                return;
             }
             
-            @Override
-            public void onFailure(Exception exception) {
-                callback.onError("Password reset failed: " + exception.getMessage());
+            Map<String, String> headers = session.getHeaders();
+            boolean binary = binaryFormatEnabled && BINARY_ENDPOINTS.contains(endpoint);
+            if (extraHeaders != null || binary) {
+                headers = new HashMap<>(headers);
+                if (extraHeaders != null) {
+                    headers.putAll(extraHeaders);
+                }
+                if (binary) {
+                    headers.put("Accept", ACCEPT_BINARY);
+                }
             }
-        };
-        
-        user.forgotPasswordInBackground(forgotPasswordHandler);
+            
+            HttpTransport transport;
+            synchronized (this) {
+                transport = this.transport;
+            }
+            HttpTransport.HttpCall call = new HttpTransport.HttpCall(method, url, headers, body);
+            RetryingCall retryingCall = new RetryingCall(scheduler, priority, metrics.forEndpoint(endpoint),
+                transport, call, getRetryPolicy(endpoint, method), new HttpTransport.Callback() {
+                    @Override
+                    public void onResponse(HttpTransport.HttpResult response) {
+                        if (!handle.isCancelled()) {
+                            callback.onResponse(response);
+                        }
+                    }
+                    
+                    @Override
+                    public void onFailure(HttpTransport.HttpFailure error) {
+                        if (!handle.isCancelled()) {
+                            callback.onFailure(error);
+                        }
+                    }
+                });
+            handle.add(retryingCall::cancel);
+            retryingCall.start();
+        });
+        return handle;
     }
     
-    public void confirmForgotPassword(String email, String confirmationCode, String newPassword, AuthCallback callback) {
-        CognitoUser user = userPool.getUser(email);
+    // One key per logical operation, reused by every retry, so the server
+    // can collapse duplicates instead of charging or creating twice
+    private Map<String, String> idempotencyHeaders(String endpoint, String method) {
+        if (!getRetryPolicy(endpoint, method).usesIdempotencyKeys()) {
+            return null;
+        }
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Idempotency-Key", UUID.randomUUID().toString());
+        return headers;
+    }
+    
+    private synchronized RequestScheduler.Priority getPriority(String endpoint) {
+        RequestScheduler.Priority priority = endpointPriorities.get(endpoint);
+        return priority != null ? priority : RequestScheduler.Priority.VISIBLE;
+    }
+    
+    private synchronized RetryPolicy getRetryPolicy(String endpoint, String method) {
+        RetryPolicy policy = retryPolicies.get(endpoint);
+        if (policy != null) {
+            return policy;
+        }
+        return "GET".equals(method) ? DEFAULT_READ_POLICY : RetryPolicy.none();
+    }
+    
+    // Serves the last stored response first and revalidates it with
+    // If-None-Match/If-Modified-Since; callers only hear again if it changed.
+    // The cache lookup and body read run on the IO pool and a cold body is
+    // parsed on the parse pool, so the main thread only sees the finished
+    // model. A prefetch delivers nothing and runs at background priority.
+    private <T> RequestHandle cachedGet(String endpoint, String url, ResponseParser<byte[], T> parser, String parseError,
+                                        boolean prefetch, ApiCallback<T> callback) {
+        RequestHandle handle = new RequestHandle();
+        String cacheKey = "GET " + url + " " + getCacheIdentity();
+        diskExecutor.execute(() -> {
+            if (handle.isCancelled()) {
+                return;
+            }
+            ResponseCache.Entry cached = responseCache.get(cacheKey);
+            if (cached == null || cached.model != null) {
+                mainHandler.post(() -> revalidate(handle, endpoint, url, cacheKey, parser, parseError, prefetch, cached, callback));
+                return;
+            }
+            
+            // Only an in-memory model is worth revalidating for a prefetch;
+            // otherwise fetch the full body so the model is parsed ahead of
+            // the first visit
+            byte[] body = prefetch ? null : responseCache.readBody(cacheKey, cached);
+            if (body == null) {
+                mainHandler.post(() -> revalidate(handle, endpoint, url, cacheKey, parser, parseError, prefetch, null, callback));
+                return;
+            }
+            parseExecutor.execute(() -> {
+                ResponseCache.Entry validator = cached;
+                try {
+                    cached.model = immutable(parser.parse(body));
+                } catch (JSONException e) {
+                    diskExecutor.execute(() -> responseCache.remove(cacheKey));
+                    validator = null;
+                }
+                ResponseCache.Entry parsed = validator;
+                mainHandler.post(() -> revalidate(handle, endpoint, url, cacheKey, parser, parseError, prefetch, parsed, callback));
+            });
+        });
+        return handle;
+    }
+    
+    // Main thread: delivers the cached model, if any, then joins or starts
+    // the conditional request
+    @SuppressWarnings("unchecked")
+    private <T> void revalidate(RequestHandle handle, String endpoint, String url, String cacheKey,
+                                ResponseParser<byte[], T> parser, String parseError, boolean prefetch,
+                                ResponseCache.Entry cached, ApiCallback<T> callback) {
+        if (handle.isCancelled()) {
+            return;
+        }
+        String key = coalescer.key("GET", url, authManager.getAccessToken());
+        T served = null;
+        if (cached != null && !prefetch) {
+            served = (T) cached.model;
+            callback.onSuccess(served);
+        }
         
-        ForgotPasswordHandler confirmHandler = new ForgotPasswordHandler() {
+        final T cachedResult = served;
+        ApiCallback<T> revalidation = handle.track(new ApiCallback<T>() {
             @Override
-            public void onSuccess() {
-                callback.onSuccess(null);
+            public void onSuccess(T result) {
+                if (result != cachedResult) {
+                    callback.onSuccess(result);
+                }
             }
             
             @Override
-            public void getResetCode(ForgotPasswordContinuation continuation) {
-                continuation.setPassword(newPassword);
-                continuation.setVerificationCode(confirmationCode);
-                continuation.continueTask();
+            public void onError(String error) {
+                if (cachedResult == null) {
+                    callback.onError(error);
+                }
+            }
+        });
+        
+        handle.add(() -> coalescer.leave(key, revalidation));
+        if (!coalescer.join(key, revalidation)) {
+            return;
+        }
+        
+        final ResponseCache.Entry validator = cached;
+        Map<String, String> conditionalHeaders = new HashMap<>();
+        if (validator != null) {
+            if (validator.etag != null) {
+                conditionalHeaders.put("If-None-Match", validator.etag);
+            }
+            if (validator.lastModified != null) {
+                conditionalHeaders.put("If-Modified-Since", validator.lastModified);
+            }
+        }
+        
+        RequestScheduler.Priority priority = prefetch ? RequestScheduler.Priority.BACKGROUND : getPriority(endpoint);
+        coalescer.attach(key, execute(endpoint, priority, "GET", url, null, conditionalHeaders, new HttpTransport.Callback() {
+            @Override
+            public void onResponse(HttpTransport.HttpResult response) {
+                if (response.isNotModified()) {
+                    if (validator != null) {
+                        coalescer.succeed(key, validator.model);
+                    } else {
+                        coalescer.fail(key, parseError + ": empty response");
+                    }
+                    return;
+                }
+                
+                parseInBackground(endpoint, parser, response.getBody(), parseError, new ApiCallback<T>() {
+                    @Override
+                    public void onSuccess(T result) {
+                        coalescer.succeed(key, result);
+                        // The cache write is disk I/O, so it stays off the main thread as well
+                        diskExecutor.execute(() -> {
+                            ResponseCache.Entry stored = responseCache.put(cacheKey,
+                                response.getHeader("ETag"), response.getHeader("Last-Modified"), response.getBody());
+                            if (stored != null) {
+                                stored.model = result;
+                            }
+                        });
+                    }
+                    
+                    @Override
+                    public void onError(String error) {
+                        coalescer.fail(key, error);
+                    }
+                });
             }
             
             @Override
-            public void onFailure(Exception exception) {
-                callback.onError("Password confirmation failed: " + exception.getMessage());
+            public void onFailure(HttpTransport.HttpFailure error) {
+                coalescer.fail(key, getErrorMessage(error));
             }
-        };
+        }));
+    }
+    
+    // Runs on the parse pool; only the finished, immutable model is posted
+    // back, so callbacks still run on the main thread. A parser that throws
+    // anything still ends in onError, which is what releases a coalesced key.
+    <T> void parseInBackground(String endpoint, ResponseParser<byte[], T> parser, byte[] body, String parseError,
+                               ApiCallback<T> callback) {
+        parseExecutor.execute(() -> {
+            T result;
+            try {
+                result = parse(endpoint, parser, body);
+            } catch (JSONException | RuntimeException e) {
+                mainHandler.post(() -> callback.onError(parseError + ": " + e.getMessage()));
+                return;
+            }
+            mainHandler.post(() -> callback.onSuccess(result));
+        });
+    }
+    
+    private <T> T parse(String endpoint, ResponseParser<byte[], T> parser, byte[] body) throws JSONException {
+        ApiMetrics.EndpointMetrics endpointMetrics = metrics.forEndpoint(endpoint);
+        long start = System.nanoTime();
+        try {
+            return immutable(parser.parse(body));
+        } catch (JSONException | RuntimeException e) {
+            endpointMetrics.recordError(ApiMetrics.ErrorClass.PARSE);
+            throw e;
+        } finally {
+            endpointMetrics.recordParse(System.nanoTime() - start);
+        }
+    }
+    
+    // Results are shared between coalesced callers and the response cache
+    @SuppressWarnings("unchecked")
+    private static <T> T immutable(T result) {
+        if (result instanceof List) {
+            return (T) Collections.unmodifiableList((List<?>) result);
+        }
+        return result;
+    }
+    
+    // ============= HELPER METHODS =============
+    private static String utf8(byte[] body) {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+    
+    private static JSONObject dataObject(byte[] body) throws JSONException {
+        return new JSONObject(utf8(body)).getJSONObject("data");
+    }
+    
+    private String getCacheIdentity() {
+        User user = authManager.getCurrentUser();
+        return user != null ? user.getId() : "";
+    }
+    
+    private boolean isEndpointUnsupported(HttpTransport.HttpFailure error) {
+        int status = error.getStatusCode();
+        return status == 404 || status == 405 || status == 501;
+    }
+    
+    private String getErrorMessage(HttpTransport.HttpFailure error) {
+        if (error.getBody() != null) {
+            try {
+                String responseBody = utf8(error.getBody());
+                JSONObject jsonObject = new JSONObject(responseBody);
+                return jsonObject.optString("error", "Unknown error occurred");
+            } catch (Exception e) {
+                return "Network error: " + error.getMessage();
+            }
+        }
+        return "Network error: " + error.getMessage();
+    }
+    
+    // ============= PARSING METHODS =============
+    // Field mapping lives in ModelCodecs; the list parsers are package-private
+    // so ParserBenchmark can drive the tree paths directly.
+    private DashboardBundle parseDashboardBundle(JSONObject json) throws JSONException {
+        DashboardStats stats = null;
+        List<Activity> activities = null;
         
-        user.forgotPasswordInBackground(confirmHandler);
+        JSONObject statsJson = json.optJSONObject("stats");
+        if (statsJson != null) {
+            stats = ModelCodecs.DASHBOARD_STATS.fromJson(statsJson);
+        }
+        JSONArray activitiesJson = json.optJSONArray("activities");
+        if (activitiesJson != null) {
+            activities = ModelCodecs.ACTIVITY.fromJson(activitiesJson);
+        }
+        
+        return new DashboardBundle(stats, activities);
     }
     
-    public void signOut() {
-        if (currentUser != null) {
-            currentUser.signOut();
+    // Streaming parsers fill models straight from the response bytes; the
+    // tree parsers below remain the fallback for anything they reject. CBOR
+    // bodies are recognised by their first byte, including cached ones, and
+    // always take the streaming path since the tree parsers cannot read them.
+    private List<Resident> parseResidentsResponse(byte[] body) throws JSONException {
+        if (streamingParsersEnabled || CborReader.isCbor(body)) {
+            try {
+                return StreamingJsonParser.readResidentPage(body).getItems();
+            } catch (IOException | IllegalStateException e) {
+                rejectBinary(body, e);
+                // Fall through to the tree parser
+            }
         }
-        clearStoredData();
+        return parseResidents(new JSONObject(utf8(body)).getJSONObject("data").getJSONArray("items"));
     }
     
-    public boolean isUserLoggedIn() {
-        String accessToken = sharedPreferences.getString(KEY_ACCESS_TOKEN, null);
-        return accessToken != null && !accessToken.isEmpty();
+    Page<Resident> parseResidentsPageResponse(byte[] body) throws JSONException {
+        if (streamingParsersEnabled || CborReader.isCbor(body)) {
+            try {
+                return StreamingJsonParser.readResidentPage(body);
+            } catch (IOException | IllegalStateException e) {
+                rejectBinary(body, e);
+                // Fall through to the tree parser
+            }
+        }
+        JSONObject data = new JSONObject(utf8(body)).getJSONObject("data");
+        String nextToken = data.isNull("nextToken") ? null : data.optString("nextToken");
+        return new Page<>(parseResidents(data.getJSONArray("items")), nextToken);
     }
     
-    public User getCurrentUser() {
-        if (isUserLoggedIn()) {
-            User user = new User();
-            user.setId(sharedPreferences.getString(KEY_USER_ID, ""));
-            user.setName(sharedPreferences.getString(KEY_USER_NAME, ""));
-            user.setEmail(sharedPreferences.getString(KEY_USER_EMAIL, ""));
-            return user;
+    private List<Payment> parsePaymentsResponse(byte[] body) throws JSONException {
+        if (streamingParsersEnabled || CborReader.isCbor(body)) {
+            try {
+                return StreamingJsonParser.readPayments(body);
+            } catch (IOException | IllegalStateException e) {
+                rejectBinary(body, e);
+                // Fall through to the tree parser
+            }
         }
-        return null;
+        return parsePayments(new JSONArray(utf8(body)));
     }
     
-    public String getAccessToken() {
-        return sharedPreferences.getString(KEY_ACCESS_TOKEN, null);
+    private List<WorkOrder> parseWorkOrdersResponse(byte[] body) throws JSONException {
+        if (streamingParsersEnabled || CborReader.isCbor(body)) {
+            try {
+                return StreamingJsonParser.readWorkOrders(body);
+            } catch (IOException | IllegalStateException e) {
+                rejectBinary(body, e);
+                // Fall through to the tree parser
+            }
+        }
+        return parseWorkOrders(new JSONArray(utf8(body)));
     }
     
-    private void saveTokens(CognitoUserSession userSession) {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_ACCESS_TOKEN, userSession.getAccessToken().getJWTToken());
-        editor.putString(KEY_REFRESH_TOKEN, userSession.getRefreshToken().getToken());
-        editor.apply();
+    private void rejectBinary(byte[] body, Exception e) throws JSONException {
+        if (CborReader.isCbor(body)) {
+            // Ask for JSON from now on rather than fail the same way again
+            binaryFormatEnabled = false;
+            throw new JSONException("Unreadable binary response: " + e.getMessage());
+        }
     }
     
-    private void saveUserInfo(User user) {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_USER_ID, user.getId());
-        editor.putString(KEY_USER_NAME, user.getName());
-        editor.putString(KEY_USER_EMAIL, user.getEmail());
-        editor.apply();
+    // Tombstones arrive either in "deleted" or as items flagged deleted
+    private ResidentDelta parseResidentDelta(JSONObject data) throws JSONException {
+        JSONArray upserts = new JSONArray();
+        List<String> deletedIds = new ArrayList<>();
+        
+        JSONArray items = data.optJSONArray("items");
+        if (items != null) {
+            for (int i = 0; i < items.length(); i++) {
+                JSONObject item = items.getJSONObject(i);
+                if (item.optBoolean("deleted") || !item.optString("deletedAt").isEmpty()) {
+                    deletedIds.add(item.optString("id"));
+                } else {
+                    upserts.put(item);
+                }
+            }
+        }
+        
+        JSONArray deleted = data.optJSONArray("deleted");
+        if (deleted != null) {
+            for (int i = 0; i < deleted.length(); i++) {
+                deletedIds.add(deleted.getString(i));
+            }
+        }
+        
+        String watermark = data.isNull("watermark") ? null : data.optString("watermark", null);
+        String nextToken = data.isNull("nextToken") ? null : data.optString("nextToken", null);
+        return new ResidentDelta(upserts, deletedIds, watermark, nextToken);
     }
     
-    private User createUserFromDetails(CognitoUserDetails details, CognitoUserSession session) {
-        User user = new User();
-        user.setId(session.getAccessToken().getUsername());
-        user.setName(details.getAttributes().getAttributes().get("name"));
-        user.setEmail(details.getAttributes().getAttributes().get("email"));
-        user.setPhone(details.getAttributes().getAttributes().get("phone_number"));
-        return user;
+    List<Resident> parseResidents(JSONArray jsonArray) throws JSONException {
+        return ModelCodecs.RESIDENT.fromJson(jsonArray);
     }
     
-    private void clearStoredData() {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.clear();
-        editor.apply();
+    List<Payment> parsePayments(JSONArray jsonArray) throws JSONException {
+        return ModelCodecs.PAYMENT.fromJson(jsonArray);
+    }
+    
+    List<WorkOrder> parseWorkOrders(JSONArray jsonArray) throws JSONException {
+        return ModelCodecs.WORK_ORDER.fromJson(jsonArray);
+    }
+    
+    List<Message> parseMessages(JSONArray jsonArray) throws JSONException {
+        return ModelCodecs.MESSAGE.fromJson(jsonArray);
+    }
+}
+
+// ============= PARSER BENCHMARK =============
+package com.condoconnectai.services;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.Debug;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import com.condoconnectai.models.*;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// On-device microbenchmark for the ApiService parse and serialize paths on
+// synthetic payloads. Blocks for several seconds: run it off the main thread
+// with the app otherwise idle, since allocation is read from the runtime-wide
+// counter.
+public class ParserBenchmark {
+    private static final int[] DEFAULT_SIZES = {10, 100, 1000, 10000, 50000};
+    private static final long MIN_MEASURE_NANOS = 1_000_000_000L;
+    private static final int MIN_ITERATIONS = 3;
+    private static final int FRAME_CHECK_RESIDENTS = 10000;
+    private static final long FRAME_NANOS = 16_666_667L;
+    
+    private interface Operation {
+        void run() throws JSONException, IOException;
+    }
+    
+    public static class Result {
+        private final String name;
+        private final int records;
+        private final double recordsPerSecond;
+        private final long bytesPerRecord;
+        
+        Result(String name, int records, double recordsPerSecond, long bytesPerRecord) {
+            this.name = name;
+            this.records = records;
+            this.recordsPerSecond = recordsPerSecond;
+            this.bytesPerRecord = bytesPerRecord;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public int getRecords() {
+            return records;
+        }
+        
+        public double getRecordsPerSecond() {
+            return recordsPerSecond;
+        }
+        
+        // -1 when the runtime does not expose allocation counters (API < 23)
+        public long getBytesPerRecord() {
+            return bytesPerRecord;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-20s %6d records %12.0f rec/s %8d B/rec", name, records, recordsPerSecond, bytesPerRecord);
+        }
+    }
+    
+    public static class FrameResult {
+        private final int frames;
+        private final int droppedFrames;
+        private final long longestFrameMs;
+        
+        FrameResult(int frames, int droppedFrames, long longestFrameMs) {
+            this.frames = frames;
+            this.droppedFrames = droppedFrames;
+            this.longestFrameMs = longestFrameMs;
+        }
+        
+        public int getFrames() {
+            return frames;
+        }
+        
+        public int getDroppedFrames() {
+            return droppedFrames;
+        }
+        
+        public long getLongestFrameMs() {
+            return longestFrameMs;
+        }
+        
+        // A single late frame is scheduling noise; two in a row is the parse
+        public boolean isSmooth() {
+            return longestFrameMs < 3 * FRAME_NANOS / 1_000_000;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%d frames, %d dropped, longest %d ms", frames, droppedFrames, longestFrameMs);
+        }
+    }
+    
+    private final ApiService apiService;
+    
+    public ParserBenchmark(Context context) {
+        this.apiService = ApiService.getInstance(context);
+    }
+    
+    public List<Result> run() throws JSONException, IOException {
+        return run(DEFAULT_SIZES);
+    }
+    
+    public List<Result> run(int[] sizes) throws JSONException, IOException {
+        List<Result> results = new ArrayList<>();
+        for (int size : sizes) {
+            String residents = syntheticArray(size, ParserBenchmark::residentJson);
+            String payments = syntheticArray(size, ParserBenchmark::paymentJson);
+            String workOrders = syntheticArray(size, ParserBenchmark::workOrderJson);
+            String messages = syntheticArray(size, ParserBenchmark::messageJson);
+            byte[] residentPage = ("{\"data\":{\"items\":" + residents + "}}").getBytes(StandardCharsets.UTF_8);
+            
+            List<Resident> residentModels = apiService.parseResidents(new JSONArray(residents));
+            List<Payment> paymentModels = apiService.parsePayments(new JSONArray(payments));
+            List<WorkOrder> workOrderModels = apiService.parseWorkOrders(new JSONArray(workOrders));
+            List<Message> messageModels = apiService.parseMessages(new JSONArray(messages));
+            
+            results.add(measure("parseResidents", size, () -> apiService.parseResidents(new JSONArray(residents))));
+            results.add(measure("readResidentPage", size, () -> StreamingJsonParser.readResidentPage(residentPage)));
+            results.add(measure("parsePayments", size, () -> apiService.parsePayments(new JSONArray(payments))));
+            results.add(measure("parseWorkOrders", size, () -> apiService.parseWorkOrders(new JSONArray(workOrders))));
+            results.add(measure("parseMessages", size, () -> apiService.parseMessages(new JSONArray(messages))));
+            
+            results.add(measure("RESIDENT.encode", size, () -> {
+                for (Resident resident : residentModels) {
+                    ModelCodecs.RESIDENT.encode(resident);
+                }
+            }));
+            results.add(measure("PAYMENT.encode", size, () -> {
+                for (Payment payment : paymentModels) {
+                    ModelCodecs.PAYMENT.encode(payment);
+                }
+            }));
+            results.add(measure("WORK_ORDER.encode", size, () -> {
+                for (WorkOrder workOrder : workOrderModels) {
+                    ModelCodecs.WORK_ORDER.encode(workOrder);
+                }
+            }));
+            results.add(measure("MESSAGE.encode", size, () -> {
+                for (Message message : messageModels) {
+                    ModelCodecs.MESSAGE.encode(message);
+                }
+            }));
+        }
+        return results;
+    }
+    
+    // Frame-drop regression check: hands a 10k-resident page to ApiService's
+    // parse pool while counting main-thread frames. If parsing ever moves back
+    // onto the main thread the longest frame jumps to the full parse time and
+    // the check throws AssertionError; the result is returned for logging.
+    public FrameResult checkFrameDrops() throws JSONException, InterruptedException {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            throw new IllegalStateException("checkFrameDrops() must not run on the main thread");
+        }
+        String residents = syntheticArray(FRAME_CHECK_RESIDENTS, ParserBenchmark::residentJson);
+        byte[] page = ("{\"data\":{\"items\":" + residents + "}}").getBytes(StandardCharsets.UTF_8);
+        
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        FrameCounter counter = new FrameCounter();
+        mainHandler.post(counter::start);
+        // The parse starts only once frames are being timed, so the whole
+        // parse falls inside the counted window
+        if (!counter.firstFrame.await(5, TimeUnit.SECONDS)) {
+            throw new AssertionError("No frames from the main thread");
+        }
+        
+        CountDownLatch parsed = new CountDownLatch(1);
+        AtomicReference<String> parseError = new AtomicReference<>();
+        apiService.parseInBackground("getResidentsPage", apiService::parseResidentsPageResponse, page, "Error parsing residents",
+            new ApiService.ApiCallback<ApiService.Page<Resident>>() {
+                @Override
+                public void onSuccess(ApiService.Page<Resident> result) {
+                    parsed.countDown();
+                }
+                
+                @Override
+                public void onError(String error) {
+                    parseError.set(error);
+                    parsed.countDown();
+                }
+            });
+        boolean finished = parsed.await(30, TimeUnit.SECONDS);
+        
+        CountDownLatch stopped = new CountDownLatch(1);
+        mainHandler.post(() -> {
+            counter.stop();
+            stopped.countDown();
+        });
+        stopped.await(5, TimeUnit.SECONDS);
+        FrameResult result = counter.result();
+        if (!finished) {
+            throw new AssertionError("Parse did not finish within 30 s");
+        }
+        if (parseError.get() != null) {
+            throw new AssertionError("Parse failed: " + parseError.get());
+        }
+        if (!result.isSmooth()) {
+            throw new AssertionError("Frames dropped while parsing: " + result);
+        }
+        return result;
+    }
+    
+    // Main-thread only, apart from waiting on firstFrame
+    private static class FrameCounter implements Choreographer.FrameCallback {
+        final CountDownLatch firstFrame = new CountDownLatch(1);
+        private long lastFrameNanos;
+        private long longestNanos;
+        private int frames;
+        private int dropped;
+        private boolean running;
+        
+        void start() {
+            running = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+        
+        void stop() {
+            running = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+        
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (lastFrameNanos != 0) {
+                long gap = frameTimeNanos - lastFrameNanos;
+                frames++;
+                dropped += Math.max(0, Math.round((double) gap / FRAME_NANOS) - 1);
+                longestNanos = Math.max(longestNanos, gap);
+            } else {
+                firstFrame.countDown();
+            }
+            lastFrameNanos = frameTimeNanos;
+            if (running) {
+                Choreographer.getInstance().postFrameCallback(this);
+            }
+        }
+        
+        FrameResult result() {
+            return new FrameResult(frames, dropped, longestNanos / 1_000_000);
+        }
+    }
+    
+    private Result measure(String name, int records, Operation operation) throws JSONException, IOException {
+        // Warm-up lets the JIT settle before timing
+        operation.run();
+        operation.run();
+        
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long elapsed;
+        int iterations = 0;
+        do {
+            operation.run();
+            iterations++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MIN_MEASURE_NANOS || iterations < MIN_ITERATIONS);
+        long allocatedAfter = allocatedBytes();
+        
+        long totalRecords = (long) records * iterations;
+        double recordsPerSecond = totalRecords * 1_000_000_000.0 / elapsed;
+        long bytesPerRecord = allocatedBefore < 0 ? -1 : (allocatedAfter - allocatedBefore) / totalRecords;
+        return new Result(name, records, recordsPerSecond, bytesPerRecord);
+    }
+    
+    private static long allocatedBytes() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return -1;
+        }
+        String value = Debug.getRuntimeStat("art.gc.bytes-allocated");
+        return value != null ? Long.parseLong(value) : -1;
+    }
+    
+    private interface RecordFactory {
+        JSONObject create(int index) throws JSONException;
+    }
+    
+    private static String syntheticArray(int size, RecordFactory factory) throws JSONException {
+        JSONArray array = new JSONArray();
+        for (int i = 0; i < size; i++) {
+            array.put(factory.create(i));
+        }
+        return array.toString();
+    }
+    
+    private static JSONObject residentJson(int i) throws JSONException {
+        JSONObject contact = new JSONObject();
+        contact.put("name", "Contacto " + i);
+        contact.put("phone", "+52 55 1000 " + String.format(Locale.US, "%04d", i % 10000));
+        contact.put("relationship", i % 2 == 0 ? "Esposo(a)" : "Hijo(a)");
+        
+        JSONObject json = new JSONObject();
+        json.put("id", "res_" + i);
+        json.put("name", "Residente " + i);
+        json.put("email", "residente" + i + "@example.com");
+        json.put("phone", "+52 55 2000 " + String.format(Locale.US, "%04d", i % 10000));
+        json.put("unitNumber", "T" + (i % 8) + "-" + (100 + i % 900));
+        json.put("status", i % 10 == 0 ? "inactive" : "active");
+        json.put("createdAt", "2024-01-15T10:30:00Z");
+        json.put("updatedAt", "2024-11-02T08:15:00Z");
+        json.put("emergencyContact", contact);
+        return json;
+    }
+    
+    private static JSONObject paymentJson(int i) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("id", "pay_" + i);
+        json.put("residentId", "res_" + i);
+        json.put("residentName", "Residente " + i);
+        json.put("amount", 1500.0 + (i % 50) * 12.5);
+        json.put("method", i % 3 == 0 ? "card" : "transfer");
+        json.put("description", "Cuota de mantenimiento");
+        json.put("status", i % 4 == 0 ? "pending" : "completed");
+        json.put("date", "2024-11-01");
+        json.put("transactionId", "txn_" + (1000000 + i));
+        return json;
+    }
+    
+    private static JSONObject workOrderJson(int i) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("id", "wo_" + i);
+        json.put("title", "Reparación " + i);
+        json.put("description", "Fuga de agua reportada en el área común");
+        json.put("status", i % 3 == 0 ? "open" : "completed");
+        json.put("priority", i % 5 == 0 ? "high" : "medium");
+        json.put("type", "plumbing");
+        json.put("location", "Torre " + (i % 8));
+        json.put("assignedTo", "tech_" + (i % 20));
+        json.put("createdAt", "2024-11-01T09:00:00Z");
+        json.put("scheduledDate", "2024-11-05");
+        return json;
+    }
+    
+    private static JSONObject messageJson(int i) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("id", "msg_" + i);
+        json.put("senderName", "Administración");
+        json.put("recipientType", "all");
+        json.put("subject", "Aviso " + i);
+        json.put("content", "Se realizará mantenimiento al elevador el próximo lunes de 9 a 13 horas.");
+        json.put("timestamp", "2024-11-01T12:00:00Z");
+        json.put("isRead", i % 2 == 0);
+        json.put("priority", "normal");
+        return json;
+    }
+}
+
+// ============= PARSER EQUIVALENCE CHECK =============
+package com.condoconnectai.services;
+
+import android.content.Context;
+import android.text.TextUtils;
+import com.condoconnectai.models.*;
+import com.condoconnectai.utils.CborReader;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+// On-device check that StreamingJsonParser decodes the same models as the
+// tree parsers. Each fixture record goes through both paths, as JSON and
+// again re-encoded as CBOR, and the models are compared field by field.
+// Records the streaming path must reject (nested values in string fields,
+// a non-object where an object belongs) only have to be rejected, since the
+// response parsers then fall back to the tree. Throws AssertionError listing
+// every mismatch; returns the number of cases checked.
+public class ParserEquivalenceCheck {
+    
+    private static final class Fixture {
+        final String name;
+        final String record;
+        final boolean streamable;
+        
+        Fixture(String name, String record, boolean streamable) {
+            this.name = name;
+            this.record = record;
+            this.streamable = streamable;
+        }
+    }
+    
+    private static final Fixture[] RESIDENTS = {
+        new Fixture("complete", "{\"id\":\"res_1\",\"name\":\"Ana\",\"email\":\"ana@example.com\",\"phone\":\"+52 55 2000 0001\","
+            + "\"unitNumber\":\"T1-101\",\"status\":\"active\",\"createdAt\":\"2024-01-15T10:30:00Z\",\"updatedAt\":\"2024-11-02T08:15:00Z\","
+            + "\"emergencyContact\":{\"name\":\"Luis\",\"phone\":\"+52 55 1000 0001\",\"relationship\":\"Hijo(a)\"}}", true),
+        new Fixture("missing fields", "{\"id\":\"res_2\"}", true),
+        new Fixture("null values", "{\"id\":\"res_3\",\"name\":null,\"email\":null,\"phone\":null,\"unitNumber\":null,\"status\":null}", true),
+        new Fixture("wrong types", "{\"id\":7,\"name\":123,\"phone\":5.5,\"unitNumber\":true,\"createdAt\":1700000000000}", true),
+        new Fixture("partial contact", "{\"id\":\"res_5\",\"emergencyContact\":{\"name\":\"Luis\",\"phone\":null}}", true),
+        new Fixture("unknown fields", "{\"id\":\"res_6\",\"extra\":[1,2.5,{\"a\":null}],\"status\":\"inactive\"}", true),
+        new Fixture("object in string field", "{\"id\":\"res_7\",\"name\":{\"first\":\"Ana\"}}", false),
+        new Fixture("contact not an object", "{\"id\":\"res_8\",\"emergencyContact\":\"none\"}", false)
+    };
+    
+    private static final Fixture[] PAYMENTS = {
+        new Fixture("complete", "{\"id\":\"pay_1\",\"residentId\":\"res_1\",\"residentName\":\"Ana\",\"amount\":1512.5,\"method\":\"card\","
+            + "\"description\":\"Cuota de mantenimiento\",\"status\":\"pending\",\"date\":\"2024-11-01\",\"transactionId\":\"txn_1000001\"}", true),
+        new Fixture("missing fields", "{\"id\":\"pay_2\"}", true),
+        new Fixture("null values", "{\"id\":\"pay_3\",\"amount\":null,\"status\":null,\"method\":null}", true),
+        new Fixture("integer amount", "{\"id\":\"pay_4\",\"amount\":1500}", true),
+        new Fixture("amount as text", "{\"id\":\"pay_5\",\"amount\":\"1250.50\"}", true),
+        new Fixture("amount not numeric", "{\"id\":\"pay_6\",\"amount\":\"n/a\"}", true),
+        new Fixture("wrong types", "{\"id\":\"pay_7\",\"amount\":true,\"residentId\":42,\"date\":20241101}", true),
+        new Fixture("amount as object", "{\"id\":\"pay_8\",\"amount\":{\"value\":1}}", true),
+        new Fixture("array in string field", "{\"id\":\"pay_9\",\"method\":[\"card\"]}", false)
+    };
+    
+    private static final Fixture[] WORK_ORDERS = {
+        new Fixture("complete", "{\"id\":\"wo_1\",\"title\":\"Reparación\",\"description\":\"Fuga de agua\",\"status\":\"open\","
+            + "\"priority\":\"high\",\"type\":\"plumbing\",\"location\":\"Torre 1\",\"assignedTo\":\"tech_1\","
+            + "\"createdAt\":\"2024-11-01T09:00:00Z\",\"scheduledDate\":\"2024-11-05\"}", true),
+        new Fixture("missing fields", "{\"id\":\"wo_2\"}", true),
+        new Fixture("null values", "{\"id\":\"wo_3\",\"title\":null,\"status\":null,\"assignedTo\":null}", true),
+        new Fixture("wrong types", "{\"id\":\"wo_4\",\"title\":false,\"priority\":3,\"scheduledDate\":20241105,\"location\":-1.25}", true),
+        new Fixture("array in string field", "{\"id\":\"wo_5\",\"assignedTo\":[\"tech_1\"]}", false)
+    };
+    
+    private static final String[] NEXT_TOKENS = {"\"t1\"", "null", "12", null};
+    
+    private interface TreeParser<T> {
+        List<T> parse(JSONArray array) throws JSONException;
+    }
+    
+    private interface StreamParser<T> {
+        List<T> read(byte[] body) throws IOException;
+    }
+    
+    private interface Describer<T> {
+        String describe(T model);
+    }
+    
+    private interface Envelope {
+        String wrap(String items);
+    }
+    
+    private final ApiService apiService;
+    private final List<String> mismatches = new ArrayList<>();
+    private int cases;
+    
+    public ParserEquivalenceCheck(Context context) {
+        this.apiService = ApiService.getInstance(context);
+    }
+    
+    public synchronized int run() throws JSONException {
+        mismatches.clear();
+        cases = 0;
+        check("residents", RESIDENTS, items -> "{\"data\":{\"items\":" + items + "}}",
+            apiService::parseResidents, body -> StreamingJsonParser.readResidentPage(body).getItems(),
+            ParserEquivalenceCheck::describe);
+        check("payments", PAYMENTS, items -> items,
+            apiService::parsePayments, StreamingJsonParser::readPayments, ParserEquivalenceCheck::describe);
+        check("work orders", WORK_ORDERS, items -> items,
+            apiService::parseWorkOrders, StreamingJsonParser::readWorkOrders, ParserEquivalenceCheck::describe);
+        checkNextTokens();
+        
+        if (!mismatches.isEmpty()) {
+            throw new AssertionError("Streaming and tree parsers disagree:\n" + TextUtils.join("\n", mismatches));
+        }
+        return cases;
+    }
+    
+    private <T> void check(String entity, Fixture[] fixtures, Envelope envelope, TreeParser<T> tree,
+                           StreamParser<T> stream, Describer<T> describer) throws JSONException {
+        for (Fixture fixture : fixtures) {
+            String items = "[" + fixture.record + "]";
+            String body = envelope.wrap(items);
+            String expected = fixture.streamable ? describeAll(tree.parse(new JSONArray(items)), describer) : null;
+            
+            for (String format : new String[] {"json", "cbor"}) {
+                cases++;
+                String label = entity + " / " + fixture.name + " / " + format;
+                List<T> streamed;
+                try {
+                    streamed = stream.read(encode(body, format));
+                } catch (IOException | IllegalStateException e) {
+                    if (fixture.streamable) {
+                        mismatches.add(label + ": rejected (" + e.getMessage() + ")");
+                    }
+                    continue;
+                }
+                if (!fixture.streamable) {
+                    mismatches.add(label + ": accepted a record it must leave to the tree parser");
+                    continue;
+                }
+                String actual = describeAll(streamed, describer);
+                if (!expected.equals(actual)) {
+                    mismatches.add(label + ": expected " + expected + " but read " + actual);
+                }
+            }
+        }
+    }
+    
+    // Mirrors the tree branch of ApiService.parseResidentsPageResponse
+    private void checkNextTokens() throws JSONException {
+        for (String token : NEXT_TOKENS) {
+            String body = "{\"data\":{\"items\":[]" + (token != null ? ",\"nextToken\":" + token : "") + "}}";
+            JSONObject data = new JSONObject(body).getJSONObject("data");
+            String expected = data.isNull("nextToken") ? null : data.optString("nextToken");
+            
+            for (String format : new String[] {"json", "cbor"}) {
+                cases++;
+                String label = "residents / nextToken " + token + " / " + format;
+                try {
+                    String actual = StreamingJsonParser.readResidentPage(encode(body, format)).getNextToken();
+                    if (expected == null ? actual != null : !expected.equals(actual)) {
+                        mismatches.add(label + ": expected " + expected + " but read " + actual);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    mismatches.add(label + ": rejected (" + e.getMessage() + ")");
+                }
+            }
+        }
+    }
+    
+    private static <T> String describeAll(List<T> models, Describer<T> describer) {
+        List<String> described = new ArrayList<>(models.size());
+        for (T model : models) {
+            described.add(describer.describe(model));
+        }
+        return described.toString();
+    }
+    
+    private static String describe(Resident resident) {
+        return Arrays.asList(resident.getId(), resident.getName(), resident.getEmail(), resident.getPhone(),
+            resident.getUnitNumber(), resident.getStatus(), resident.getCreatedAt(), resident.getUpdatedAt(),
+            describe(resident.getEmergencyContact())).toString();
+    }
+    
+    private static String describe(EmergencyContact contact) {
+        if (contact == null) {
+            return "no contact";
+        }
+        return Arrays.asList(contact.getName(), contact.getPhone(), contact.getRelationship()).toString();
+    }
+    
+    private static String describe(Payment payment) {
+        return Arrays.asList(payment.getId(), payment.getResidentId(), payment.getResidentName(), payment.getAmount(),
+            payment.getMethod(), payment.getDescription(), payment.getStatus(), payment.getDate(),
+            payment.getTransactionId()).toString();
+    }
+    
+    private static String describe(WorkOrder workOrder) {
+        return Arrays.asList(workOrder.getId(), workOrder.getTitle(), workOrder.getDescription(), workOrder.getStatus(),
+            workOrder.getPriority(), workOrder.getType(), workOrder.getLocation(), workOrder.getAssignedTo(),
+            workOrder.getCreatedAt(), workOrder.getScheduledDate()).toString();
+    }
+    
+    // The same document as CBOR: org.json integers become CBOR integers and
+    // every other number a float64, as the API encodes them.
+    private static byte[] encode(String body, String format) throws JSONException {
+        if ("json".equals(format)) {
+            return body.getBytes(StandardCharsets.UTF_8);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeCbor(out, new JSONTokener(body).nextValue());
+        return out.toByteArray();
+    }
+    
+    private static void writeCbor(ByteArrayOutputStream out, Object value) throws JSONException {
+        if (value == null || value == JSONObject.NULL) {
+            out.write(0xF6);
+        } else if (value instanceof Boolean) {
+            out.write((Boolean) value ? 0xF5 : 0xF4);
+        } else if (value instanceof Integer || value instanceof Long) {
+            long number = ((Number) value).longValue();
+            writeHeader(out, number < 0 ? CborReader.TYPE_NEGATIVE : CborReader.TYPE_UNSIGNED, number < 0 ? -1 - number : number);
+        } else if (value instanceof Number) {
+            out.write(0xFB);
+            writeBigEndian(out, Double.doubleToLongBits(((Number) value).doubleValue()), 8);
+        } else if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            writeHeader(out, CborReader.TYPE_MAP, object.length());
+            Iterator<String> keys = object.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                writeCbor(out, key);
+                writeCbor(out, object.get(key));
+            }
+        } else if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            writeHeader(out, CborReader.TYPE_ARRAY, array.length());
+            for (int i = 0; i < array.length(); i++) {
+                writeCbor(out, array.get(i));
+            }
+        } else {
+            byte[] text = value.toString().getBytes(StandardCharsets.UTF_8);
+            writeHeader(out, CborReader.TYPE_TEXT, text.length);
+            out.write(text, 0, text.length);
+        }
+    }
+    
+    private static void writeHeader(ByteArrayOutputStream out, int type, long argument) {
+        int major = type << 5;
+        if (argument < 24) {
+            out.write(major | (int) argument);
+        } else if (argument < 0x100) {
+            out.write(major | 24);
+            writeBigEndian(out, argument, 1);
+        } else if (argument < 0x10000) {
+            out.write(major | 25);
+            writeBigEndian(out, argument, 2);
+        } else if (argument < 0x100000000L) {
+            out.write(major | 26);
+            writeBigEndian(out, argument, 4);
+        } else {
+            out.write(major | 27);
+            writeBigEndian(out, argument, 8);
+        }
+    }
+    
+    private static void writeBigEndian(ByteArrayOutputStream out, long value, int bytes) {
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+}
+
+// ============= HTTP TRANSPORT =============
+package com.condoconnectai.services;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Results and failures are always delivered on the main thread, matching
+// what ApiService callers have relied on since the Volley-only days.
+public interface HttpTransport {
+    
+    // Cancelling aborts the exchange; the callback may or may not still fire
+    Cancellable execute(HttpCall call, Callback callback);
+    
+    // Best-effort connection warm-up; implementations may ignore it
+    void preconnect(String url);
+    
+    interface Callback {
+        void onResponse(HttpResult response);
+        void onFailure(HttpFailure error);
+    }
+    
+    class HttpCall {
+        private final String method;
+        private final String url;
+        private final Map<String, String> headers;
+        private final byte[] body;
+        
+        public HttpCall(String method, String url, Map<String, String> headers, byte[] body) {
+            this.method = method;
+            this.url = url;
+            this.headers = headers != null ? headers : Collections.<String, String>emptyMap();
+            this.body = body;
+        }
+        
+        public String getMethod() {
+            return method;
+        }
+        
+        public String getUrl() {
+            return url;
+        }
+        
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+        
+        public byte[] getBody() {
+            return body;
+        }
+    }
+    
+    class HttpResult {
+        private final int statusCode;
+        private final Map<String, String> headers;
+        private final byte[] body;
+        
+        public HttpResult(int statusCode, Map<String, String> headers, byte[] body) {
+            this.statusCode = statusCode;
+            this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            if (headers != null) {
+                this.headers.putAll(headers);
+            }
+            this.body = body != null ? body : new byte[0];
+        }
+        
+        public int getStatusCode() {
+            return statusCode;
+        }
+        
+        public boolean isNotModified() {
+            return statusCode == 304;
+        }
+        
+        public String getHeader(String name) {
+            return headers.get(name);
+        }
+        
+        public byte[] getBody() {
+            return body;
+        }
+    }
+    
+    class HttpFailure extends Exception {
+        // 0 when no HTTP response was received
+        private final int statusCode;
+        private final byte[] body;
+        
+        public HttpFailure(int statusCode, byte[] body, String message, Throwable cause) {
+            super(message, cause);
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+        
+        public int getStatusCode() {
+            return statusCode;
+        }
+        
+        public byte[] getBody() {
+            return body;
+        }
+    }
+}
+
+// ============= CANCELLABLE =============
+package com.condoconnectai.services;
+
+public interface Cancellable {
+    void cancel();
+}
+
+// ============= REQUEST HANDLE =============
+package com.condoconnectai.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Returned by every ApiService call. Cancelling drops the callback, skips any
+// parse that has not started yet and aborts the download once no other
+// caller coalesced onto the same request still wants it.
+public class RequestHandle implements Cancellable {
+    private final List<Cancellable> children = new ArrayList<>();
+    private boolean cancelled;
+    private boolean done;
+    
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+    
+    // True once the final result was delivered or the handle was cancelled
+    public synchronized boolean isDone() {
+        return done || cancelled;
+    }
+    
+    @Override
+    public void cancel() {
+        List<Cancellable> pending;
+        synchronized (this) {
+            if (cancelled || done) {
+                return;
+            }
+            cancelled = true;
+            pending = new ArrayList<>(children);
+            children.clear();
+        }
+        for (Cancellable child : pending) {
+            child.cancel();
+        }
+    }
+    
+    // Work started on behalf of this handle; cancelled right away if the
+    // handle already is
+    void add(Cancellable child) {
+        synchronized (this) {
+            if (!cancelled) {
+                if (!done) {
+                    children.add(child);
+                }
+                return;
+            }
+        }
+        child.cancel();
+    }
+    
+    // Wraps the caller's callback so nothing is delivered after cancel() and
+    // the handle completes with the first result
+    <T> ApiService.ApiCallback<T> track(ApiService.ApiCallback<T> callback) {
+        return new ApiService.ApiCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                if (complete()) {
+                    callback.onSuccess(result);
+                }
+            }
+            
+            @Override
+            public void onError(String error) {
+                if (complete()) {
+                    callback.onError(error);
+                }
+            }
+        };
+    }
+    
+    private synchronized boolean complete() {
+        if (cancelled) {
+            return false;
+        }
+        done = true;
+        children.clear();
+        return true;
+    }
+}
+
+// ============= REQUEST SCOPE =============
+package com.condoconnectai.services;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// Holds the requests a screen started and cancels them when its lifecycle
+// ends. Fragments bind to getViewLifecycleOwner() so their requests go away
+// in onDestroyView; activities bind to themselves.
+public class RequestScope implements LifecycleEventObserver {
+    private final List<Cancellable> requests = new ArrayList<>();
+    private boolean closed;
+    
+    private RequestScope() {}
+    
+    public static RequestScope bind(LifecycleOwner owner) {
+        RequestScope scope = new RequestScope();
+        owner.getLifecycle().addObserver(scope);
+        return scope;
+    }
+    
+    public <C extends Cancellable> C track(C request) {
+        synchronized (this) {
+            if (!closed) {
+                prune();
+                requests.add(request);
+                return request;
+            }
+        }
+        request.cancel();
+        return request;
+    }
+    
+    // Cancels everything outstanding but keeps the scope open, e.g. while a
+    // tab is hidden. Returns false when there was nothing left to cancel.
+    public boolean cancelAll() {
+        List<Cancellable> pending;
+        synchronized (this) {
+            prune();
+            pending = new ArrayList<>(requests);
+            requests.clear();
+        }
+        for (Cancellable request : pending) {
+            request.cancel();
+        }
+        return !pending.isEmpty();
+    }
+    
+    @Override
+    public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+        if (event != Lifecycle.Event.ON_DESTROY) {
+            return;
+        }
+        source.getLifecycle().removeObserver(this);
+        synchronized (this) {
+            closed = true;
+        }
+        cancelAll();
+    }
+    
+    private void prune() {
+        Iterator<Cancellable> iterator = requests.iterator();
+        while (iterator.hasNext()) {
+            Cancellable request = iterator.next();
+            if (request instanceof RequestHandle && ((RequestHandle) request).isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+}
+
+// ============= VOLLEY TRANSPORT =============
+package com.condoconnectai.services;
+
+import android.content.Context;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.Volley;
+import java.util.Map;
+
+public class VolleyTransport implements HttpTransport {
+    private final RequestQueue requestQueue;
+    
+    public VolleyTransport(Context context) {
+        this.requestQueue = Volley.newRequestQueue(context.getApplicationContext());
+    }
+    
+    @Override
+    public Cancellable execute(HttpCall call, Callback callback) {
+        RawRequest request = new RawRequest(call, callback);
+        requestQueue.add(request);
+        return request::cancel;
+    }
+    
+    @Override
+    public void preconnect(String url) {
+        // HurlStack offers no way to open a connection ahead of a request
+    }
+    
+    private static int toVolleyMethod(String method) {
+        switch (method) {
+            case "POST": return Request.Method.POST;
+            case "PUT": return Request.Method.PUT;
+            case "DELETE": return Request.Method.DELETE;
+            case "PATCH": return Request.Method.PATCH;
+            case "HEAD": return Request.Method.HEAD;
+            default: return Request.Method.GET;
+        }
+    }
+    
+    private static HttpFailure toFailure(VolleyError error) {
+        NetworkResponse response = error.networkResponse;
+        if (response != null) {
+            return new HttpFailure(response.statusCode, response.data, error.getMessage(), error);
+        }
+        return new HttpFailure(0, null, error.getMessage(), error);
+    }
+    
+    private static class RawRequest extends Request<NetworkResponse> {
+        private final HttpCall call;
+        private final Callback callback;
+        
+        RawRequest(HttpCall call, Callback callback) {
+            super(toVolleyMethod(call.getMethod()), call.getUrl(), error -> callback.onFailure(toFailure(error)));
+            this.call = call;
+            this.callback = callback;
+            // Response caching is handled by ApiService's ResponseCache
+            setShouldCache(false);
+        }
+        
+        @Override
+        public Map<String, String> getHeaders() {
+            return call.getHeaders();
+        }
+        
+        @Override
+        public byte[] getBody() {
+            return call.getBody();
+        }
+        
+        @Override
+        public String getBodyContentType() {
+            return "application/json; charset=utf-8";
+        }
+        
+        @Override
+        protected Response<NetworkResponse> parseNetworkResponse(NetworkResponse response) {
+            return Response.success(response, null);
+        }
+        
+        @Override
+        protected void deliverResponse(NetworkResponse response) {
+            callback.onResponse(new HttpResult(response.statusCode, response.headers, response.data));
+        }
+    }
+}
+
+// ============= OKHTTP TRANSPORT =============
+package com.condoconnectai.services;
+
+import android.os.Handler;
+import android.os.Looper;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.brotli.BrotliInterceptor;
+
+// Pooled HTTP/2 client. OkHttp negotiates h2 over ALPN and the Brotli
+// interceptor advertises and decodes both br and gzip responses.
+public class OkHttpTransport implements HttpTransport {
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    
+    private final OkHttpClient client;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    
+    public OkHttpTransport() {
+        // RequestScheduler already caps concurrency per priority class; the
+        // default limit of 5 per host would queue gate lookups behind it again
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(16);
+        
+        this.client = new OkHttpClient.Builder()
+            .dispatcher(dispatcher)
+            .connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
+            .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .addInterceptor(BrotliInterceptor.INSTANCE)
+            .connectTimeout(10, TimeUnit.SECONDS)
+            .readTimeout(30, TimeUnit.SECONDS)
+            .build();
+    }
+    
+    public OkHttpTransport(OkHttpClient client) {
+        this.client = client;
+    }
+    
+    @Override
+    public Cancellable execute(HttpCall call, Callback callback) {
+        Request.Builder builder = new Request.Builder().url(call.getUrl());
+        for (Map.Entry<String, String> header : call.getHeaders().entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+        
+        RequestBody body = null;
+        if (call.getBody() != null) {
+            body = RequestBody.create(call.getBody(), JSON);
+        } else if ("POST".equals(call.getMethod()) || "PUT".equals(call.getMethod()) || "PATCH".equals(call.getMethod())) {
+            body = RequestBody.create(new byte[0], JSON);
+        }
+        builder.method(call.getMethod(), body);
+        
+        okhttp3.Call pending = client.newCall(builder.build());
+        pending.enqueue(new okhttp3.Callback() {
+            @Override
+            public void onFailure(okhttp3.Call okCall, IOException e) {
+                HttpFailure failure = new HttpFailure(0, null, e.getMessage(), e);
+                mainHandler.post(() -> callback.onFailure(failure));
+            }
+            
+            @Override
+            public void onResponse(okhttp3.Call okCall, Response response) {
+                byte[] bytes;
+                try (ResponseBody responseBody = response.body()) {
+                    bytes = responseBody != null ? responseBody.bytes() : null;
+                } catch (IOException e) {
+                    onFailure(okCall, e);
+                    return;
+                }
+                
+                int code = response.code();
+                if (response.isSuccessful() || code == 304) {
+                    Map<String, String> headers = new HashMap<>();
+                    for (String name : response.headers().names()) {
+                        headers.put(name, response.header(name));
+                    }
+                    HttpResult result = new HttpResult(code, headers, bytes);
+                    mainHandler.post(() -> callback.onResponse(result));
+                } else {
+                    HttpFailure failure = new HttpFailure(code, bytes, "HTTP " + code, null);
+                    mainHandler.post(() -> callback.onFailure(failure));
+                }
+            }
+        });
+        return pending::cancel;
+    }
+    
+    @Override
+    public void preconnect(String url) {
+        Request request = new Request.Builder().url(url).head().build();
+        client.newCall(request).enqueue(new okhttp3.Callback() {
+            @Override
+            public void onFailure(okhttp3.Call okCall, IOException e) {
+                // Warm-up only; the real request will surface any error
+            }
+            
+            @Override
+            public void onResponse(okhttp3.Call okCall, Response response) {
+                response.close();
+            }
+        });
+    }
+}
+
+// ============= RETRY POLICY =============
+package com.condoconnectai.services;
+
+import java.util.Random;
+
+public class RetryPolicy {
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final long hedgeDelayMs;
+    private final boolean idempotencyKeys;
+    
+    public RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs) {
+        this(maxAttempts, baseDelayMs, maxDelayMs, 0, false);
+    }
+    
+    private RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs, long hedgeDelayMs, boolean idempotencyKeys) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.hedgeDelayMs = hedgeDelayMs;
+        this.idempotencyKeys = idempotencyKeys;
+    }
+    
+    public static RetryPolicy none() {
+        return new RetryPolicy(1, 0, 0);
+    }
+    
+    // Sends a duplicate GET if the first has not answered within delayMs;
+    // the hedge counts against maxAttempts
+    public RetryPolicy withHedging(long delayMs) {
+        return new RetryPolicy(maxAttempts, baseDelayMs, maxDelayMs, delayMs, idempotencyKeys);
+    }
+    
+    // Required for non-idempotent methods to be retried at all
+    public RetryPolicy withIdempotencyKeys() {
+        return new RetryPolicy(maxAttempts, baseDelayMs, maxDelayMs, hedgeDelayMs, true);
+    }
+    
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+    
+    public long getHedgeDelayMs() {
+        return hedgeDelayMs;
+    }
+    
+    public boolean usesIdempotencyKeys() {
+        return idempotencyKeys;
+    }
+    
+    // Exponential backoff with full jitter
+    long backoffDelay(int attempt, Random random) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 16));
+        if (ceiling <= 0) {
+            return 0;
+        }
+        return (long) (random.nextDouble() * ceiling);
+    }
+    
+    boolean isRetryable(HttpTransport.HttpFailure failure) {
+        int status = failure.getStatusCode();
+        return status == 0 || status == 408 || status == 429
+            || status == 500 || status == 502 || status == 503 || status == 504;
+    }
+}
+
+// ============= RETRYING CALL =============
+package com.condoconnectai.services;
+
+import android.os.Handler;
+import android.os.Looper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Runs one logical call through its RetryPolicy. Transports deliver on the
+// main thread, so the attempt bookkeeping below needs no locking.
+class RetryingCall {
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+    private static final Random RANDOM = new Random();
+    
+    private final RequestScheduler scheduler;
+    private final RequestScheduler.Priority priority;
+    private final ApiMetrics.EndpointMetrics metrics;
+    private final HttpTransport transport;
+    private final HttpTransport.HttpCall call;
+    private final RetryPolicy policy;
+    private final HttpTransport.Callback callback;
+    private final boolean retryable;
+    private final boolean hedgeable;
+    private final Runnable hedgeTask = this::hedge;
+    private final Runnable retryTask = this::retry;
+    private final List<Cancellable> submitted = new ArrayList<>();
+    private int attempts;
+    private int outstanding;
+    private boolean completed;
+    
+    RetryingCall(RequestScheduler scheduler, RequestScheduler.Priority priority, ApiMetrics.EndpointMetrics metrics,
+                 HttpTransport transport, HttpTransport.HttpCall call, RetryPolicy policy, HttpTransport.Callback callback) {
+        this.scheduler = scheduler;
+        this.priority = priority;
+        this.metrics = metrics;
+        this.transport = transport;
+        this.call = call;
+        this.policy = policy;
+        this.callback = callback;
+        
+        String method = call.getMethod();
+        boolean idempotent = "GET".equals(method) || "HEAD".equals(method) || "PUT".equals(method) || "DELETE".equals(method);
+        this.retryable = idempotent || call.getHeaders().containsKey("Idempotency-Key");
+        this.hedgeable = "GET".equals(method) && policy.getHedgeDelayMs() > 0;
+    }
+    
+    void start() {
+        if (completed) {
+            return;
+        }
+        attempt();
+        if (hedgeable) {
+            MAIN_HANDLER.postDelayed(hedgeTask, policy.getHedgeDelayMs());
+        }
+    }
+    
+    // Stops pending retries and hedges and aborts every attempt still running;
+    // the callback is not invoked afterwards
+    void cancel() {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            MAIN_HANDLER.post(this::cancel);
+            return;
+        }
+        completed = true;
+        MAIN_HANDLER.removeCallbacks(hedgeTask);
+        MAIN_HANDLER.removeCallbacks(retryTask);
+        for (Cancellable attempt : submitted) {
+            attempt.cancel();
+        }
+        submitted.clear();
+    }
+    
+    // Only duplicates an attempt that is still in flight
+    private void hedge() {
+        if (!completed && outstanding > 0 && attempts < policy.getMaxAttempts()) {
+            attempt();
+        }
+    }
+    
+    private void attempt() {
+        attempts++;
+        outstanding++;
+        submitted.add(scheduler.submit(priority, metrics, transport, call, new HttpTransport.Callback() {
+            @Override
+            public void onResponse(HttpTransport.HttpResult response) {
+                outstanding--;
+                if (completed) {
+                    return;
+                }
+                completed = true;
+                callback.onResponse(response);
+            }
+            
+            @Override
+            public void onFailure(HttpTransport.HttpFailure error) {
+                outstanding--;
+                if (completed || outstanding > 0) {
+                    // Either already answered or a hedged sibling may still succeed
+                    return;
+                }
+                
+                // A retry replaces the hedge, so the two never both add an
+                // attempt and only one request is in flight after a failure
+                MAIN_HANDLER.removeCallbacks(hedgeTask);
+                if (retryable && attempts < policy.getMaxAttempts() && policy.isRetryable(error)) {
+                    MAIN_HANDLER.postDelayed(retryTask, policy.backoffDelay(attempts, RANDOM));
+                } else {
+                    completed = true;
+                    callback.onFailure(error);
+                }
+            }
+        }));
+    }
+    
+    // Retries and hedges draw on the same maxAttempts budget
+    private void retry() {
+        if (!completed && outstanding == 0 && attempts < policy.getMaxAttempts()) {
+            attempt();
+        }
+    }
+}
+
+// ============= REQUEST SCHEDULER =============
+package com.condoconnectai.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+// Admits transport calls by priority class. Each class has its own
+// concurrency limit, so interactive lookups always have free slots, and
+// background work is held back while any interactive call is pending.
+public class RequestScheduler {
+    public enum Priority {
+        INTERACTIVE(4),
+        VISIBLE(3),
+        BACKGROUND(2);
+        
+        final int maxConcurrent;
+        
+        Priority(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+    }
+    
+    private static class Task {
+        final Priority priority;
+        final ApiMetrics.EndpointMetrics metrics;
+        final HttpTransport transport;
+        final HttpTransport.HttpCall call;
+        final HttpTransport.Callback callback;
+        final long submittedAt = System.nanoTime();
+        // Guarded by the scheduler
+        boolean finished;
+        boolean cancelled;
+        Cancellable network;
+        
+        Task(Priority priority, ApiMetrics.EndpointMetrics metrics, HttpTransport transport, HttpTransport.HttpCall call,
+             HttpTransport.Callback callback) {
+            this.priority = priority;
+            this.metrics = metrics;
+            this.transport = transport;
+            this.call = call;
+            this.callback = callback;
+        }
+    }
+    
+    private final Priority[] priorities = Priority.values();
+    private final List<ArrayDeque<Task>> queues = new ArrayList<>();
+    private final int[] running = new int[priorities.length];
+    
+    RequestScheduler() {
+        for (int i = 0; i < priorities.length; i++) {
+            queues.add(new ArrayDeque<>());
+        }
+    }
+    
+    // Cancelling a queued call just removes it; a running one is aborted and
+    // its slot freed at once. Either way the callback is never invoked.
+    Cancellable submit(Priority priority, ApiMetrics.EndpointMetrics metrics, HttpTransport transport,
+                       HttpTransport.HttpCall call, HttpTransport.Callback callback) {
+        Task task = new Task(priority, metrics, transport, call, callback);
+        List<Task> ready;
+        synchronized (this) {
+            queues.get(priority.ordinal()).add(task);
+            ready = admit();
+        }
+        dispatch(ready);
+        return () -> cancel(task);
+    }
+    
+    synchronized int getQueuedCount(Priority priority) {
+        return queues.get(priority.ordinal()).size();
+    }
+    
+    synchronized int getRunningCount(Priority priority) {
+        return running[priority.ordinal()];
+    }
+    
+    private List<Task> admit() {
+        List<Task> ready = new ArrayList<>();
+        for (Priority priority : priorities) {
+            ArrayDeque<Task> queue = queues.get(priority.ordinal());
+            while (!queue.isEmpty() && running[priority.ordinal()] < priority.maxConcurrent && isAdmissible(priority)) {
+                running[priority.ordinal()]++;
+                ready.add(queue.poll());
+            }
+        }
+        return ready;
+    }
+    
+    private boolean isAdmissible(Priority priority) {
+        if (priority != Priority.BACKGROUND) {
+            return true;
+        }
+        // Pre-empt prefetches: they wait until interactive work has drained
+        return running[Priority.INTERACTIVE.ordinal()] == 0 && queues.get(Priority.INTERACTIVE.ordinal()).isEmpty();
+    }
+    
+    private void dispatch(List<Task> ready) {
+        for (Task task : ready) {
+            synchronized (this) {
+                if (task.cancelled) {
+                    continue;
+                }
+            }
+            long dispatchedAt = System.nanoTime();
+            task.metrics.recordQueue(dispatchedAt - task.submittedAt);
+            Cancellable network = task.transport.execute(task.call, new HttpTransport.Callback() {
+                @Override
+                public void onResponse(HttpTransport.HttpResult response) {
+                    if (!finish(task)) {
+                        return;
+                    }
+                    task.metrics.recordNetwork(System.nanoTime() - dispatchedAt, response.getBody().length);
+                    task.callback.onResponse(response);
+                }
+                
+                @Override
+                public void onFailure(HttpTransport.HttpFailure error) {
+                    if (!finish(task)) {
+                        return;
+                    }
+                    task.metrics.recordNetwork(System.nanoTime() - dispatchedAt, error.getBody() != null ? error.getBody().length : 0);
+                    task.metrics.recordError(ApiMetrics.ErrorClass.of(error.getStatusCode()));
+                    task.callback.onFailure(error);
+                }
+            });
+            
+            boolean abort;
+            synchronized (this) {
+                task.network = network;
+                abort = task.cancelled;
+            }
+            if (abort) {
+                // Cancelled between admission and execute()
+                network.cancel();
+            }
+        }
+    }
+    
+    // False when the task was cancelled and its slot already released
+    private boolean finish(Task task) {
+        List<Task> ready;
+        synchronized (this) {
+            if (task.finished) {
+                return false;
+            }
+            task.finished = true;
+            running[task.priority.ordinal()]--;
+            ready = admit();
+        }
+        dispatch(ready);
+        return true;
+    }
+    
+    private void cancel(Task task) {
+        List<Task> ready;
+        Cancellable network;
+        synchronized (this) {
+            if (task.finished) {
+                return;
+            }
+            task.finished = true;
+            task.cancelled = true;
+            if (queues.get(task.priority.ordinal()).remove(task)) {
+                return;
+            }
+            running[task.priority.ordinal()]--;
+            network = task.network;
+            ready = admit();
+        }
+        if (network != null) {
+            network.cancel();
+        }
+        dispatch(ready);
+    }
+}
+
+// ============= API METRICS =============
+package com.condoconnectai.services;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Per-endpoint timings and payload sizes. Recording only touches atomics,
+// so it is safe from the network, parser and main threads alike.
+public class ApiMetrics {
+    public enum ErrorClass {
+        NETWORK, CLIENT, SERVER, PARSE;
+        
+        static ErrorClass of(int statusCode) {
+            if (statusCode == 0) {
+                return NETWORK;
+            }
+            return statusCode >= 500 ? SERVER : CLIENT;
+        }
+    }
+    
+    // Power-of-two buckets: bucket i holds values in [2^(i-1), 2^i)
+    public static class Histogram {
+        private static final int BUCKETS = 40;
+        
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+        
+        void record(long value) {
+            if (value < 0) {
+                value = 0;
+            }
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+            buckets.incrementAndGet(bucket);
+            count.incrementAndGet();
+            sum.addAndGet(value);
+            
+            long current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+        
+        public long getCount() {
+            return count.get();
+        }
+        
+        public long getMax() {
+            return max.get();
+        }
+        
+        public double getMean() {
+            long n = count.get();
+            return n == 0 ? 0 : (double) sum.get() / n;
+        }
+        
+        // Upper bound of the bucket holding the given percentile (0-100)
+        public long getPercentile(double percentile) {
+            long n = count.get();
+            if (n == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(n * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(max.get(), i == 0 ? 0 : (1L << i) - 1);
+                }
+            }
+            return max.get();
+        }
+        
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+            count.set(0);
+            sum.set(0);
+            max.set(0);
+        }
+    }
+    
+    // Times are recorded in microseconds, payloads in bytes
+    public static class EndpointMetrics {
+        private final String endpoint;
+        private final Histogram queueMicros = new Histogram();
+        private final Histogram networkMicros = new Histogram();
+        private final Histogram parseMicros = new Histogram();
+        private final Histogram responseBytes = new Histogram();
+        private final AtomicLongArray errors = new AtomicLongArray(ErrorClass.values().length);
+        
+        EndpointMetrics(String endpoint) {
+            this.endpoint = endpoint;
+        }
+        
+        void recordQueue(long nanos) {
+            queueMicros.record(nanos / 1000);
+        }
+        
+        void recordNetwork(long nanos, int bytes) {
+            networkMicros.record(nanos / 1000);
+            responseBytes.record(bytes);
+        }
+        
+        void recordParse(long nanos) {
+            parseMicros.record(nanos / 1000);
+        }
+        
+        void recordError(ErrorClass errorClass) {
+            errors.incrementAndGet(errorClass.ordinal());
+        }
+        
+        public String getEndpoint() {
+            return endpoint;
+        }
+        
+        public Histogram getQueueMicros() {
+            return queueMicros;
+        }
+        
+        public Histogram getNetworkMicros() {
+            return networkMicros;
+        }
+        
+        public Histogram getParseMicros() {
+            return parseMicros;
+        }
+        
+        public Histogram getResponseBytes() {
+            return responseBytes;
+        }
+        
+        public long getErrorCount(ErrorClass errorClass) {
+            return errors.get(errorClass.ordinal());
+        }
+        
+        void reset() {
+            queueMicros.reset();
+            networkMicros.reset();
+            parseMicros.reset();
+            responseBytes.reset();
+            for (int i = 0; i < errors.length(); i++) {
+                errors.set(i, 0);
+            }
+        }
+    }
+    
+    private final ConcurrentHashMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    
+    EndpointMetrics forEndpoint(String endpoint) {
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        if (metrics == null) {
+            EndpointMetrics created = new EndpointMetrics(endpoint);
+            metrics = endpoints.putIfAbsent(endpoint, created);
+            if (metrics == null) {
+                metrics = created;
+            }
+        }
+        return metrics;
+    }
+    
+    public Map<String, EndpointMetrics> getEndpoints() {
+        return new TreeMap<>(endpoints);
+    }
+    
+    public void reset() {
+        for (EndpointMetrics metrics : endpoints.values()) {
+            metrics.reset();
+        }
+    }
+    
+    // One line per endpoint, p50/p95 in milliseconds, for logging by hand;
+    // the app has no debug screen, so nothing calls this by itself
+    public String dump() {
+        StringBuilder builder = new StringBuilder();
+        for (EndpointMetrics metrics : getEndpoints().values()) {
+            builder.append(String.format(Locale.US,
+                "%s n=%d queue=%.1f/%.1f net=%.1f/%.1f parse=%.1f/%.1f bytes=%d/%d errors=%d/%d/%d/%d%n",
+                metrics.getEndpoint(),
+                metrics.getNetworkMicros().getCount(),
+                metrics.getQueueMicros().getPercentile(50) / 1000.0, metrics.getQueueMicros().getPercentile(95) / 1000.0,
+                metrics.getNetworkMicros().getPercentile(50) / 1000.0, metrics.getNetworkMicros().getPercentile(95) / 1000.0,
+                metrics.getParseMicros().getPercentile(50) / 1000.0, metrics.getParseMicros().getPercentile(95) / 1000.0,
+                metrics.getResponseBytes().getPercentile(50), metrics.getResponseBytes().getMax(),
+                metrics.getErrorCount(ErrorClass.NETWORK), metrics.getErrorCount(ErrorClass.CLIENT),
+                metrics.getErrorCount(ErrorClass.SERVER), metrics.getErrorCount(ErrorClass.PARSE)));
+        }
+        return builder.toString();
+    }
+    
+    public void exportTo(File file) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(toJson().toString(2).getBytes(StandardCharsets.UTF_8));
+        } catch (JSONException e) {
+            throw new IOException("Error serializing metrics", e);
+        }
+    }
+    
+    public JSONObject toJson() throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("exportedAt", System.currentTimeMillis());
+        JSONArray array = new JSONArray();
+        for (EndpointMetrics metrics : getEndpoints().values()) {
+            JSONObject endpoint = new JSONObject();
+            endpoint.put("endpoint", metrics.getEndpoint());
+            endpoint.put("queueMicros", histogramToJson(metrics.getQueueMicros()));
+            endpoint.put("networkMicros", histogramToJson(metrics.getNetworkMicros()));
+            endpoint.put("parseMicros", histogramToJson(metrics.getParseMicros()));
+            endpoint.put("responseBytes", histogramToJson(metrics.getResponseBytes()));
+            
+            JSONObject errors = new JSONObject();
+            for (ErrorClass errorClass : ErrorClass.values()) {
+                errors.put(errorClass.name().toLowerCase(Locale.US), metrics.getErrorCount(errorClass));
+            }
+            endpoint.put("errors", errors);
+            array.put(endpoint);
+        }
+        json.put("endpoints", array);
+        return json;
+    }
+    
+    private JSONObject histogramToJson(Histogram histogram) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("count", histogram.getCount());
+        json.put("mean", histogram.getMean());
+        json.put("p50", histogram.getPercentile(50));
+        json.put("p95", histogram.getPercentile(95));
+        json.put("p99", histogram.getPercentile(99));
+        json.put("max", histogram.getMax());
+        return json;
+    }
+}
+
+// ============= REQUEST COALESCER =============
+package com.condoconnectai.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class RequestCoalescer {
+    private static class Flight {
+        final List<ApiService.ApiCallback<?>> waiters = new ArrayList<>();
+        Cancellable upstream;
+    }
+    
+    private final Map<String, Flight> inFlight = new HashMap<>();
+    
+    // Keys hold a digest of the token rather than the token itself, so the
+    // credential does not sit in the map or in anything that logs a key
+    String key(String method, String url, String accessToken) {
+        return method + " " + url + " " + (accessToken != null ? tokenDigest(accessToken) : "");
+    }
+    
+    private static String tokenDigest(String accessToken) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(accessToken.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder();
+            for (byte b : hash) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // A weaker hash could let two users share one response
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+    
+    // Returns true when the caller owns the network call; otherwise the callback
+    // has been attached to the request already in flight for the same key.
+    synchronized boolean join(String key, ApiService.ApiCallback<?> callback) {
+        Flight flight = inFlight.get(key);
+        if (flight != null) {
+            flight.waiters.add(callback);
+            return false;
+        }
+        
+        flight = new Flight();
+        flight.waiters.add(callback);
+        inFlight.put(key, flight);
+        return true;
+    }
+    
+    // Records the work answering this key so the last caller to leave can
+    // abort it. A later attach, e.g. a fallback request, replaces the earlier one.
+    void attach(String key, Cancellable upstream) {
+        synchronized (this) {
+            Flight flight = inFlight.get(key);
+            if (flight != null) {
+                flight.upstream = upstream;
+                return;
+            }
+        }
+        // Every caller left before the work was even attached
+        upstream.cancel();
+    }
+    
+    // Detaches a cancelled caller; the shared work is aborted once nobody is left
+    void leave(String key, ApiService.ApiCallback<?> callback) {
+        Cancellable upstream = null;
+        synchronized (this) {
+            Flight flight = inFlight.get(key);
+            if (flight == null || !flight.waiters.remove(callback)) {
+                return;
+            }
+            if (flight.waiters.isEmpty()) {
+                inFlight.remove(key);
+                upstream = flight.upstream;
+            }
+        }
+        if (upstream != null) {
+            upstream.cancel();
+        }
+    }
+    
+    // Callback that completes every waiter on the key
+    <T> ApiService.ApiCallback<T> delivery(String key) {
+        return new ApiService.ApiCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                succeed(key, result);
+            }
+            
+            @Override
+            public void onError(String error) {
+                fail(key, error);
+            }
+        };
+    }
+    
+    @SuppressWarnings("unchecked")
+    <T> void succeed(String key, T result) {
+        for (ApiService.ApiCallback<?> callback : drain(key)) {
+            ((ApiService.ApiCallback<T>) callback).onSuccess(result);
+        }
+    }
+    
+    void fail(String key, String error) {
+        for (ApiService.ApiCallback<?> callback : drain(key)) {
+            callback.onError(error);
+        }
+    }
+    
+    private synchronized List<ApiService.ApiCallback<?>> drain(String key) {
+        Flight flight = inFlight.remove(key);
+        return flight != null ? flight.waiters : new ArrayList<>();
+    }
+}
+
+// ============= WRITE BATCHER =============
+package com.condoconnectai.services;
+
+import android.os.Handler;
+import android.os.Looper;
+import java.util.ArrayList;
+import java.util.List;
+
+// Collects writes for one endpoint until the window closes or the batch is
+// full, then hands them to the flusher together.
+class WriteBatcher<T> {
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+    
+    interface Flusher<T> {
+        void flush(List<Item<T>> items);
+    }
+    
+    static class Item<T> {
+        final byte[] body;
+        final RequestHandle handle;
+        final ApiService.ApiCallback<T> callback;
+        
+        Item(byte[] body, RequestHandle handle, ApiService.ApiCallback<T> callback) {
+            this.body = body;
+            this.handle = handle;
+            this.callback = callback;
+        }
+    }
+    
+    private final int maxItems;
+    private final long windowMs;
+    private final Flusher<T> flusher;
+    private final Runnable flushTask = this::flush;
+    private List<Item<T>> pending = new ArrayList<>();
+    
+    WriteBatcher(int maxItems, long windowMs, Flusher<T> flusher) {
+        this.maxItems = maxItems;
+        this.windowMs = windowMs;
+        this.flusher = flusher;
+    }
+    
+    void add(Item<T> item) {
+        boolean full;
+        synchronized (this) {
+            pending.add(item);
+            full = pending.size() >= maxItems;
+            if (!full && pending.size() == 1) {
+                MAIN_HANDLER.postDelayed(flushTask, windowMs);
+            }
+        }
+        if (full) {
+            flush();
+        }
+    }
+    
+    synchronized void remove(Item<T> item) {
+        pending.remove(item);
+        if (pending.isEmpty()) {
+            MAIN_HANDLER.removeCallbacks(flushTask);
+        }
+    }
+    
+    void flush() {
+        List<Item<T>> batch;
+        synchronized (this) {
+            MAIN_HANDLER.removeCallbacks(flushTask);
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+        flusher.flush(batch);
+    }
+}
+
+// ============= TAB PREFETCHER =============
+package com.condoconnectai.services;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.ConnectivityManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+import com.condoconnectai.utils.AuthManager;
+import com.condoconnectai.utils.NetworkUtils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// Learns which bottom-navigation tab each role usually opens next (admins
+// dashboard -> payments, guards -> security) from transition counts. Once
+// the visible screen has gone idle on an unmetered network, it warms the
+// cached ApiService endpoints behind the predicted tab. Main thread only.
+public class TabPrefetcher {
+    private static final String PREFS_NAME = "tab_prefetch";
+    private static final long IDLE_DELAY_MS = 1000;
+    private static final long MIN_REFETCH_MS = 2 * 60 * 1000;
+    // A transition has to be seen this often before it is acted on
+    private static final int MIN_OBSERVATIONS = 2;
+    
+    private final Context context;
+    private final ApiService apiService;
+    private final AuthManager authManager;
+    private final SharedPreferences preferences;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, String[]> tabEndpoints = new HashMap<>();
+    private final Map<String, Long> lastPrefetch = new HashMap<>();
+    private final List<RequestHandle> inFlight = new ArrayList<>();
+    private final Runnable armTask = this::armIdleHandler;
+    private MessageQueue.IdleHandler idleHandler;
+    private String currentTab;
+    
+    public TabPrefetcher(Context context) {
+        this.context = context.getApplicationContext();
+        this.apiService = ApiService.getInstance(context);
+        this.authManager = AuthManager.getInstance(context);
+        this.preferences = this.context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+    
+    // Endpoints must be ones ApiService.prefetch() accepts
+    public void registerTab(String tab, String... endpoints) {
+        tabEndpoints.put(tab, endpoints);
+    }
+    
+    public void onTabSelected(String tab) {
+        if (tab.equals(currentTab)) {
+            return;
+        }
+        if (currentTab != null) {
+            recordTransition(currentTab, tab);
+        }
+        currentTab = tab;
+        disarm();
+        mainHandler.postDelayed(armTask, IDLE_DELAY_MS);
+    }
+    
+    public void cancel() {
+        disarm();
+        for (RequestHandle handle : inFlight) {
+            handle.cancel();
+        }
+        inFlight.clear();
+    }
+    
+    // Most frequent next tab for the current role, or null while there is
+    // too little history
+    public String predictNextTab(String tab) {
+        String prefix = transitionKey(tab, "");
+        String best = null;
+        int bestCount = MIN_OBSERVATIONS - 1;
+        for (Map.Entry<String, ?> entry : preferences.getAll().entrySet()) {
+            if (!entry.getKey().startsWith(prefix) || !(entry.getValue() instanceof Integer)) {
+                continue;
+            }
+            int count = (Integer) entry.getValue();
+            if (count > bestCount) {
+                best = entry.getKey().substring(prefix.length());
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+    
+    private void recordTransition(String from, String to) {
+        String key = transitionKey(from, to);
+        preferences.edit().putInt(key, preferences.getInt(key, 0) + 1).apply();
+    }
+    
+    private String transitionKey(String from, String to) {
+        String role = authManager.getUserRole();
+        return (role.isEmpty() ? "default" : role) + "|" + from + "|" + to;
+    }
+    
+    // Waits for the tab to settle, then for the first moment the main
+    // looper has nothing left to do
+    private void armIdleHandler() {
+        idleHandler = () -> {
+            idleHandler = null;
+            prefetchAfter(currentTab);
+            return false;
+        };
+        Looper.myQueue().addIdleHandler(idleHandler);
+    }
+    
+    private void disarm() {
+        mainHandler.removeCallbacks(armTask);
+        if (idleHandler != null) {
+            Looper.myQueue().removeIdleHandler(idleHandler);
+            idleHandler = null;
+        }
+    }
+    
+    private void prefetchAfter(String tab) {
+        String next = predictNextTab(tab);
+        String[] endpoints = next != null ? tabEndpoints.get(next) : null;
+        if (endpoints == null || !isUnmetered()) {
+            return;
+        }
+        
+        Iterator<RequestHandle> iterator = inFlight.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isDone()) {
+                iterator.remove();
+            }
+        }
+        
+        long now = SystemClock.elapsedRealtime();
+        for (String endpoint : endpoints) {
+            Long last = lastPrefetch.get(endpoint);
+            if (last != null && now - last < MIN_REFETCH_MS) {
+                continue;
+            }
+            lastPrefetch.put(endpoint, now);
+            inFlight.add(apiService.prefetch(endpoint));
+        }
+    }
+    
+    private boolean isUnmetered() {
+        ConnectivityManager connectivityManager =
+            (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        return connectivityManager != null && NetworkUtils.isNetworkAvailable(context)
+            && !connectivityManager.isActiveNetworkMetered();
+    }
+}
+
+// ============= RESIDENTS PAGING SOURCE =============
+package com.condoconnectai.services;
+
+import com.condoconnectai.models.Resident;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ResidentsPagingSource implements Cancellable {
+    
+    public interface Listener {
+        void onPageLoaded(List<Resident> page, boolean firstPage);
+        void onError(String error);
+    }
+    
+    private final ApiService apiService;
+    private final int pageSize;
+    private final List<Resident> loaded = new ArrayList<>();
+    private String nextToken;
+    private boolean endReached;
+    private boolean loading;
+    // Bumped on refresh and cancel so pages requested before it are dropped
+    private int generation;
+    private RequestHandle pending;
+    
+    public ResidentsPagingSource(ApiService apiService, int pageSize) {
+        this.apiService = apiService;
+        this.pageSize = pageSize;
+    }
+    
+    public void refresh(Listener listener) {
+        cancel();
+        loaded.clear();
+        nextToken = null;
+        endReached = false;
+        load(listener);
+    }
+    
+    // Drops the page in flight; the next load asks for the same page again
+    @Override
+    public void cancel() {
+        generation++;
+        loading = false;
+        if (pending != null) {
+            pending.cancel();
+            pending = null;
+        }
+    }
+    
+    public void loadNextPage(Listener listener) {
+        if (loading || endReached) {
+            return;
+        }
+        load(listener);
+    }
+    
+    public boolean isLoading() {
+        return loading;
+    }
+    
+    public boolean hasMore() {
+        return !endReached;
+    }
+    
+    public List<Resident> getLoaded() {
+        return Collections.unmodifiableList(loaded);
+    }
+    
+    private void load(Listener listener) {
+        loading = true;
+        final int requestGeneration = generation;
+        final boolean firstPage = nextToken == null;
+        
+        pending = apiService.getResidentsPage(pageSize, nextToken, new ApiService.ApiCallback<ApiService.Page<Resident>>() {
+            @Override
+            public void onSuccess(ApiService.Page<Resident> page) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading = false;
+                pending = null;
+                loaded.addAll(page.getItems());
+                nextToken = page.getNextToken();
+                endReached = !page.hasMore();
+                listener.onPageLoaded(page.getItems(), firstPage);
+            }
+            
+            @Override
+            public void onError(String error) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading = false;
+                pending = null;
+                listener.onError(error);
+            }
+        });
+    }
+}
+
+// ============= STREAMING JSON PARSER =============
+package com.condoconnectai.services;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+import com.condoconnectai.models.Payment;
+import com.condoconnectai.models.Resident;
+import com.condoconnectai.models.WorkOrder;
+import com.condoconnectai.utils.CborReader;
+import com.condoconnectai.utils.ModelCodec;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Walks the response envelopes; the records themselves are decoded by
+// ModelCodecs, which keeps the streaming and tree paths in step. CBOR bodies
+// share the same envelopes and go through CborReader instead of JsonReader.
+class StreamingJsonParser {
+    
+    private StreamingJsonParser() {}
+    
+    static ApiService.Page<Resident> readResidentPage(byte[] body) throws IOException {
+        if (CborReader.isCbor(body)) {
+            return readResidentPage(new CborReader(body));
+        }
+        try (JsonReader reader = open(body)) {
+            List<Resident> residents = null;
+            String nextToken = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("data".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String name = reader.nextName();
+                        if ("items".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                            residents = new ArrayList<>();
+                            reader.beginArray();
+                            while (reader.hasNext()) {
+                                residents.add(ModelCodecs.RESIDENT.read(reader));
+                            }
+                            reader.endArray();
+                        } else if ("nextToken".equals(name) && reader.peek() != JsonToken.NULL) {
+                            nextToken = ModelCodec.readString(reader);
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            
+            if (residents == null) {
+                throw new IOException("Missing data.items");
+            }
+            return new ApiService.Page<>(residents, nextToken);
+        }
+    }
+    
+    static List<Payment> readPayments(byte[] body) throws IOException {
+        if (CborReader.isCbor(body)) {
+            return ModelCodecs.PAYMENT.readList(new CborReader(body));
+        }
+        try (JsonReader reader = open(body)) {
+            return ModelCodecs.PAYMENT.readList(reader);
+        }
+    }
+    
+    static List<WorkOrder> readWorkOrders(byte[] body) throws IOException {
+        if (CborReader.isCbor(body)) {
+            return ModelCodecs.WORK_ORDER.readList(new CborReader(body));
+        }
+        try (JsonReader reader = open(body)) {
+            return ModelCodecs.WORK_ORDER.readList(reader);
+        }
+    }
+    
+    private static ApiService.Page<Resident> readResidentPage(CborReader reader) throws IOException {
+        List<Resident> residents = null;
+        String nextToken = null;
+        long length = reader.readMapHeader();
+        for (long i = 0; reader.hasNext(length, i); i++) {
+            if ("data".equals(reader.readText()) && reader.peekType() == CborReader.TYPE_MAP) {
+                long dataLength = reader.readMapHeader();
+                for (long j = 0; reader.hasNext(dataLength, j); j++) {
+                    String name = reader.readText();
+                    if ("items".equals(name) && reader.peekType() == CborReader.TYPE_ARRAY) {
+                        residents = ModelCodecs.RESIDENT.readList(reader);
+                    } else if ("nextToken".equals(name) && !reader.isNull()) {
+                        nextToken = ModelCodec.readString(reader);
+                    } else {
+                        reader.skip();
+                    }
+                }
+                reader.endContainer(dataLength);
+            } else {
+                reader.skip();
+            }
+        }
+        reader.endContainer(length);
+        
+        if (residents == null) {
+            throw new IOException("Missing data.items");
+        }
+        return new ApiService.Page<>(residents, nextToken);
+    }
+    
+    private static JsonReader open(byte[] body) {
+        return new JsonReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+    }
+}
+
+// ============= MODEL CODECS =============
+package com.condoconnectai.services;
+
+import com.condoconnectai.models.*;
+import com.condoconnectai.utils.ModelCodec;
+
+// Wire mapping for every API model, read and write side declared together.
+// Fields without a getter are server-owned and stay out of request bodies.
+final class ModelCodecs {
+    
+    private ModelCodecs() {}
+    
+    static final ModelCodec<DashboardStats> DASHBOARD_STATS = ModelCodec.builder(DashboardStats::new)
+        .integer("totalResidents", DashboardStats::setTotalResidents)
+        .integer("activeResidents", DashboardStats::setActiveResidents)
+        .integer("pendingPayments", DashboardStats::setPendingPayments)
+        .integer("completedPayments", DashboardStats::setCompletedPayments)
+        .integer("openWorkOrders", DashboardStats::setOpenWorkOrders)
+        .integer("completedWorkOrders", DashboardStats::setCompletedWorkOrders)
+        .integer("securityEvents", DashboardStats::setSecurityEvents)
+        .integer("activeVisitors", DashboardStats::setActiveVisitors)
+        .build();
+    
+    static final ModelCodec<Activity> ACTIVITY = ModelCodec.builder(Activity::new)
+        .string("id", Activity::setId)
+        .string("type", Activity::setType)
+        .string("description", Activity::setDescription)
+        .string("timestamp", Activity::setTimestamp)
+        .string("userId", Activity::setUserId)
+        .string("userName", Activity::setUserName)
+        .build();
+    
+    static final ModelCodec<EmergencyContact> EMERGENCY_CONTACT = ModelCodec.builder(EmergencyContact::new)
+        .string("name", EmergencyContact::setName, EmergencyContact::getName)
+        .string("phone", EmergencyContact::setPhone, EmergencyContact::getPhone)
+        .string("relationship", EmergencyContact::setRelationship, EmergencyContact::getRelationship)
+        .build();
+    
+    static final ModelCodec<Resident> RESIDENT = ModelCodec.builder(Resident::new)
+        .string("id", Resident::setId)
+        .string("name", Resident::setName, Resident::getName)
+        .string("email", Resident::setEmail, Resident::getEmail)
+        .string("phone", Resident::setPhone, Resident::getPhone)
+        .string("unitNumber", Resident::setUnitNumber, Resident::getUnitNumber)
+        .string("status", Resident::setStatus, Resident::getStatus)
+        .string("createdAt", Resident::setCreatedAt)
+        .string("updatedAt", Resident::setUpdatedAt)
+        .object("emergencyContact", EMERGENCY_CONTACT, Resident::setEmergencyContact, Resident::getEmergencyContact)
+        .build();
+    
+    static final ModelCodec<Payment> PAYMENT = ModelCodec.builder(Payment::new)
+        .string("id", Payment::setId)
+        .string("residentId", Payment::setResidentId, Payment::getResidentId)
+        .string("residentName", Payment::setResidentName)
+        .number("amount", Payment::setAmount, Payment::getAmount)
+        .string("method", Payment::setMethod, Payment::getMethod)
+        .string("description", Payment::setDescription, Payment::getDescription)
+        .string("status", Payment::setStatus)
+        .string("date", Payment::setDate)
+        .string("transactionId", Payment::setTransactionId)
+        .build();
+    
+    static final ModelCodec<WorkOrder> WORK_ORDER = ModelCodec.builder(WorkOrder::new)
+        .string("id", WorkOrder::setId)
+        .string("title", WorkOrder::setTitle, WorkOrder::getTitle)
+        .string("description", WorkOrder::setDescription, WorkOrder::getDescription)
+        .string("status", WorkOrder::setStatus, WorkOrder::getStatus)
+        .string("priority", WorkOrder::setPriority, WorkOrder::getPriority)
+        .string("type", WorkOrder::setType, WorkOrder::getType)
+        .string("location", WorkOrder::setLocation, WorkOrder::getLocation)
+        .string("assignedTo", WorkOrder::setAssignedTo, WorkOrder::getAssignedTo)
+        .string("createdAt", WorkOrder::setCreatedAt)
+        .string("scheduledDate", WorkOrder::setScheduledDate, WorkOrder::getScheduledDate)
+        .build();
+    
+    static final ModelCodec<SecurityEvent> SECURITY_EVENT = ModelCodec.builder(SecurityEvent::new)
+        .string("id", SecurityEvent::setId)
+        .string("type", SecurityEvent::setType)
+        .string("description", SecurityEvent::setDescription)
+        .string("location", SecurityEvent::setLocation)
+        .string("severity", SecurityEvent::setSeverity)
+        .string("timestamp", SecurityEvent::setTimestamp)
+        .build();
+    
+    static final ModelCodec<Visitor> VISITOR = ModelCodec.builder(Visitor::new)
+        .string("id", Visitor::setId)
+        .string("name", Visitor::setName)
+        .string("phone", Visitor::setPhone)
+        .string("visitingUnit", Visitor::setVisitingUnit)
+        .string("visitDate", Visitor::setVisitDate)
+        .string("visitTime", Visitor::setVisitTime)
+        .string("purpose", Visitor::setPurpose)
+        .string("status", Visitor::setStatus)
+        .build();
+    
+    static final ModelCodec<Message> MESSAGE = ModelCodec.builder(Message::new)
+        .string("id", Message::setId)
+        .string("senderName", Message::setSenderName)
+        .string("recipientType", Message::setRecipientType, Message::getRecipientType)
+        .string("recipientId", Message::setRecipientId, Message::getRecipientId)
+        .string("subject", Message::setSubject, Message::getSubject)
+        .string("content", Message::setContent, Message::getContent)
+        .string("timestamp", Message::setTimestamp)
+        .bool("isRead", Message::setRead)
+        .string("priority", Message::setPriority, Message::getPriority)
+        .build();
+}
+
+// ============= RESPONSE CACHE =============
+package com.condoconnectai.services;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class ResponseCache {
+    private static final int MAGIC = 0x43435231;
+    
+    static class Entry {
+        final String etag;
+        final String lastModified;
+        final int length;
+        // Parsed model for this body; kept in memory only.
+        volatile Object model;
+        
+        Entry(String etag, String lastModified, int length) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+    
+    private final File directory;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private boolean initialized;
+    
+    ResponseCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+    
+    synchronized Entry get(String key) {
+        initialize();
+        String fileName = fileName(key);
+        Entry entry = entries.get(fileName);
+        if (entry != null) {
+            new File(directory, fileName).setLastModified(System.currentTimeMillis());
+        }
+        return entry;
+    }
+    
+    synchronized byte[] readBody(String key, Entry entry) {
+        File file = new File(directory, fileName(key));
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            readHeader(in);
+            byte[] body = new byte[entry.length];
+            in.readFully(body);
+            return body;
+        } catch (IOException e) {
+            remove(key);
+            return null;
+        }
+    }
+    
+    synchronized Entry put(String key, String etag, String lastModified, byte[] body) {
+        initialize();
+        if (body == null || body.length > maxBytes) {
+            return null;
+        }
+        
+        String fileName = fileName(key);
+        File file = new File(directory, fileName);
+        File temp = new File(directory, fileName + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(temp))) {
+            out.writeInt(MAGIC);
+            out.writeUTF(etag != null ? etag : "");
+            out.writeUTF(lastModified != null ? lastModified : "");
+            out.writeInt(body.length);
+            out.write(body);
+        } catch (IOException e) {
+            temp.delete();
+            return null;
+        }
+        
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            return null;
+        }
+        
+        Entry previous = entries.remove(fileName);
+        if (previous != null) {
+            totalBytes -= previous.length;
+        }
+        Entry entry = new Entry(etag, lastModified, body.length);
+        entries.put(fileName, entry);
+        totalBytes += body.length;
+        trimToSize();
+        return entry;
+    }
+    
+    synchronized void remove(String key) {
+        String fileName = fileName(key);
+        Entry entry = entries.remove(fileName);
+        if (entry != null) {
+            totalBytes -= entry.length;
+        }
+        new File(directory, fileName).delete();
+    }
+    
+    synchronized void clear() {
+        initialize();
+        for (String fileName : entries.keySet()) {
+            new File(directory, fileName).delete();
+        }
+        entries.clear();
+        totalBytes = 0;
+    }
+    
+    private void initialize() {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+        
+        if (!directory.exists() && !directory.mkdirs()) {
+            return;
+        }
+        
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        
+        // Oldest access first so the LinkedHashMap starts in LRU order
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            if (file.getName().endsWith(".tmp")) {
+                file.delete();
+                continue;
+            }
+            try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+                Entry entry = readHeader(in);
+                entries.put(file.getName(), entry);
+                totalBytes += entry.length;
+            } catch (IOException e) {
+                file.delete();
+            }
+        }
+        trimToSize();
+    }
+    
+    private Entry readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Unknown cache entry format");
+        }
+        String etag = in.readUTF();
+        String lastModified = in.readUTF();
+        int length = in.readInt();
+        return new Entry(etag.isEmpty() ? null : etag, lastModified.isEmpty() ? null : lastModified, length);
+    }
+    
+    private void trimToSize() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            totalBytes -= eldest.getValue().length;
+            new File(directory, eldest.getKey()).delete();
+            iterator.remove();
+        }
+    }
+    
+    private static String fileName(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(key.getBytes("UTF-8"));
+            StringBuilder builder = new StringBuilder();
+            for (byte b : hash) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            return Integer.toHexString(key.hashCode());
+        }
+    }
+}
+
+// ============= RESIDENT STORE =============
+package com.condoconnectai.services;
+
+import com.condoconnectai.models.Resident;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One tenant's residents as the raw server records plus the updatedAt
+// high-water mark of the last completed sync.
+class ResidentStore {
+    private final File file;
+    private final String tenant;
+    private final LinkedHashMap<String, JSONObject> records = new LinkedHashMap<>();
+    private String watermark = "";
+    private List<Resident> models;
+    private int revision;
+    private boolean initialized;
+    
+    ResidentStore(File directory, String tenant) {
+        directory.mkdirs();
+        this.file = new File(directory, "residents-" + tenant.replaceAll("[^A-Za-z0-9_-]", "_") + ".json");
+        this.tenant = tenant;
+    }
+    
+    String getTenant() {
+        return tenant;
+    }
+    
+    synchronized String getWatermark() {
+        initialize();
+        return watermark;
+    }
+    
+    synchronized JSONArray getRecords() {
+        initialize();
+        JSONArray array = new JSONArray();
+        for (JSONObject record : records.values()) {
+            array.put(record);
+        }
+        return array;
+    }
+    
+    // Parsed copy of the records; dropped whenever a merge changes anything
+    synchronized List<Resident> getModels() {
+        return models;
+    }
+    
+    // Bumped whenever the records change, so a parse that raced a write
+    // does not install a stale copy
+    synchronized int getRevision() {
+        return revision;
+    }
+    
+    synchronized void setModels(List<Resident> models, int revision) {
+        if (this.revision == revision) {
+            this.models = models;
+        }
+    }
+    
+    // Returns how many records were added, changed or removed. A full sync
+    // replaces the store, so records the server no longer returned count
+    // as removed.
+    synchronized int merge(JSONArray upserts, List<String> deletedIds, String newWatermark, boolean replace)
+            throws JSONException {
+        initialize();
+        int changed = 0;
+        String highest = replace ? "" : watermark;
+        Map<String, JSONObject> incoming = new LinkedHashMap<>();
+        
+        for (int i = 0; i < upserts.length(); i++) {
+            JSONObject record = upserts.getJSONObject(i);
+            String id = record.optString("id");
+            if (id.isEmpty()) {
+                continue;
+            }
+            incoming.put(id, record);
+            
+            String updatedAt = record.optString("updatedAt");
+            if (updatedAt.compareTo(highest) > 0) {
+                highest = updatedAt;
+            }
+        }
+        
+        if (replace) {
+            Iterator<String> iterator = records.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (!incoming.containsKey(iterator.next())) {
+                    iterator.remove();
+                    changed++;
+                }
+            }
+        }
+        
+        for (Map.Entry<String, JSONObject> entry : incoming.entrySet()) {
+            JSONObject existing = records.get(entry.getKey());
+            if (existing == null || !existing.optString("updatedAt").equals(entry.getValue().optString("updatedAt"))) {
+                records.put(entry.getKey(), entry.getValue());
+                changed++;
+            }
+        }
+        
+        for (String id : deletedIds) {
+            if (records.remove(id) != null) {
+                changed++;
+            }
+        }
+        
+        String previousWatermark = watermark;
+        watermark = newWatermark != null && !newWatermark.isEmpty() ? newWatermark : highest;
+        if (changed > 0) {
+            models = null;
+            revision++;
+        }
+        if (changed > 0 || !watermark.equals(previousWatermark)) {
+            persist();
+        }
+        return changed;
+    }
+    
+    // Applies one accepted write, null record for a delete, without moving
+    // the watermark: the delta sync still returns the server's copy later
+    synchronized void applyWrite(String id, JSONObject record) {
+        initialize();
+        if (record != null) {
+            records.put(id, record);
+        } else if (records.remove(id) == null) {
+            return;
+        }
+        models = null;
+        revision++;
+        try {
+            persist();
+        } catch (JSONException e) {
+            // Rewritten by the next merge
+        }
+    }
+    
+    synchronized void clear() {
+        records.clear();
+        watermark = "";
+        models = null;
+        revision++;
+        initialized = true;
+        file.delete();
+    }
+    
+    private void initialize() {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+        
+        if (!file.exists()) {
+            return;
+        }
+        
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            byte[] bytes = new byte[(int) file.length()];
+            in.readFully(bytes);
+            JSONObject json = new JSONObject(new String(bytes, StandardCharsets.UTF_8));
+            JSONArray stored = json.getJSONArray("records");
+            for (int i = 0; i < stored.length(); i++) {
+                JSONObject record = stored.getJSONObject(i);
+                records.put(record.optString("id"), record);
+            }
+            watermark = json.optString("watermark");
+        } catch (IOException | JSONException e) {
+            // Unreadable store: start over with a full sync
+            records.clear();
+            watermark = "";
+            file.delete();
+        }
+    }
+    
+    private void persist() throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("watermark", watermark);
+        json.put("records", getRecords());
+        
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(json.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+        }
+    }
+}
+
+// ============= AUTH MANAGER =============
+package com.condoconnectai.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import com.amazonaws.mobileconnectors.cognitoidentityprovider.*;
+import com.amazonaws.mobileconnectors.cognitoidentityprovider.continuations.*;
+import com.amazonaws.mobileconnectors.cognitoidentityprovider.handlers.*;
+import com.amazonaws.regions.Regions;
+import com.condoconnectai.models.User;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AuthManager {
+    private static AuthManager instance;
+    private Context context;
+    private CognitoUserPool userPool;
+    private CognitoUser currentUser;
+    private SharedPreferences sharedPreferences;
+    private volatile Session session;
+    private final List<SessionCallback> refreshWaiters = new ArrayList<>();
+    private boolean refreshing;
+    private int refreshFailures;
+    private long refreshBlockedUntil;
+    
+    private static final String USER_POOL_ID = "us-east-1_XXXXXXXXX";
+    private static final String CLIENT_ID = "XXXXXXXXXXXXXXXXXXXXXXXXXX";
+    private static final String PREFS_NAME = "CondoconnectAI_Prefs";
+    private static final String KEY_ACCESS_TOKEN = "access_token";
+    private static final String KEY_REFRESH_TOKEN = "refresh_token";
+    private static final String KEY_USER_ID = "user_id";
+    private static final String KEY_USER_NAME = "user_name";
+    private static final String KEY_USER_EMAIL = "user_email";
+    private static final String KEY_TOKEN_EXPIRY = "token_expiry";
+    private static final String KEY_USER_ROLE = "user_role";
+    private static final long REFRESH_AHEAD_MS = 5 * 60 * 1000;
+    private static final long EXPIRY_SKEW_MS = 30 * 1000;
+    private static final long REFRESH_BACKOFF_MS = 2 * 1000;
+    private static final long MAX_REFRESH_BACKOFF_MS = 60 * 1000;
+    
+    private AuthManager(Context context) {
+        this.context = context.getApplicationContext();
+        this.sharedPreferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        
+        CognitoUserPoolsSignInHandler cognitoUserPoolsSignInHandler = new CognitoUserPoolsSignInHandler() {
+            @Override
+            public void onSuccess(CognitoUserSession userSession) {
+                // Handle successful sign in
+            }
+            
+            @Override
+            public void getAuthenticationDetails(AuthenticationContinuation authenticationContinuation, String userId) {
+                // Handle authentication details request
+            }
+            
+            @Override
+            public void getMFACode(MultiFactorAuthenticationContinuation continuation) {
+                // Handle MFA if enabled
+            }
+            
+            @Override
+            public void authenticationChallenge(ChallengeContinuation continuation) {
+                // Handle authentication challenges
+            }
+            
+            @Override
+            public void onFailure(Exception exception) {
+                // Handle sign in failure
+            }
+        };
+        
+        userPool = new CognitoUserPool(context, USER_POOL_ID, CLIENT_ID, null, Regions.US_EAST_1);
+    }
+    
+    public static synchronized AuthManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new AuthManager(context);
+        }
+        return instance;
+    }
+    
+    public interface AuthCallback {
+        void onSuccess(User user);
+        void onError(String error);
+    }
+    
+    public interface SessionCallback {
+        void onSession(Session session);
+    }
+    
+    // Immutable snapshot of the signed-in session with its request headers
+    // prebuilt, so a request never touches SharedPreferences
+    public static final class Session {
+        private final String accessToken;
+        private final long expiresAt;
+        private final Map<String, String> headers;
+        
+        Session(String accessToken, long expiresAt) {
+            this.accessToken = accessToken;
+            this.expiresAt = expiresAt;
+            
+            Map<String, String> headers = new HashMap<>();
+            headers.put("Content-Type", "application/json");
+            if (accessToken != null) {
+                headers.put("Authorization", "Bearer " + accessToken);
+            }
+            this.headers = Collections.unmodifiableMap(headers);
+        }
+        
+        public String getAccessToken() {
+            return accessToken;
+        }
+        
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+        
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+        
+        // Sessions saved before the expiry was stored are treated as valid
+        boolean isExpired(long now) {
+            return accessToken != null && expiresAt > 0 && now >= expiresAt - EXPIRY_SKEW_MS;
+        }
+        
+        boolean needsRefresh(long now) {
+            return accessToken != null && expiresAt > 0 && now >= expiresAt - REFRESH_AHEAD_MS;
+        }
+    }
+    
+    public void signIn(String email, String password, AuthCallback callback) {
+        currentUser = userPool.getUser(email);
+        
+        AuthenticationHandler authenticationHandler = new AuthenticationHandler() {
+            @Override
+            public void onSuccess(CognitoUserSession userSession, CognitoDevice newDevice) {
+                // Save tokens
+                saveTokens(userSession);
+                
+                // Get user attributes
+                currentUser.getDetailsInBackground(new GetDetailsHandler() {
+                    @Override
+                    public void onSuccess(CognitoUserDetails cognitoUserDetails) {
+                        User user = createUserFromDetails(cognitoUserDetails, userSession);
+                        saveUserInfo(user);
+                        sharedPreferences.edit()
+                            .putString(KEY_USER_ROLE, cognitoUserDetails.getAttributes().getAttributes().get("custom:role"))
+                            .apply();
+                        callback.onSuccess(user);
+                    }
+                    
+                    @Override
+                    public void onFailure(Exception exception) {
+                        callback.onError("Failed to get user details: " + exception.getMessage());
+                    }
+                });
+            }
+            
+            @Override
+            public void getAuthenticationDetails(AuthenticationContinuation authenticationContinuation, String userId) {
+                AuthenticationDetails authenticationDetails = new AuthenticationDetails(userId, password, null);
+                authenticationContinuation.setAuthenticationDetails(authenticationDetails);
+                authenticationContinuation.continueTask();
+            }
+            
+            @Override
+            public void getMFACode(MultiFactorAuthenticationContinuation continuation) {
+                // Handle MFA if needed
+                callback.onError("MFA not supported in this version");
+            }
+            
+            @Override
+            public void authenticationChallenge(ChallengeContinuation continuation) {
+                // Handle authentication challenges
+                callback.onError("Authentication challenge not supported");
+            }
+            
+            @Override
+            public void onFailure(Exception exception) {
+                callback.onError("Authentication failed: " + exception.getMessage());
+            }
+        };
+        
+        currentUser.getSessionInBackground(authenticationHandler);
+    }
+    
+    public void signUp(String email, String password, String name, String phone, AuthCallback callback) {
+        CognitoUserAttributes userAttributes = new CognitoUserAttributes();
+        userAttributes.addAttribute("email", email);
+        userAttributes.addAttribute("name", name);
+        userAttributes.addAttribute("phone_number", phone);
+        
+        SignUpHandler signUpHandler = new SignUpHandler() {
+            @Override
+            public void onSuccess(CognitoUser user, SignUpResult signUpResult) {
+                if (signUpResult.getUserConfirmed()) {
+                    // User is confirmed, can sign in
+                    signIn(email, password, callback);
+                } else {
+                    // User needs to confirm email
+                    callback.onError("Please check your email and confirm your account");
+                }
+            }
+            
+            @Override
+            public void onFailure(Exception exception) {
+                callback.onError("Sign up failed: " + exception.getMessage());
+            }
+        };
+        
+        userPool.signUpInBackground(email, password, userAttributes, null, signUpHandler);
+    }
+    
+    public void confirmSignUp(String email, String confirmationCode, AuthCallback callback) {
+        CognitoUser user = userPool.getUser(email);
+        
+        GenericHandler confirmationHandler = new GenericHandler() {
+            @Override
+            public void onSuccess() {
+                callback.onSuccess(null);
+            }
+            
+            @Override
+            public void onFailure(Exception exception) {
+                callback.onError("Confirmation failed: " + exception.getMessage());
+            }
+        };
+        
+        user.confirmSignUpInBackground(confirmationCode, false, confirmationHandler);
+    }
+    
+    public void forgotPassword(String email, AuthCallback callback) {
+        CognitoUser user = userPool.getUser(email);
+        
+        ForgotPasswordHandler forgotPasswordHandler = new ForgotPasswordHandler() {
+            @Override
+            public void onSuccess() {
+                callback.onSuccess(null);
+            }
+            
+            @Override
+            public void getResetCode(ForgotPasswordContinuation continuation) {
+                // Password reset code will be sent to user's email
+                callback.onSuccess(null);
+            }
+            
+            @Override
+            public void onFailure(Exception exception) {
+                callback.onError("Password reset failed: " + exception.getMessage());
+            }
+        };
+        
+        user.forgotPasswordInBackground(forgotPasswordHandler);
+    }
+    
+    public void confirmForgotPassword(String email, String confirmationCode, String newPassword, AuthCallback callback) {
+        CognitoUser user = userPool.getUser(email);
+        
+        ForgotPasswordHandler confirmHandler = new ForgotPasswordHandler() {
+            @Override
+            public void onSuccess() {
+                callback.onSuccess(null);
+            }
+            
+            @Override
+            public void getResetCode(ForgotPasswordContinuation continuation) {
+                continuation.setPassword(newPassword);
+                continuation.setVerificationCode(confirmationCode);
+                continuation.continueTask();
+            }
+            
+            @Override
+            public void onFailure(Exception exception) {
+                callback.onError("Password confirmation failed: " + exception.getMessage());
+            }
+        };
+        
+        user.forgotPasswordInBackground(confirmHandler);
+    }
+    
+    public void signOut() {
+        if (currentUser != null) {
+            currentUser.signOut();
+        }
+        clearStoredData();
+    }
+    
+    public boolean isUserLoggedIn() {
+        String accessToken = getSession().getAccessToken();
+        return accessToken != null && !accessToken.isEmpty();
+    }
+    
+    public User getCurrentUser() {
+        if (isUserLoggedIn()) {
+            User user = new User();
+            user.setId(sharedPreferences.getString(KEY_USER_ID, ""));
+            user.setName(sharedPreferences.getString(KEY_USER_NAME, ""));
+            user.setEmail(sharedPreferences.getString(KEY_USER_EMAIL, ""));
+            return user;
+        }
+        return null;
+    }
+    
+    public String getAccessToken() {
+        return getSession().getAccessToken();
+    }
+    
+    public Session getSession() {
+        Session current = session;
+        if (current == null) {
+            synchronized (this) {
+                if (session == null) {
+                    session = new Session(sharedPreferences.getString(KEY_ACCESS_TOKEN, null),
+                        sharedPreferences.getLong(KEY_TOKEN_EXPIRY, 0));
+                }
+                current = session;
+            }
+        }
+        return current;
+    }
+    
+    // Hands out the current session right away, refreshing it in the
+    // background once it is close to expiry. Only an already expired session
+    // makes the caller wait, and every waiter shares the same refresh.
+    public void withSession(SessionCallback callback) {
+        Session current = getSession();
+        long now = System.currentTimeMillis();
+        if (!current.isExpired(now)) {
+            if (current.needsRefresh(now)) {
+                refreshSession(null);
+            }
+            callback.onSession(current);
+            return;
+        }
+        refreshSession(callback);
+    }
+    
+    // After a failed refresh no new one starts until its backoff has passed.
+    // Callers get the current session right away and a 401 takes it from
+    // there, instead of every request asking Cognito again while it fails.
+    private void refreshSession(SessionCallback waiter) {
+        boolean backingOff;
+        synchronized (this) {
+            backingOff = !refreshing && System.currentTimeMillis() < refreshBlockedUntil;
+            if (!backingOff) {
+                if (waiter != null) {
+                    refreshWaiters.add(waiter);
+                }
+                if (refreshing) {
+                    return;
+                }
+                refreshing = true;
+            }
+        }
+        if (backingOff) {
+            if (waiter != null) {
+                waiter.onSession(getSession());
+            }
+            return;
+        }
+        
+        CognitoUser user = currentUser != null ? currentUser : userPool.getCurrentUser();
+        // Cognito exchanges the stored refresh token when the access token is stale
+        user.getSessionInBackground(new AuthenticationHandler() {
+            @Override
+            public void onSuccess(CognitoUserSession userSession, CognitoDevice newDevice) {
+                saveTokens(userSession);
+                finishRefresh(true);
+            }
+            
+            @Override
+            public void getAuthenticationDetails(AuthenticationContinuation authenticationContinuation, String userId) {
+                // Refresh token expired; requests go out as-is and the 401 sends the user to login
+                finishRefresh(false);
+            }
+            
+            @Override
+            public void getMFACode(MultiFactorAuthenticationContinuation continuation) {
+                finishRefresh(false);
+            }
+            
+            @Override
+            public void authenticationChallenge(ChallengeContinuation continuation) {
+                finishRefresh(false);
+            }
+            
+            @Override
+            public void onFailure(Exception exception) {
+                finishRefresh(false);
+            }
+        });
+    }
+    
+    private void finishRefresh(boolean succeeded) {
+        List<SessionCallback> waiters;
+        synchronized (this) {
+            refreshing = false;
+            if (succeeded) {
+                refreshFailures = 0;
+                refreshBlockedUntil = 0;
+            } else {
+                // 2 s doubling per consecutive failure, capped at a minute
+                refreshFailures = Math.min(refreshFailures + 1, 16);
+                refreshBlockedUntil = System.currentTimeMillis()
+                    + Math.min(MAX_REFRESH_BACKOFF_MS, REFRESH_BACKOFF_MS << (refreshFailures - 1));
+            }
+            waiters = new ArrayList<>(refreshWaiters);
+            refreshWaiters.clear();
+        }
+        
+        Session current = getSession();
+        for (SessionCallback waiter : waiters) {
+            waiter.onSession(current);
+        }
+    }
+    
+    // "custom:role" from the user pool, e.g. "admin" or "guard"; empty if unset
+    public String getUserRole() {
+        String role = sharedPreferences.getString(KEY_USER_ROLE, null);
+        return role != null ? role : "";
+    }
+    
+    // The tenant is selected by the activities and kept in the shared app prefs
+    public String getTenantId() {
+        return context.getSharedPreferences("CondoconnectAI", Context.MODE_PRIVATE).getString("tenant_id", "");
+    }
+    
+    private void saveTokens(CognitoUserSession userSession) {
+        String accessToken = userSession.getAccessToken().getJWTToken();
+        long expiresAt = userSession.getAccessToken().getExpiration().getTime();
+        session = new Session(accessToken, expiresAt);
+        
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        editor.putString(KEY_ACCESS_TOKEN, accessToken);
+        editor.putString(KEY_REFRESH_TOKEN, userSession.getRefreshToken().getToken());
+        editor.putLong(KEY_TOKEN_EXPIRY, expiresAt);
+        editor.apply();
+    }
+    
+    private void saveUserInfo(User user) {
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        editor.putString(KEY_USER_ID, user.getId());
+        editor.putString(KEY_USER_NAME, user.getName());
+        editor.putString(KEY_USER_EMAIL, user.getEmail());
+        editor.apply();
+    }
+    
+    private User createUserFromDetails(CognitoUserDetails details, CognitoUserSession session) {
+        User user = new User();
+        user.setId(session.getAccessToken().getUsername());
+        user.setName(details.getAttributes().getAttributes().get("name"));
+        user.setEmail(details.getAttributes().getAttributes().get("email"));
+        user.setPhone(details.getAttributes().getAttributes().get("phone_number"));
+        return user;
+    }
+    
+    private void clearStoredData() {
+        session = new Session(null, 0);
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        editor.clear();
+        editor.apply();
+    }
+}
+
+// ============= CBOR READER =============
+package com.condoconnectai.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// Pull reader for RFC 8949 CBOR over a byte array, covering what the API
+// emits: integers, floats, text, arrays and maps (definite or indefinite
+// length), booleans and null. Tags are skipped; byte strings are only skipped.
+public final class CborReader {
+    public static final int TYPE_UNSIGNED = 0;
+    public static final int TYPE_NEGATIVE = 1;
+    public static final int TYPE_BYTES = 2;
+    public static final int TYPE_TEXT = 3;
+    public static final int TYPE_ARRAY = 4;
+    public static final int TYPE_MAP = 5;
+    public static final int TYPE_TAG = 6;
+    public static final int TYPE_SIMPLE = 7;
+    
+    private static final int BREAK = 0xFF;
+    
+    private final byte[] data;
+    private int position;
+    
+    public CborReader(byte[] data) {
+        this.data = data;
+    }
+    
+    // API envelopes are always a map or an array (optionally tagged), which
+    // can never start a JSON document
+    public static boolean isCbor(byte[] body) {
+        if (body == null || body.length == 0) {
+            return false;
+        }
+        int type = (body[0] & 0xFF) >>> 5;
+        return type == TYPE_ARRAY || type == TYPE_MAP || type == TYPE_TAG;
+    }
+    
+    public int peekType() throws IOException {
+        skipTags();
+        return current() >>> 5;
+    }
+    
+    public boolean isNull() throws IOException {
+        skipTags();
+        int initial = current();
+        return initial == 0xF6 || initial == 0xF7;
+    }
+    
+    public boolean isBoolean() throws IOException {
+        skipTags();
+        int initial = current();
+        return initial == 0xF4 || initial == 0xF5;
+    }
+    
+    public boolean isFloat() throws IOException {
+        skipTags();
+        int initial = current();
+        return initial == 0xF9 || initial == 0xFA || initial == 0xFB;
+    }
+    
+    // Length of the map in entries, or -1 for an indefinite-length map
+    public long readMapHeader() throws IOException {
+        return readContainerHeader(TYPE_MAP);
+    }
+    
+    public long readArrayHeader() throws IOException {
+        return readContainerHeader(TYPE_ARRAY);
+    }
+    
+    public boolean hasNext(long length, long read) throws IOException {
+        if (length >= 0) {
+            return read < length;
+        }
+        return current() != BREAK;
+    }
+    
+    public void endContainer(long length) throws IOException {
+        if (length < 0) {
+            if (current() != BREAK) {
+                throw new IOException("Expected break at " + position);
+            }
+            position++;
+        }
+    }
+    
+    public String readText() throws IOException {
+        skipTags();
+        int initial = current();
+        if (initial >>> 5 != TYPE_TEXT) {
+            throw new IOException("Expected text at " + position);
+        }
+        position++;
+        
+        int info = initial & 0x1F;
+        if (info != 31) {
+            int length = checkedLength(readArgument(info));
+            String text = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return text;
+        }
+        
+        StringBuilder builder = new StringBuilder();
+        while (current() != BREAK) {
+            builder.append(readText());
+        }
+        position++;
+        return builder.toString();
+    }
+    
+    public long readLong() throws IOException {
+        skipTags();
+        int initial = current();
+        int type = initial >>> 5;
+        if (type != TYPE_UNSIGNED && type != TYPE_NEGATIVE) {
+            throw new IOException("Expected integer at " + position);
+        }
+        position++;
+        long value = readArgument(initial & 0x1F);
+        return type == TYPE_UNSIGNED ? value : -1 - value;
+    }
+    
+    public double readDouble() throws IOException {
+        skipTags();
+        int initial = current();
+        position++;
+        switch (initial) {
+            case 0xF9:
+                return halfToDouble((int) readBytes(2));
+            case 0xFA:
+                return Float.intBitsToFloat((int) readBytes(4));
+            case 0xFB:
+                return Double.longBitsToDouble(readBytes(8));
+            default:
+                position--;
+                throw new IOException("Expected float at " + position);
+        }
+    }
+    
+    public boolean readBoolean() throws IOException {
+        skipTags();
+        int initial = current();
+        if (initial != 0xF4 && initial != 0xF5) {
+            throw new IOException("Expected boolean at " + position);
+        }
+        position++;
+        return initial == 0xF5;
+    }
+    
+    public void skip() throws IOException {
+        skipTags();
+        int initial = current();
+        int type = initial >>> 5;
+        int info = initial & 0x1F;
+        position++;
+        
+        switch (type) {
+            case TYPE_UNSIGNED:
+            case TYPE_NEGATIVE:
+                readArgument(info);
+                break;
+            case TYPE_BYTES:
+            case TYPE_TEXT:
+                if (info == 31) {
+                    while (current() != BREAK) {
+                        skip();
+                    }
+                    position++;
+                } else {
+                    int length = checkedLength(readArgument(info));
+                    position += length;
+                }
+                break;
+            case TYPE_ARRAY:
+            case TYPE_MAP:
+                long length = info == 31 ? -1 : readArgument(info);
+                long items = type == TYPE_MAP && length > 0 ? length * 2 : length;
+                for (long i = 0; hasNext(items, i); i++) {
+                    skip();
+                }
+                endContainer(items);
+                break;
+            default:
+                if (info >= 24 && info <= 27) {
+                    readArgument(info);
+                } else if (info > 27) {
+                    throw new IOException("Unsupported simple value at " + (position - 1));
+                }
+                break;
+        }
+    }
+    
+    private long readContainerHeader(int expectedType) throws IOException {
+        skipTags();
+        int initial = current();
+        if (initial >>> 5 != expectedType) {
+            throw new IOException("Expected major type " + expectedType + " at " + position);
+        }
+        position++;
+        int info = initial & 0x1F;
+        return info == 31 ? -1 : readArgument(info);
+    }
+    
+    private void skipTags() throws IOException {
+        while (current() >>> 5 == TYPE_TAG) {
+            int info = current() & 0x1F;
+            position++;
+            readArgument(info);
+        }
+    }
+    
+    private long readArgument(int info) throws IOException {
+        if (info < 24) {
+            return info;
+        }
+        switch (info) {
+            case 24: return readBytes(1);
+            case 25: return readBytes(2);
+            case 26: return readBytes(4);
+            case 27: return readBytes(8);
+            default: throw new IOException("Invalid additional information " + info + " at " + position);
+        }
+    }
+    
+    private long readBytes(int count) throws IOException {
+        require(count);
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = (value << 8) | (data[position++] & 0xFF);
+        }
+        return value;
+    }
+    
+    private int checkedLength(long length) throws IOException {
+        if (length < 0 || length > data.length - position) {
+            throw new IOException("Truncated CBOR at " + position);
+        }
+        return (int) length;
+    }
+    
+    private int current() throws IOException {
+        require(1);
+        return data[position] & 0xFF;
+    }
+    
+    private void require(int count) throws IOException {
+        if (position + count > data.length) {
+            throw new IOException("Truncated CBOR at " + position);
+        }
+    }
+    
+    private static double halfToDouble(int half) {
+        int exponent = (half >> 10) & 0x1F;
+        int mantissa = half & 0x3FF;
+        double value;
+        if (exponent == 0) {
+            value = mantissa * Math.pow(2, -24);
+        } else if (exponent == 31) {
+            value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        } else {
+            value = (mantissa + 1024) * Math.pow(2, exponent - 25);
+        }
+        return (half & 0x8000) != 0 ? -value : value;
+    }
+}
+
+// ============= MODEL CODEC =============
+package com.condoconnectai.utils;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.JsonWriter;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Declarative field table for a model class, built once per model. Decoding
+// is one map lookup and a setter call per field: no reflection, and the
+// streaming paths never build a JSONObject. Missing fields decode the way
+// optString/optDouble/optInt/optBoolean do, and null values are not encoded.
+// The same table maps DynamoDB items, using the field name as attribute name.
+public final class ModelCodec<T> {
+    public interface Factory<T> {
+        T create();
+    }
+    
+    public interface Setter<T, V> {
+        void set(T model, V value);
+    }
+    
+    public interface Getter<T, V> {
+        V get(T model);
+    }
+    
+    private enum Kind { STRING, NUMBER, INTEGER, BOOLEAN, OBJECT }
+    
+    private static final class Field<T> {
+        final String name;
+        final Kind kind;
+        final Setter<T, Object> setter;
+        final Getter<T, Object> getter;
+        final ModelCodec<Object> nested;
+        
+        Field(String name, Kind kind, Setter<T, Object> setter, Getter<T, Object> getter, ModelCodec<Object> nested) {
+            this.name = name;
+            this.kind = kind;
+            this.setter = setter;
+            this.getter = getter;
+            this.nested = nested;
+        }
+    }
+    
+    public static final class Builder<T> {
+        private final Factory<T> factory;
+        private final List<Field<T>> fields = new ArrayList<>();
+        
+        private Builder(Factory<T> factory) {
+            this.factory = factory;
+        }
+        
+        public Builder<T> string(String name, Setter<T, String> setter) {
+            return add(name, Kind.STRING, setter, null, null);
+        }
+        
+        public Builder<T> string(String name, Setter<T, String> setter, Getter<T, String> getter) {
+            return add(name, Kind.STRING, setter, getter, null);
+        }
+        
+        public Builder<T> number(String name, Setter<T, Double> setter) {
+            return add(name, Kind.NUMBER, setter, null, null);
+        }
+        
+        public Builder<T> number(String name, Setter<T, Double> setter, Getter<T, Double> getter) {
+            return add(name, Kind.NUMBER, setter, getter, null);
+        }
+        
+        public Builder<T> integer(String name, Setter<T, Integer> setter) {
+            return add(name, Kind.INTEGER, setter, null, null);
+        }
+        
+        public Builder<T> integer(String name, Setter<T, Integer> setter, Getter<T, Integer> getter) {
+            return add(name, Kind.INTEGER, setter, getter, null);
+        }
+        
+        public Builder<T> bool(String name, Setter<T, Boolean> setter) {
+            return add(name, Kind.BOOLEAN, setter, null, null);
+        }
+        
+        public Builder<T> bool(String name, Setter<T, Boolean> setter, Getter<T, Boolean> getter) {
+            return add(name, Kind.BOOLEAN, setter, getter, null);
+        }
+        
+        public <V> Builder<T> object(String name, ModelCodec<V> codec, Setter<T, V> setter, Getter<T, V> getter) {
+            return add(name, Kind.OBJECT, setter, getter, codec);
+        }
+        
+        @SuppressWarnings("unchecked")
+        private Builder<T> add(String name, Kind kind, Setter<T, ?> setter, Getter<T, ?> getter, ModelCodec<?> nested) {
+            fields.add(new Field<>(name, kind, (Setter<T, Object>) setter, (Getter<T, Object>) getter, (ModelCodec<Object>) nested));
+            return this;
+        }
+        
+        public ModelCodec<T> build() {
+            return new ModelCodec<>(factory, fields);
+        }
+    }
+    
+    public static <T> Builder<T> builder(Factory<T> factory) {
+        return new Builder<>(factory);
+    }
+    
+    private final Factory<T> factory;
+    private final List<Field<T>> fields;
+    private final Map<String, Integer> indexByName = new HashMap<>();
+    
+    private ModelCodec(Factory<T> factory, List<Field<T>> fields) {
+        this.factory = factory;
+        this.fields = new ArrayList<>(fields);
+        for (int i = 0; i < this.fields.size(); i++) {
+            indexByName.put(this.fields.get(i).name, i);
+        }
+    }
+    
+    public List<String> fieldNames() {
+        List<String> names = new ArrayList<>(fields.size());
+        for (Field<T> field : fields) {
+            names.add(field.name);
+        }
+        return names;
+    }
+    
+    // ============= STREAMING =============
+    public T read(JsonReader reader) throws IOException {
+        T model = factory.create();
+        boolean[] seen = new boolean[fields.size()];
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            Integer index = indexByName.get(reader.nextName());
+            if (index == null) {
+                reader.skipValue();
+                continue;
+            }
+            Field<T> field = fields.get(index);
+            seen[index] = true;
+            Object value = readValue(reader, field);
+            if (value != null) {
+                field.setter.set(model, value);
+            }
+        }
+        reader.endObject();
+        
+        for (int i = 0; i < seen.length; i++) {
+            if (!seen[i]) {
+                applyDefault(model, fields.get(i));
+            }
+        }
+        return model;
+    }
+    
+    public List<T> readList(JsonReader reader) throws IOException {
+        List<T> models = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            models.add(read(reader));
+        }
+        reader.endArray();
+        return models;
+    }
+    
+    public T read(CborReader reader) throws IOException {
+        T model = factory.create();
+        boolean[] seen = new boolean[fields.size()];
+        
+        long length = reader.readMapHeader();
+        for (long i = 0; reader.hasNext(length, i); i++) {
+            Integer index = indexByName.get(reader.readText());
+            if (index == null) {
+                reader.skip();
+                continue;
+            }
+            Field<T> field = fields.get(index);
+            seen[index] = true;
+            Object value = readValue(reader, field);
+            if (value != null) {
+                field.setter.set(model, value);
+            }
+        }
+        reader.endContainer(length);
+        
+        for (int i = 0; i < seen.length; i++) {
+            if (!seen[i]) {
+                applyDefault(model, fields.get(i));
+            }
+        }
+        return model;
+    }
+    
+    public List<T> readList(CborReader reader) throws IOException {
+        List<T> models = new ArrayList<>();
+        long length = reader.readArrayHeader();
+        for (long i = 0; reader.hasNext(length, i); i++) {
+            models.add(read(reader));
+        }
+        reader.endContainer(length);
+        return models;
+    }
+    
+    public void write(JsonWriter writer, T model) throws IOException {
+        writer.beginObject();
+        for (Field<T> field : fields) {
+            if (field.getter == null) {
+                continue;
+            }
+            Object value = field.getter.get(model);
+            if (value == null) {
+                continue;
+            }
+            
+            writer.name(field.name);
+            switch (field.kind) {
+                case STRING: writer.value((String) value); break;
+                case NUMBER: writer.value(((Number) value).doubleValue()); break;
+                case INTEGER: writer.value(((Number) value).longValue()); break;
+                case BOOLEAN: writer.value((Boolean) value); break;
+                case OBJECT: field.nested.write(writer, value); break;
+            }
+        }
+        writer.endObject();
+    }
+    
+    public byte[] encode(T model) throws JSONException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonWriter writer = new JsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            write(writer, model);
+        } catch (IOException | IllegalArgumentException e) {
+            // JsonWriter rejects NaN and infinite numbers, as JSONObject.put does
+            throw new JSONException(e.getMessage());
+        }
+        return out.toByteArray();
+    }
+    
+    private Object readValue(JsonReader reader, Field<T> field) throws IOException {
+        switch (field.kind) {
+            case STRING:
+                return readString(reader);
+            case NUMBER:
+                return readDouble(reader);
+            case INTEGER:
+                double number = readDouble(reader);
+                return Double.isNaN(number) ? 0 : (int) number;
+            case BOOLEAN:
+                return readBoolean(reader);
+            default:
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    throw new IOException(field.name + " is not an object");
+                }
+                return field.nested.read(reader);
+        }
+    }
+    
+    private Object readValue(CborReader reader, Field<T> field) throws IOException {
+        switch (field.kind) {
+            case STRING:
+                return readString(reader);
+            case NUMBER:
+                return readDouble(reader);
+            case INTEGER:
+                double number = readDouble(reader);
+                return Double.isNaN(number) ? 0 : (int) number;
+            case BOOLEAN:
+                if (reader.isBoolean()) {
+                    return reader.readBoolean();
+                }
+                if (reader.peekType() == CborReader.TYPE_TEXT) {
+                    return "true".equalsIgnoreCase(reader.readText());
+                }
+                reader.skip();
+                return false;
+            default:
+                if (reader.peekType() != CborReader.TYPE_MAP) {
+                    throw new IOException(field.name + " is not a map");
+                }
+                return field.nested.read(reader);
+        }
+    }
+    
+    public static String readString(CborReader reader) throws IOException {
+        switch (reader.peekType()) {
+            case CborReader.TYPE_TEXT:
+                return reader.readText();
+            case CborReader.TYPE_UNSIGNED:
+            case CborReader.TYPE_NEGATIVE:
+                return String.valueOf(reader.readLong());
+            default:
+                if (reader.isNull()) {
+                    reader.skip();
+                    return "null";
+                }
+                if (reader.isBoolean()) {
+                    return String.valueOf(reader.readBoolean());
+                }
+                if (reader.isFloat()) {
+                    return String.valueOf(reader.readDouble());
+                }
+                throw new IOException("Unexpected CBOR type " + reader.peekType() + " for a string field");
+        }
+    }
+    
+    private static double readDouble(CborReader reader) throws IOException {
+        int type = reader.peekType();
+        if (type == CborReader.TYPE_UNSIGNED || type == CborReader.TYPE_NEGATIVE) {
+            return reader.readLong();
+        }
+        if (reader.isFloat()) {
+            return reader.readDouble();
+        }
+        if (type == CborReader.TYPE_TEXT) {
+            return parseDouble(reader.readText());
+        }
+        reader.skip();
+        return Double.NaN;
+    }
+    
+    // Mirrors optString: numbers keep org.json's formatting and null reads
+    // as "null". Nested values are rejected so callers fall back to the tree.
+    public static String readString(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case STRING:
+                return reader.nextString();
+            case NUMBER:
+                return normalizeNumber(reader.nextString());
+            case BOOLEAN:
+                return String.valueOf(reader.nextBoolean());
+            case NULL:
+                reader.nextNull();
+                return "null";
+            default:
+                throw new IOException("Unexpected " + reader.peek() + " for a string field");
+        }
+    }
+    
+    // org.json keeps integral literals as Integer/Long and the rest as Double
+    private static String normalizeNumber(String literal) {
+        if (literal.indexOf('.') == -1 && literal.indexOf('e') == -1 && literal.indexOf('E') == -1) {
+            try {
+                return String.valueOf(Long.parseLong(literal));
+            } catch (NumberFormatException e) {
+                // Too large for a long; org.json falls back to Double as well
+            }
+        }
+        try {
+            return String.valueOf(Double.parseDouble(literal));
+        } catch (NumberFormatException e) {
+            return literal;
+        }
+    }
+    
+    private static double readDouble(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+            String value = reader.nextString();
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        reader.skipValue();
+        return Double.NaN;
+    }
+    
+    private static boolean readBoolean(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.BOOLEAN) {
+            return reader.nextBoolean();
+        }
+        if (token == JsonToken.STRING) {
+            return "true".equalsIgnoreCase(reader.nextString());
+        }
+        reader.skipValue();
+        return false;
+    }
+    
+    // ============= TREE =============
+    public T fromJson(JSONObject json) throws JSONException {
+        T model = factory.create();
+        for (Field<T> field : fields) {
+            switch (field.kind) {
+                case STRING: field.setter.set(model, json.optString(field.name)); break;
+                case NUMBER: field.setter.set(model, json.optDouble(field.name)); break;
+                case INTEGER: field.setter.set(model, json.optInt(field.name, 0)); break;
+                case BOOLEAN: field.setter.set(model, json.optBoolean(field.name, false)); break;
+                case OBJECT:
+                    if (json.has(field.name)) {
+                        field.setter.set(model, field.nested.fromJson(json.getJSONObject(field.name)));
+                    }
+                    break;
+            }
+        }
+        return model;
+    }
+    
+    public List<T> fromJson(JSONArray array) throws JSONException {
+        List<T> models = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            models.add(fromJson(array.getJSONObject(i)));
+        }
+        return models;
+    }
+    
+    // ============= DYNAMODB =============
+    // Booleans and numbers are also accepted as S attributes, which is how
+    // the existing tables store is_read and friends.
+    public T fromItem(Map<String, AttributeValue> item) {
+        T model = factory.create();
+        for (Field<T> field : fields) {
+            AttributeValue value = item.get(field.name);
+            if (value == null) {
+                applyDefault(model, field);
+                continue;
+            }
+            
+            String scalar = value.getS() != null ? value.getS() : value.getN();
+            switch (field.kind) {
+                case STRING:
+                    field.setter.set(model, scalar != null ? scalar : "");
+                    break;
+                case NUMBER:
+                    field.setter.set(model, parseDouble(scalar));
+                    break;
+                case INTEGER:
+                    double number = parseDouble(scalar);
+                    field.setter.set(model, Double.isNaN(number) ? 0 : (int) number);
+                    break;
+                case BOOLEAN:
+                    field.setter.set(model, value.getBOOL() != null ? value.getBOOL() : Boolean.parseBoolean(scalar));
+                    break;
+                case OBJECT:
+                    if (value.getM() != null) {
+                        field.setter.set(model, field.nested.fromItem(value.getM()));
+                    }
+                    break;
+            }
+        }
+        return model;
+    }
+    
+    // Only fields with a getter are written, and null or NaN values are left
+    // out rather than stored as NULL. Booleans are written as "true"/"false"
+    // strings so existing conditions on is_read keep matching.
+    public Map<String, AttributeValue> toItem(T model) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        for (Field<T> field : fields) {
+            if (field.getter == null) {
+                continue;
+            }
+            Object value = field.getter.get(model);
+            if (value == null) {
+                continue;
+            }
+            
+            switch (field.kind) {
+                case STRING:
+                    item.put(field.name, new AttributeValue((String) value));
+                    break;
+                case NUMBER:
+                    double number = ((Number) value).doubleValue();
+                    if (!Double.isNaN(number) && !Double.isInfinite(number)) {
+                        item.put(field.name, new AttributeValue().withN(String.valueOf(number)));
+                    }
+                    break;
+                case INTEGER:
+                    item.put(field.name, new AttributeValue().withN(String.valueOf(((Number) value).longValue())));
+                    break;
+                case BOOLEAN:
+                    item.put(field.name, new AttributeValue(String.valueOf(value)));
+                    break;
+                case OBJECT:
+                    item.put(field.name, new AttributeValue().withM(field.nested.toItem(value)));
+                    break;
+            }
+        }
+        return item;
+    }
+    
+    private static double parseDouble(String value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+    
+    private void applyDefault(T model, Field<T> field) {
+        switch (field.kind) {
+            case STRING: field.setter.set(model, ""); break;
+            case NUMBER: field.setter.set(model, Double.NaN); break;
+            case INTEGER: field.setter.set(model, 0); break;
+            case BOOLEAN: field.setter.set(model, false); break;
+            case OBJECT: break;
+        }
+    }
+}
+
+// ============= APP EXECUTORS =============
+package com.condoconnectai.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Process-wide background threads. IO is for blocking network and disk
+// calls, CPU for parsing and other computation, and WRITE_BEHIND applies
+// writes one at a time in submission order. Pool sizes are fixed and idle
+// threads exit after 30s.
+public final class AppExecutors {
+    private static final String TAG = "AppExecutors";
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+    private static AppExecutors instance;
+    
+    public enum Pool {
+        IO("io", 4),
+        CPU("cpu", Math.max(2, Math.min(Runtime.getRuntime().availableProcessors() - 1, 4))),
+        WRITE_BEHIND("write", 1);
+        
+        final String threadName;
+        final int threads;
+        
+        Pool(String threadName, int threads) {
+            this.threadName = threadName;
+            this.threads = threads;
+        }
+    }
+    
+    public static class PoolStats {
+        private final Pool pool;
+        private final int threads;
+        private final int active;
+        private final int queued;
+        private final int peakQueued;
+        private final long completed;
+        private final long maxWaitMs;
+        
+        PoolStats(Pool pool, int threads, int active, int queued, int peakQueued, long completed, long maxWaitMs) {
+            this.pool = pool;
+            this.threads = threads;
+            this.active = active;
+            this.queued = queued;
+            this.peakQueued = peakQueued;
+            this.completed = completed;
+            this.maxWaitMs = maxWaitMs;
+        }
+        
+        public Pool getPool() {
+            return pool;
+        }
+        
+        public int getThreads() {
+            return threads;
+        }
+        
+        public int getActive() {
+            return active;
+        }
+        
+        public int getQueued() {
+            return queued;
+        }
+        
+        // Deepest the queue has been since the last resetPeaks()
+        public int getPeakQueued() {
+            return peakQueued;
+        }
+        
+        public long getCompleted() {
+            return completed;
+        }
+        
+        // Longest a task has waited in the queue since the last resetPeaks()
+        public long getMaxWaitMs() {
+            return maxWaitMs;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-12s threads=%d active=%d queued=%d peak=%d completed=%d maxWait=%dms",
+                pool, threads, active, queued, peakQueued, completed, maxWaitMs);
+        }
+    }
+    
+    private final Map<Pool, MeteredExecutor> executors = new EnumMap<>(Pool.class);
+    
+    private AppExecutors() {
+        for (Pool pool : Pool.values()) {
+            executors.put(pool, new MeteredExecutor(pool));
+        }
+    }
+    
+    public static synchronized AppExecutors getInstance() {
+        if (instance == null) {
+            instance = new AppExecutors();
+        }
+        return instance;
+    }
+    
+    public Executor executor(Pool pool) {
+        return executors.get(pool);
+    }
+    
+    public Executor io() {
+        return executor(Pool.IO);
+    }
+    
+    public Executor cpu() {
+        return executor(Pool.CPU);
+    }
+    
+    public Executor writeBehind() {
+        return executor(Pool.WRITE_BEHIND);
+    }
+    
+    // Tasks for one screen, cancelled when its lifecycle is destroyed
+    public TaskGroup newGroup(LifecycleOwner owner) {
+        TaskGroup group = new TaskGroup(this);
+        owner.getLifecycle().addObserver(group);
+        return group;
+    }
+    
+    public List<PoolStats> getStats() {
+        List<PoolStats> stats = new ArrayList<>();
+        for (Map.Entry<Pool, MeteredExecutor> entry : executors.entrySet()) {
+            stats.add(entry.getValue().stats(entry.getKey()));
+        }
+        return stats;
+    }
+    
+    public void resetPeaks() {
+        for (MeteredExecutor executor : executors.values()) {
+            executor.resetPeaks();
+        }
+    }
+    
+    private static class MeteredExecutor extends ThreadPoolExecutor {
+        private final AtomicInteger peakQueued = new AtomicInteger();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        
+        MeteredExecutor(Pool pool) {
+            super(pool.threads, pool.threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory(pool));
+            allowCoreThreadTimeOut(true);
+        }
+        
+        private static ThreadFactory threadFactory(Pool pool) {
+            AtomicInteger count = new AtomicInteger();
+            return runnable -> new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, pool.threadName + "-" + count.incrementAndGet());
+        }
+        
+        @Override
+        public void execute(Runnable command) {
+            long submittedAt = System.nanoTime();
+            super.execute(() -> {
+                raise(maxWaitNanos, System.nanoTime() - submittedAt);
+                command.run();
+            });
+            raise(peakQueued, getQueue().size());
+        }
+        
+        PoolStats stats(Pool pool) {
+            return new PoolStats(pool, pool.threads, getActiveCount(), getQueue().size(), peakQueued.get(),
+                getCompletedTaskCount(), TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+        }
+        
+        void resetPeaks() {
+            peakQueued.set(0);
+            maxWaitNanos.set(0);
+        }
+        
+        private static void raise(AtomicInteger peak, int value) {
+            int current;
+            while (value > (current = peak.get()) && !peak.compareAndSet(current, value)) {
+                // Lost the race; re-read
+            }
+        }
+        
+        private static void raise(AtomicLong peak, long value) {
+            long current;
+            while (value > (current = peak.get()) && !peak.compareAndSet(current, value)) {
+                // Lost the race; re-read
+            }
+        }
+    }
+    
+    // IO and CPU work is cancelled and interrupted on ON_DESTROY. Writes are
+    // never cancelled once accepted, so leaving a screen does not lose them;
+    // only their post() back to the UI is dropped.
+    public static class TaskGroup implements LifecycleEventObserver {
+        private final AppExecutors executors;
+        private final Set<FutureTask<?>> running = new HashSet<>();
+        private boolean destroyed;
+        
+        TaskGroup(AppExecutors executors) {
+            this.executors = executors;
+        }
+        
+        public void io(Runnable task) {
+            submit(Pool.IO, task);
+        }
+        
+        public void cpu(Runnable task) {
+            submit(Pool.CPU, task);
+        }
+        
+        public void write(Runnable task) {
+            executors.writeBehind().execute(task);
+        }
+        
+        // Runs the action on the main thread unless the group is destroyed by then
+        public void post(Runnable action) {
+            MAIN_HANDLER.post(() -> {
+                if (!isDestroyed()) {
+                    action.run();
+                }
+            });
+        }
+        
+        public void postDelayed(Runnable action, long delayMs) {
+            MAIN_HANDLER.postDelayed(() -> {
+                if (!isDestroyed()) {
+                    action.run();
+                }
+            }, delayMs);
+        }
+        
+        public synchronized boolean isDestroyed() {
+            return destroyed;
+        }
+        
+        // Nobody reads the futures, so a task that throws is reported here
+        // rather than swallowed. Cancellation is the group working as meant.
+        private void submit(Pool pool, Runnable task) {
+            FutureTask<Void> future = new FutureTask<Void>(task, null) {
+                @Override
+                protected void done() {
+                    forget(this);
+                    if (!isCancelled()) {
+                        report(this);
+                    }
+                }
+            };
+            synchronized (this) {
+                if (destroyed) {
+                    return;
+                }
+                running.add(future);
+            }
+            executors.executor(pool).execute(future);
+        }
+        
+        private synchronized void forget(FutureTask<?> future) {
+            running.remove(future);
+        }
+        
+        private static void report(FutureTask<?> future) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    // Out of memory and the like must still crash the app
+                    throw (Error) cause;
+                }
+                Log.e(TAG, "Background task failed", cause);
+            } catch (InterruptedException e) {
+                // Unreachable once done() runs; keep the flag for the pool
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        @Override
+        public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+            if (event != Lifecycle.Event.ON_DESTROY) {
+                return;
+            }
+            source.getLifecycle().removeObserver(this);
+            List<FutureTask<?>> pending;
+            synchronized (this) {
+                destroyed = true;
+                pending = new ArrayList<>(running);
+                running.clear();
+            }
+            for (FutureTask<?> future : pending) {
+                future.cancel(true);
+            }
+        }
     }
 }
 
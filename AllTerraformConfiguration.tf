@@ -724,6 +724,28 @@ resource "aws_dynamodb_table" "access_logs" {
   })
 }
 
+# Per-tenant status counts, moved in the same transaction as each write
+resource "aws_dynamodb_table" "counters" {
+  name           = "${local.name_prefix}-counters"
+  billing_mode   = "PAY_PER_REQUEST"
+  hash_key       = "tenant_id"
+
+  attribute {
+    name = "tenant_id"
+    type = "S"
+  }
+
+  point_in_time_recovery {
+    enabled = var.environment == "prod"
+  }
+
+  deletion_protection_enabled = var.enable_deletion_protection
+
+  tags = merge(local.common_tags, {
+    Name = "${local.name_prefix}-counters"
+  })
+}
+
 # ============= COGNITO USER POOL =============
 resource "aws_cognito_user_pool" "main" {
   name = "${local.name_prefix}-users"
@@ -949,6 +971,7 @@ resource "aws_iam_role_policy" "lambda_dynamodb" {
           aws_dynamodb_table.messages.arn,
           aws_dynamodb_table.announcements.arn,
           aws_dynamodb_table.access_logs.arn,
+          aws_dynamodb_table.counters.arn,
           "${aws_dynamodb_table.residents.arn}/index/*",
           "${aws_dynamodb_table.payments.arn}/index/*",
           "${aws_dynamodb_table.work_orders.arn}/index/*",
@@ -1255,6 +1278,7 @@ output "dynamodb_tables" {
     messages        = aws_dynamodb_table.messages.name
     announcements   = aws_dynamodb_table.announcements.name
     access_logs     = aws_dynamodb_table.access_logs.name
+    counters        = aws_dynamodb_table.counters.name
   }
 }
 
@@ -1,31 +1,50 @@
 package com.condoconnectai;
 
+import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.util.Log;
 import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
-import com.amazonaws.services.dynamodbv2.model.ScanRequest;
-import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.condoconnectai.data.TenantCounters;
+import com.condoconnectai.utils.AppExecutors;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class DashboardActivity extends AppCompatActivity {
     private static final String TAG = "DashboardActivity";
+    private static final long DASHBOARD_DEADLINE_MS = 2500;
+    private static final String WIDGET_RESIDENTS = "total_residents";
+    private static final String WIDGET_REVENUE = "monthly_revenue";
+    private static final String WIDGET_MAINTENANCE = "pending_maintenance";
+    private static final String WIDGET_INCIDENTS = "security_incidents";
     private TextView totalResidentsText;
     private TextView monthlyRevenueText;
     private TextView pendingMaintenanceText;
     private TextView securityIncidentsText;
     private RecyclerView recentActivitiesRecycler;
     private RecyclerView pendingTasksRecycler;
-    private AmazonDynamoDBClient dynamoDBClient;
+    private TenantCounters tenantCounters;
+    private SharedPreferences widgetCache;
+    // Read once per screen; keys both the counters and the widget cache
+    private String tenantId;
+    // Card widgets still waiting for fresh data; main thread only
+    private final Set<String> pendingWidgets = new HashSet<>();
     private DashboardAdapter dashboardAdapter;
+    private AppExecutors.TaskGroup taskGroup;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        taskGroup = AppExecutors.getInstance().newGroup(this);
+        tenantCounters = TenantCounters.getInstance(this);
+        widgetCache = getSharedPreferences("dashboard_widgets", MODE_PRIVATE);
+        tenantId = getCurrentTenantId();
         setContentView(R.layout.activity_dashboard);
         
         initializeViews();
@@ -50,69 +69,111 @@ public class DashboardActivity extends AppCompatActivity {
         recentActivitiesRecycler.setAdapter(dashboardAdapter);
     }
 
+    // Every widget loads as its own IO task and renders as soon as its data
+    // arrives, so the screen waits for the slowest widget rather than the sum
+    // of all of them. Cards still loading at the deadline show their last
+    // cached value, which fresh data replaces if it turns up later.
     private void loadDashboardData() {
-        new Thread(() -> {
+        Collections.addAll(pendingWidgets, WIDGET_RESIDENTS, WIDGET_REVENUE, WIDGET_MAINTENANCE, WIDGET_INCIDENTS);
+        taskGroup.postDelayed(this::showCachedWidgets, DASHBOARD_DEADLINE_MS);
+        
+        // Both counter cards come from the same GetItem
+        taskGroup.io(() -> {
+            try {
+                TenantCounters.Snapshot counters = loadCounters();
+                loadResidentsCount(counters);
+                loadPendingMaintenance(counters);
+            } catch (Exception e) {
+                Log.e(TAG, "Error loading dashboard counters", e);
+                taskGroup.post(() -> {
+                    showCachedWidget(WIDGET_RESIDENTS);
+                    showCachedWidget(WIDGET_MAINTENANCE);
+                    showError("Error cargando datos del dashboard");
+                });
+            }
+        });
+        taskGroup.io(this::loadMonthlyRevenue);
+        taskGroup.io(this::loadSecurityIncidents);
+        taskGroup.io(this::loadRecentActivities);
+        taskGroup.io(this::loadPendingTasks);
+    }
+
+    // One GetItem for every counter on the screen. A tenant without a
+    // counters item yet is counted once inline; stale counters are shown as
+    // they are and recounted in the background.
+    private TenantCounters.Snapshot loadCounters() {
+        TenantCounters.Snapshot counters = tenantCounters.read(tenantId);
+        if (!counters.exists()) {
+            try {
+                return tenantCounters.reconcile(tenantId);
+            } catch (ConditionalCheckFailedException e) {
+                // Another device created the item first; its counts will do
+                counters = tenantCounters.read(tenantId);
+                if (!counters.exists()) {
+                    throw e;
+                }
+                return counters;
+            }
+        }
+        if (tenantCounters.isStale(counters)) {
+            reconcileCounters();
+        }
+        return counters;
+    }
+
+    // A read-heavy recount, so it runs on the IO pool rather than holding
+    // up the single write-behind thread
+    private void reconcileCounters() {
+        taskGroup.io(() -> {
             try {
-                loadResidentsCount();
-                loadMonthlyRevenue();
-                loadPendingMaintenance();
-                loadSecurityIncidents();
-                loadRecentActivities();
-                loadPendingTasks();
+                TenantCounters.Snapshot counters = tenantCounters.reconcile(tenantId);
+                loadResidentsCount(counters);
+                loadPendingMaintenance(counters);
             } catch (Exception e) {
-                Log.e(TAG, "Error loading dashboard data", e);
-                runOnUiThread(() -> showError("Error cargando datos del dashboard"));
+                Log.e(TAG, "Error reconciling dashboard counters", e);
             }
-        }).start();
+        });
     }
 
-    private void loadResidentsCount() {
+    private void loadResidentsCount(TenantCounters.Snapshot counters) {
         try {
-            ScanRequest scanRequest = new ScanRequest()
-                .withTableName("CondoconnectAI-Residents")
-                .withFilterExpression("attribute_exists(resident_id)");
+            long count = counters.total(TenantCounters.RESIDENTS);
             
-            ScanResult result = dynamoDBClient.scan(scanRequest);
-            int count = result.getCount();
-            
-            runOnUiThread(() -> totalResidentsText.setText(String.valueOf(count)));
+            showWidget(WIDGET_RESIDENTS, String.valueOf(count));
         } catch (Exception e) {
             Log.e(TAG, "Error loading residents count", e);
+            taskGroup.post(() -> showCachedWidget(WIDGET_RESIDENTS));
         }
     }
 
     private void loadMonthlyRevenue() {
         try {
             // Implementar lógica para calcular ingresos mensuales
-            runOnUiThread(() -> monthlyRevenueText.setText("$25,000"));
+            showWidget(WIDGET_REVENUE, "$25,000");
         } catch (Exception e) {
             Log.e(TAG, "Error loading monthly revenue", e);
+            taskGroup.post(() -> showCachedWidget(WIDGET_REVENUE));
         }
     }
 
-    private void loadPendingMaintenance() {
+    private void loadPendingMaintenance(TenantCounters.Snapshot counters) {
         try {
-            ScanRequest scanRequest = new ScanRequest()
-                .withTableName("CondoconnectAI-Maintenance")
-                .withFilterExpression("#status = :status")
-                .withExpressionAttributeNames(Map.of("#status", "status"))
-                .withExpressionAttributeValues(Map.of(":status", new AttributeValue("pending")));
-            
-            ScanResult result = dynamoDBClient.scan(scanRequest);
-            int count = result.getCount();
+            long count = counters.get(TenantCounters.WORK_ORDERS, "pending");
             
-            runOnUiThread(() -> pendingMaintenanceText.setText(String.valueOf(count)));
+            showWidget(WIDGET_MAINTENANCE, String.valueOf(count));
         } catch (Exception e) {
             Log.e(TAG, "Error loading pending maintenance", e);
+            taskGroup.post(() -> showCachedWidget(WIDGET_MAINTENANCE));
         }
     }
 
     private void loadSecurityIncidents() {
         try {
             // Implementar lógica para contar incidentes de seguridad
-            runOnUiThread(() -> securityIncidentsText.setText("2"));
+            showWidget(WIDGET_INCIDENTS, "2");
         } catch (Exception e) {
             Log.e(TAG, "Error loading security incidents", e);
+            taskGroup.post(() -> showCachedWidget(WIDGET_INCIDENTS));
         }
     }
 
@@ -125,7 +186,7 @@ public class DashboardActivity extends AppCompatActivity {
             activities.add(new ActivityItem("Pago procesado", "Hace 4 horas", "payment"));
             activities.add(new ActivityItem("Mantenimiento completado", "Hace 6 horas", "maintenance"));
             
-            runOnUiThread(() -> dashboardAdapter.updateActivities(activities));
+            taskGroup.post(() -> dashboardAdapter.updateActivities(activities));
         } catch (Exception e) {
             Log.e(TAG, "Error loading recent activities", e);
         }
@@ -139,12 +200,60 @@ public class DashboardActivity extends AppCompatActivity {
             tasks.add(new TaskItem("Aprobar nuevo residente", "Media", "2024-11-11"));
             tasks.add(new TaskItem("Generar reporte mensual", "Baja", "2024-11-12"));
             
-            runOnUiThread(() -> dashboardAdapter.updateTasks(tasks));
+            taskGroup.post(() -> dashboardAdapter.updateTasks(tasks));
         } catch (Exception e) {
             Log.e(TAG, "Error loading pending tasks", e);
         }
     }
 
+    // Renders on the main thread and keeps the value for the next time this
+    // card misses the deadline
+    private void showWidget(String widget, String value) {
+        taskGroup.post(() -> {
+            pendingWidgets.remove(widget);
+            widgetView(widget).setText(value);
+            widgetCache.edit().putString(widgetCacheKey(widget), value).apply();
+        });
+    }
+
+    private void showCachedWidgets() {
+        if (pendingWidgets.isEmpty()) {
+            return;
+        }
+        Log.w(TAG, "Dashboard widgets past deadline: " + pendingWidgets);
+        for (String widget : pendingWidgets) {
+            showCachedWidget(widget);
+        }
+    }
+
+    // Leaves the widget pending, so fresh data still replaces the cached value
+    private void showCachedWidget(String widget) {
+        if (!pendingWidgets.contains(widget)) {
+            return;
+        }
+        String cached = widgetCache.getString(widgetCacheKey(widget), null);
+        if (cached != null) {
+            widgetView(widget).setText(cached);
+        }
+    }
+
+    private TextView widgetView(String widget) {
+        switch (widget) {
+            case WIDGET_RESIDENTS: return totalResidentsText;
+            case WIDGET_REVENUE: return monthlyRevenueText;
+            case WIDGET_MAINTENANCE: return pendingMaintenanceText;
+            default: return securityIncidentsText;
+        }
+    }
+
+    private String widgetCacheKey(String widget) {
+        return tenantId + ":" + widget;
+    }
+
+    private String getCurrentTenantId() {
+        return getSharedPreferences("CondoconnectAI", MODE_PRIVATE).getString("tenant_id", "");
+    }
+
     private void showError(String message) {
         // Implementar mostrar error
         Log.e(TAG, message);
@@ -11,16 +11,20 @@ import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.auth.CognitoCachingCredentialsProvider;
 import com.amazonaws.regions.Regions;
+import com.condoconnectai.data.DynamoClient;
+import com.condoconnectai.utils.AppExecutors;
 
 public class MainActivity extends AppCompatActivity {
     private static final String TAG = "CondoconnectAI";
     private AmazonDynamoDBClient dynamoDBClient;
     private AmazonS3Client s3Client;
     private CognitoCachingCredentialsProvider credentialsProvider;
+    private AppExecutors.TaskGroup taskGroup;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        taskGroup = AppExecutors.getInstance().newGroup(this);
         setContentView(R.layout.activity_main);
         
         initializeAWS();
@@ -42,8 +46,7 @@ public class MainActivity extends AppCompatActivity {
                 );
                 
                 // Inicializar clientes AWS
-                dynamoDBClient = new AmazonDynamoDBClient(credentialsProvider);
-                dynamoDBClient.setRegion(com.amazonaws.regions.Region.getRegion(Regions.US_EAST_1));
+                dynamoDBClient = DynamoClient.getInstance(getApplicationContext());
                 
                 s3Client = new AmazonS3Client(credentialsProvider);
                 s3Client.setRegion(com.amazonaws.regions.Region.getRegion(Regions.US_EAST_1));
@@ -114,7 +117,7 @@ public class MainActivity extends AppCompatActivity {
 
     private void syncDataWithAWS() {
         // Implementar lógica de sincronización
-        new Thread(() -> {
+        taskGroup.io(() -> {
             try {
                 // Sincronizar datos locales con DynamoDB
                 OfflineSyncManager.getInstance().performSync();
@@ -128,6 +131,6 @@ public class MainActivity extends AppCompatActivity {
             } catch (Exception e) {
                 Log.e(TAG, "Error during sync", e);
             }
-        }).start();
+        });
     }
 }